@@ -0,0 +1,129 @@
+package org.radarbase.auth.authentication
+
+import com.auth0.jwt.JWT
+import com.auth0.jwt.algorithms.Algorithm
+import kotlinx.coroutines.runBlocking
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.radarbase.auth.jwks.JwksTokenVerifierLoader.Companion.toTokenVerifier
+import org.radarbase.auth.token.RadarToken
+import java.security.KeyPairGenerator
+import java.security.interfaces.ECPrivateKey
+import java.security.interfaces.ECPublicKey
+import java.security.interfaces.RSAPrivateKey
+import java.security.interfaces.RSAPublicKey
+import java.security.spec.ECGenParameterSpec
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures [TokenValidator] validation of a typical Management Portal access token, signed with
+ * an EC or RSA key. The token cache is disabled, so every call verifies the signature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class TokenValidatorBenchmark {
+    @Param("ES256", "RS256")
+    lateinit var algorithm: String
+
+    private lateinit var validator: TokenValidator
+    private lateinit var token: String
+
+    @Setup
+    fun setUp() {
+        val signingAlgorithm = when (algorithm) {
+            "ES256" -> {
+                val keyPair = KeyPairGenerator.getInstance("EC")
+                    .apply { initialize(ECGenParameterSpec("secp256r1")) }
+                    .generateKeyPair()
+                Algorithm.ECDSA256(
+                    keyPair.public as ECPublicKey,
+                    keyPair.private as ECPrivateKey,
+                )
+            }
+            "RS256" -> {
+                val keyPair = KeyPairGenerator.getInstance("RSA")
+                    .apply { initialize(2048) }
+                    .generateKeyPair()
+                Algorithm.RSA256(
+                    keyPair.public as RSAPublicKey,
+                    keyPair.private as RSAPrivateKey,
+                )
+            }
+            else -> throw IllegalArgumentException("Unknown algorithm $algorithm")
+        }
+        token = createAccessToken(signingAlgorithm)
+        validator = TokenValidator(
+            listOf(
+                StaticTokenVerifierLoader(
+                    listOf(signingAlgorithm.toTokenVerifier(RESOURCE_NAME, keyId = KEY_ID))
+                )
+            )
+        )
+        // load the verifiers before measuring
+        runBlocking { validator.validate(token) }
+    }
+
+    @Benchmark
+    fun validate(): RadarToken = runBlocking { validator.validate(token) }
+
+    @Benchmark
+    fun validateBlocking(): RadarToken = validator.validateBlocking(token)
+
+    @Benchmark
+    fun validateOrNull(): RadarToken? = validator.validateOrNull(token)
+
+    companion object {
+        const val RESOURCE_NAME = "res_ManagementPortal"
+        const val KEY_ID = "selfsigned"
+
+        /** Create an access token with the claims that the Management Portal adds. */
+        fun createAccessToken(algorithm: Algorithm): String {
+            val now = Instant.now()
+            return JWT.create()
+                .withKeyId(KEY_ID)
+                .withIssuer("ManagementPortal")
+                .withIssuedAt(now)
+                .withExpiresAt(now + Duration.ofHours(1))
+                .withAudience(RESOURCE_NAME, "res_gateway", "res_appconfig")
+                .withSubject("admin")
+                .withClaim("user_name", "admin")
+                .withArrayClaim(
+                    "roles",
+                    arrayOf(
+                        "main:ROLE_ORGANIZATION_ADMIN",
+                        "PROJECT1:ROLE_PROJECT_ADMIN",
+                        "PROJECT2:ROLE_PROJECT_ANALYST",
+                    ),
+                )
+                .withArrayClaim("authorities", arrayOf("ROLE_PROJECT_ADMIN"))
+                .withArrayClaim("sources", arrayOf<String>())
+                .withArrayClaim(
+                    "scope",
+                    arrayOf(
+                        "MEASUREMENT.READ", "PROJECT.READ", "PROJECT.UPDATE", "SOURCE.READ",
+                        "SOURCETYPE.READ", "SUBJECT.CREATE", "SUBJECT.READ", "SUBJECT.UPDATE",
+                        "USER.READ",
+                    ),
+                )
+                .withClaim("grant_type", "authorization_code")
+                .withClaim("client_id", "ManagementPortalapp")
+                .withJWTId("1b1e9c3f-7c5a-4e0c-8d4f-1a6e4f3c2b1a")
+                .sign(algorithm)
+        }
+    }
+}
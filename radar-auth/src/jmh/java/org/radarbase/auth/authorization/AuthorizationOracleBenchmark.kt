@@ -0,0 +1,93 @@
+package org.radarbase.auth.authorization
+
+import kotlinx.coroutines.runBlocking
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.radarbase.auth.token.DataRadarToken
+import org.radarbase.auth.token.RadarToken
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.TimeUnit
+
+/**
+ * Compares the permission bitmask checks of [MPAuthorizationOracle] with the set based checks
+ * that were used before, for tokens with different mixes of roles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class AuthorizationOracleBenchmark {
+    @Param("participant", "projectAdmin", "multiProject", "sysAdmin")
+    lateinit var roleMix: String
+
+    private lateinit var oracle: AuthorizationOracle
+    private lateinit var token: RadarToken
+    private val permission = Permission.SUBJECT_UPDATE
+    private val entity = EntityDetails(project = "PROJECT1", subject = "subject1")
+
+    @Setup
+    fun setUp() {
+        oracle = MPAuthorizationOracle(object : EntityRelationService {
+            override suspend fun findOrganizationOfProject(project: String): String = "main"
+        })
+        token = DataRadarToken(
+            roles = roles(roleMix),
+            scopes = Permission.scopes().toSet(),
+            grantType = "authorization_code",
+            subject = "subject1",
+            username = "subject1",
+            expiresAt = Instant.now() + Duration.ofDays(1),
+        )
+    }
+
+    @Benchmark
+    fun hasScope(): Boolean = oracle.hasScope(token, permission)
+
+    @Benchmark
+    fun hasScopeWithRoleSets(): Boolean = permission.scope() in token.scopes &&
+        token.roles.any { it.role in MPAuthorizationOracle.allowedRoles(permission) }
+
+    @Benchmark
+    fun hasPermissionOrNull(): Boolean? = oracle.hasPermissionOrNull(token, permission, entity)
+
+    @Benchmark
+    fun hasPermissionBlocking(): Boolean = runBlocking {
+        oracle.hasPermission(token, permission, entity)
+    }
+
+    @Benchmark
+    fun referentsByScope(): AuthorityReferenceSet = oracle.referentsByScope(token, permission)
+
+    companion object {
+        private fun roles(roleMix: String): Set<AuthorityReference> = when (roleMix) {
+            "participant" -> setOf(
+                AuthorityReference(RoleAuthority.PARTICIPANT, "PROJECT1"),
+            )
+            "projectAdmin" -> setOf(
+                AuthorityReference(RoleAuthority.PROJECT_ADMIN, "PROJECT1"),
+            )
+            "multiProject" -> setOf(
+                AuthorityReference(RoleAuthority.PARTICIPANT, "PROJECT2"),
+                AuthorityReference(RoleAuthority.PROJECT_ANALYST, "PROJECT3"),
+                AuthorityReference(RoleAuthority.ORGANIZATION_ADMIN, "other"),
+                AuthorityReference(RoleAuthority.PROJECT_ADMIN, "PROJECT1"),
+            )
+            "sysAdmin" -> setOf(
+                AuthorityReference(RoleAuthority.SYS_ADMIN),
+            )
+            else -> throw IllegalArgumentException("Unknown role mix $roleMix")
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.radarbase.auth.jwt
+
+import com.auth0.jwt.JWT
+import com.auth0.jwt.algorithms.Algorithm
+import com.auth0.jwt.interfaces.DecodedJWT
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.radarbase.auth.authentication.TokenValidatorBenchmark.Companion.createAccessToken
+import org.radarbase.auth.jwt.JwtTokenVerifier.Companion.toRadarToken
+import org.radarbase.auth.token.DataRadarToken.Companion.toDataRadarToken
+import org.radarbase.auth.token.RadarToken
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures decoding a JWT and parsing its claims into a [RadarToken], without verifying the
+ * signature. Claims of a [RadarToken] are parsed lazily, so the benchmarks also measure using
+ * part or all of the claims.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class JwtTokenVerifierBenchmark {
+    private lateinit var token: String
+    private lateinit var decodedJwt: DecodedJWT
+
+    @Setup
+    fun setUp() {
+        token = createAccessToken(Algorithm.HMAC256("secret"))
+        decodedJwt = JWT.decode(token)
+    }
+
+    @Benchmark
+    fun decode(): DecodedJWT = JWT.decode(token)
+
+    @Benchmark
+    fun toRadarToken(): RadarToken = decodedJwt.toRadarToken()
+
+    /** Parses only the claims needed for a scope check. */
+    @Benchmark
+    fun toRadarTokenScopes(): Long = decodedJwt.toRadarToken().scopePermissionMask
+
+    /** Parses all claims, as a token that is checked against its roles. */
+    @Benchmark
+    fun toRadarTokenAllClaims(): RadarToken = decodedJwt.toRadarToken().toDataRadarToken()
+
+    @Benchmark
+    fun decodeToRadarToken(): RadarToken = JWT.decode(token).toRadarToken()
+}
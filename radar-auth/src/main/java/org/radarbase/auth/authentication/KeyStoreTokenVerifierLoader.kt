@@ -0,0 +1,57 @@
+package org.radarbase.auth.authentication
+
+import com.auth0.jwt.algorithms.Algorithm
+import org.radarbase.auth.jwks.JwksTokenVerifierLoader.Companion.toTokenVerifier
+import org.radarbase.auth.jwks.toAlgorithm
+import org.radarbase.auth.jwt.EdDsaAlgorithm
+import org.slf4j.LoggerFactory
+import java.security.KeyStore
+import java.security.KeyStoreException
+import java.security.PublicKey
+import java.security.interfaces.ECPublicKey
+import java.security.interfaces.RSAPublicKey
+
+/**
+ * Load token verifiers from the public keys in a [KeyStore]. This avoids fetching public keys
+ * over HTTP when the key store that signs the tokens is available in the same process.
+ * Only the certificates of the given aliases are read, the private keys are not accessed.
+ * The key alias is used as JWT key ID of each verifier.
+ */
+class KeyStoreTokenVerifierLoader(
+    private val keyStore: KeyStore,
+    /** Aliases of the keys that may have signed a token. */
+    private val aliases: List<String>,
+    /** Resource name that should be present in the token audience. */
+    private val resourceName: String,
+) : TokenVerifierLoader {
+    override suspend fun fetch(): List<TokenVerifier> = aliases.mapNotNull { alias ->
+        try {
+            val publicKey = keyStore.getCertificate(alias)?.publicKey
+            if (publicKey == null) {
+                logger.warn("Key store does not contain a certificate for alias {}", alias)
+                return@mapNotNull null
+            }
+            publicKey.toVerificationAlgorithm()
+                ?.toTokenVerifier(resourceName, keyId = alias)
+        } catch (ex: KeyStoreException) {
+            logger.error("Failed to load public key {} from key store: {}", alias, ex.message)
+            null
+        }
+    }
+
+    override fun toString(): String = "KeyStoreTokenVerifierLoader<aliases=$aliases>"
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(KeyStoreTokenVerifierLoader::class.java)
+
+        private fun PublicKey.toVerificationAlgorithm(): Algorithm? = when {
+            this is ECPublicKey -> toAlgorithm()
+            this is RSAPublicKey -> toAlgorithm()
+            EdDsaAlgorithm.isEdDsaKey(this) -> EdDsaAlgorithm(this)
+            else -> {
+                logger.warn("Unsupported public key type {}", algorithm)
+                null
+            }
+        }
+    }
+}
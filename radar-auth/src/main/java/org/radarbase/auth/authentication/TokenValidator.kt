@@ -2,7 +2,10 @@ package org.radarbase.auth.authentication
 
 import com.auth0.jwt.exceptions.AlgorithmMismatchException
 import kotlinx.coroutines.*
+import kotlinx.coroutines.future.future
 import org.radarbase.auth.exception.TokenValidationException
+import org.radarbase.auth.jwt.JwtTokenVerifier
+import org.radarbase.auth.jwt.KeyedVerifiers
 import org.radarbase.auth.token.RadarToken
 import org.radarbase.kotlin.coroutines.CacheConfig
 import org.radarbase.kotlin.coroutines.CachedValue
@@ -10,10 +13,11 @@ import org.radarbase.kotlin.coroutines.consumeFirst
 import org.radarbase.kotlin.coroutines.forkJoin
 import org.slf4j.LoggerFactory
 import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.atomic.AtomicBoolean
 import kotlin.time.toKotlinDuration
 
-private typealias TokenVerifierCache = CachedValue<List<TokenVerifier>>
-
 /**
  * Validates JWT token signed by the Management Portal. It may be used from multiple coroutine
  * contexts.
@@ -25,11 +29,28 @@ constructor(
     verifierLoaders: List<TokenVerifierLoader>,
     /** Minimum fetch timeout before a token is attempted to be fetched again. */
     fetchTimeout: Duration = Duration.ofMinutes(1),
-    /** Maximum time that the token verifier does not need to be fetched. */
+    /**
+     * Maximum time that the token verifier does not need to be fetched. Verifiers are fetched
+     * again in the background before they reach this age.
+     */
     maxAge: Duration = Duration.ofDays(1),
+    /**
+     * Maximum number of verified tokens to cache. Cached tokens are not verified again until
+     * they expire or until [refresh] is called. If zero, verified tokens are not cached.
+     */
+    tokenCacheSize: Int = 0,
 ) {
     private val algorithmLoaders: List<TokenVerifierCache>
 
+    private val asyncScope = CoroutineScope(Dispatchers.Default + SupervisorJob())
+
+    /** Cache of verified tokens, or null if token caching is disabled. */
+    val tokenCache: VerifiedTokenCache? = if (tokenCacheSize > 0) {
+        VerifiedTokenCache(tokenCacheSize)
+    } else {
+        null
+    }
+
     init {
         val config = CacheConfig(
             retryDuration = fetchTimeout.toKotlinDuration(),
@@ -37,37 +58,79 @@ constructor(
             maxSimultaneousCompute = 2,
         )
         algorithmLoaders = verifierLoaders.map { loader ->
-            CachedValue(config, supplier = loader::fetch)
+            TokenVerifierCache(config, loader, fetchTimeout, maxAge, asyncScope)
         }
     }
 
     /**
      * Validates an access token and returns the token as a [RadarToken] object.
      *
-     * This will load all the verifiers. If a token cannot be verified, this method will fetch
-     * the verifiers again, as the source may have changed. It will then and re-check the token.
+     * This will load all the verifiers. If a token cannot be verified and its key ID is not
+     * known to the loaded verifiers, this method will fetch the verifiers again, as the source
+     * may have changed. It will then and re-check the token.
      * However, the public key will not be fetched more than once every `fetchTimeout`,
      * to prevent (malicious) clients from loading external token verifiers too frequently.
      *
-     * This implementation calls [runBlocking]. If calling from Kotlin, prefer to use [validate]
-     * with coroutines instead.
+     * If the token is cached, or if it can be verified with already loaded verifiers, it is
+     * validated on the calling thread. Only otherwise, this implementation calls [runBlocking].
+     * If calling from Kotlin, prefer to use [validate] with coroutines instead.
      *
      * @param token The access token
      * @return The decoded access token
      * @throws TokenValidationException If the token can not be validated.
      */
     @Throws(TokenValidationException::class)
-    fun validateBlocking(token: String): RadarToken = runBlocking {
-        validate(token)
+    fun validateBlocking(token: String): RadarToken = validateOrNull(token)
+        ?: runBlocking { validateWithLoaders(token) }
+
+    /**
+     * Validates an access token, for use from Java. If the token can be validated without
+     * loading verifiers, the returned future is already completed. Otherwise, the verifiers are
+     * loaded asynchronously.
+     *
+     * @param token The access token
+     * @return Future of the decoded access token. It completes exceptionally with a
+     *         [TokenValidationException] if the token can not be validated.
+     */
+    fun validateAsync(token: String): CompletableFuture<RadarToken> {
+        val result = validateOrNull(token)
+        return if (result != null) {
+            CompletableFuture.completedFuture(result)
+        } else {
+            asyncScope.future { validateWithLoaders(token) }
+        }
+    }
+
+    /**
+     * Validates an access token using only cached tokens and verifiers that were already loaded
+     * and have not reached their maximum age. This does not suspend or block on I/O.
+     *
+     * @param token The access token
+     * @return The decoded access token or null if it could not be validated with the loaded
+     *         verifiers. In that case, use [validate] to also (re)load verifiers.
+     */
+    fun validateOrNull(token: String): RadarToken? {
+        tokenCache?.get(token)?.let { return it }
+
+        algorithmLoaders.forEach { cache ->
+            val verifiers = cache.loadedVerifiers() ?: return@forEach
+            verifiers.select(token).anyVerify(token).getOrNull()?.let { radarToken ->
+                tokenCache?.put(token, radarToken)
+                return radarToken
+            }
+        }
+        return null
     }
 
     /**
      * Validates an access token and returns the token as a [RadarToken] object.
      *
-     * This will load all the verifiers. If a token cannot be verified, this method will fetch
-     * the verifiers again, as the source may have changed. It will then and re-check the token.
+     * This will load all the verifiers. If a token cannot be verified and its key ID is not
+     * known to the loaded verifiers, this method will fetch the verifiers again, as the source
+     * may have changed. It will then and re-check the token.
      * However, the public key will not be fetched more than once every `fetchTimeout`,
      * to prevent (malicious) clients from loading external token verifiers too frequently.
+     * If token caching is enabled, a token that was verified before is returned from cache.
      *
      * @param token The access token
      * @return The decoded access token
@@ -75,6 +138,11 @@ constructor(
      */
     @Throws(TokenValidationException::class)
     suspend fun validate(token: String): RadarToken {
+        tokenCache?.get(token)?.let { return it }
+        return validateWithLoaders(token)
+    }
+
+    private suspend fun validateWithLoaders(token: String): RadarToken {
         val result: Result<RadarToken> = consumeFirst { emit ->
             val causes = algorithmLoaders
                 .forkJoin { cache ->
@@ -99,38 +167,145 @@ constructor(
         }
 
         return result.getOrThrow()
+            .also { tokenCache?.put(token, it) }
     }
 
-    /** Refresh the token verifiers from cache on the next validation. */
+    /**
+     * Refresh the token verifiers from cache on the next validation. This also removes all
+     * cached verified tokens.
+     */
     fun refresh() {
         algorithmLoaders.forEach { it.clear() }
+        tokenCache?.clear()
+    }
+
+    /**
+     * Cached token verifiers of a single loader. The last loaded verifiers are also kept
+     * available to non-suspending code until they reach their maximum age. Before that, they
+     * are refreshed in the background, so that validation does not wait for the loader while
+     * the loaded verifiers are still valid.
+     */
+    private class TokenVerifierCache(
+        config: CacheConfig,
+        private val loader: TokenVerifierLoader,
+        private val fetchTimeout: Duration,
+        private val maxAge: Duration,
+        private val scope: CoroutineScope,
+    ) {
+        @Volatile
+        private var loaded: LoadedVerifiers? = null
+
+        private val isRefreshing = AtomicBoolean(false)
+
+        private val cache = CachedValue(config) {
+            val verifiers = loader.fetch().toKeyedVerifiers()
+            val now = Instant.now()
+            loaded = LoadedVerifiers(
+                verifiers,
+                refreshAt = now.plus(refreshInterval()),
+                expiresAt = now.plus(maxAge),
+            )
+            verifiers
+        }
+
+        /**
+         * Time until loaded verifiers are refreshed in the background. This is the freshness
+         * given by the loader, if any, but at least [fetchTimeout] and at most three quarters of
+         * [maxAge].
+         */
+        private fun refreshInterval(): Duration {
+            val maxInterval = maxAge.multipliedBy(3).dividedBy(4)
+            val freshness = loader.freshness() ?: return maxInterval
+            return when {
+                freshness < fetchTimeout -> fetchTimeout
+                freshness > maxInterval -> maxInterval
+                else -> freshness
+            }
+        }
+
+        /** Verifiers that were already loaded and have not expired, or null otherwise. */
+        fun loadedVerifiers(): KeyedVerifiers<TokenVerifier>? {
+            val current = loaded ?: return null
+            val now = Instant.now()
+            if (now >= current.expiresAt) {
+                return null
+            }
+            if (now >= current.refreshAt) {
+                refreshInBackground(current)
+            }
+            return current.verifiers
+        }
+
+        private fun refreshInBackground(current: LoadedVerifiers) {
+            if (!isRefreshing.compareAndSet(false, true)) {
+                return
+            }
+            scope.launch {
+                try {
+                    cache.get { false }
+                } catch (ex: Throwable) {
+                    logger.warn("Failed to refresh token verifiers: {}", ex.message)
+                } finally {
+                    // If the verifiers were not loaded again, try again after the fetch timeout.
+                    if (loaded === current) {
+                        loaded = current.copy(refreshAt = Instant.now().plus(fetchTimeout))
+                    }
+                    isRefreshing.set(false)
+                }
+            }
+        }
+
+        /**
+         * Get the verifiers. They are loaded again if they reached their maximum age, or if
+         * [isValid] returns false for them and they were loaded more than the fetch timeout ago.
+         */
+        suspend fun get(
+            isValid: (KeyedVerifiers<TokenVerifier>) -> Boolean,
+        ): CachedValue.CacheResult<KeyedVerifiers<TokenVerifier>> {
+            loadedVerifiers()
+            return cache.get(isValid)
+        }
+
+        fun clear() {
+            loaded = null
+            cache.clear()
+        }
+
+        private data class LoadedVerifiers(
+            val verifiers: KeyedVerifiers<TokenVerifier>,
+            val refreshAt: Instant,
+            val expiresAt: Instant,
+        )
     }
 
     companion object {
         private val logger = LoggerFactory.getLogger(TokenValidator::class.java)
 
         /**
-         * Verify the token using the TokenVerifier lists from cache.
+         * Verify the token using the TokenVerifier lists from cache, using only the verifiers
+         * that match the key ID and algorithm of the token header.
          * If verification fails and the TokenVerifier list was retrieved from cache
          * try to reload the TokenVerifier list and verify again.
          * If none of the verifications succeed, return a result of TokenValidationException
          * with suppressed exceptions all the exceptions returned from a TokenVerifier.
          */
         private suspend fun TokenVerifierCache.verify(token: String): Result<RadarToken> {
-            val verifiers = getOrEmpty { false }
+            val verifiers = getOrEmpty { true }
 
-            val firstResult = verifiers.value.anyVerify(token)
+            val firstResult = verifiers.value.select(token).anyVerify(token)
             if (
                 firstResult.isSuccess ||
                 // already fetched new verifiers, no need to fetch it again
-                verifiers is CachedValue.CacheMiss
+                verifiers is CachedValue.CacheMiss ||
+                // the key that signed the token is already loaded, so the token is invalid
+                verifiers.value.hasKeyId(token)
             ) {
                 return firstResult
             }
 
-            val refreshedVerifiers = getOrEmpty { true }
+            val refreshedVerifiers = getOrEmpty { false }
             return if (refreshedVerifiers != verifiers) {
-                refreshedVerifiers.value.anyVerify(token)
+                refreshedVerifiers.value.select(token).anyVerify(token)
             } else {
                 // The verifiers didn't change, so the result won't change
                 firstResult
@@ -159,15 +334,30 @@ constructor(
         }
 
         private suspend fun TokenVerifierCache.getOrEmpty(
-            refresh: (List<TokenVerifier>) -> Boolean
-        ): CachedValue.CacheResult<List<TokenVerifier>> =
+            isValid: (KeyedVerifiers<TokenVerifier>) -> Boolean
+        ): CachedValue.CacheResult<KeyedVerifiers<TokenVerifier>> =
             try {
-                get(refresh)
+                get(isValid)
             } catch (ex: Throwable) {
                 logger.warn("Failed to load authentication algorithm keys: {}", ex.message)
-                CachedValue.CacheMiss(emptyList())
+                CachedValue.CacheMiss(KeyedVerifiers.empty())
             }
 
+        /**
+         * Index verifiers by key ID and algorithm, so that a token is only verified by the
+         * verifiers matching its header.
+         */
+        private fun List<TokenVerifier>.toKeyedVerifiers(): KeyedVerifiers<TokenVerifier> =
+            KeyedVerifiers(
+                map { verifier ->
+                    if (verifier is JwtTokenVerifier) {
+                        KeyedVerifiers.Entry(verifier.keyId, verifier.algorithm, verifier)
+                    } else {
+                        KeyedVerifiers.Entry(null, null, verifier)
+                    }
+                }
+            )
+
         private fun <T> Throwable.toFailure(causes: Iterable<Throwable> = emptyList()): Result<T> {
             causes.forEach { addSuppressed(it) }
             return Result.failure(this)
@@ -1,5 +1,7 @@
 package org.radarbase.auth.authentication
 
+import java.time.Duration
+
 /**
  * Factory to load a list of token verifiers.
  */
@@ -8,4 +10,10 @@ interface TokenVerifierLoader {
      * Fetch a list of token verifiers, possibly from an external resource.
      */
     suspend fun fetch(): List<TokenVerifier>
+
+    /**
+     * How long the verifiers of the last [fetch] stay fresh according to their source, for
+     * example from a HTTP `Cache-Control` header. Returns null if the source does not say.
+     */
+    fun freshness(): Duration? = null
 }
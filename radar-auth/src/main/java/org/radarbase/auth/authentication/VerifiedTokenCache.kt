@@ -0,0 +1,91 @@
+package org.radarbase.auth.authentication
+
+import org.radarbase.auth.token.RadarToken
+import java.nio.ByteBuffer
+import java.security.MessageDigest
+import java.time.Instant
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Size-bounded cache of tokens that were already verified. Entries are keyed by a SHA-256 hash
+ * of the token string, so the raw token is not kept as a map key. Entries expire at the
+ * [RadarToken.expiresAt] of the cached token. If the cache is full, the least recently used
+ * token is evicted.
+ */
+class VerifiedTokenCache(
+    /** Maximum number of tokens to keep in the cache. */
+    val maxSize: Int,
+) {
+    private val cache = object : LinkedHashMap<ByteBuffer, RadarToken>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<ByteBuffer, RadarToken>?): Boolean =
+            size > maxSize
+    }
+
+    private val hitCounter = AtomicLong()
+    private val missCounter = AtomicLong()
+
+    init {
+        require(maxSize > 0) { "Token cache size must be positive" }
+    }
+
+    /** Number of lookups that returned a cached token. */
+    val hits: Long
+        get() = hitCounter.get()
+
+    /** Number of lookups that did not find a valid cached token. */
+    val misses: Long
+        get() = missCounter.get()
+
+    /** Number of tokens currently cached, including tokens that may have expired. */
+    val size: Int
+        get() = synchronized(cache) { cache.size }
+
+    /**
+     * Get a previously verified token for given token string.
+     * @return verified token or null if it is not cached or if it has expired.
+     */
+    fun get(token: String): RadarToken? {
+        val key = token.hash()
+        val now = Instant.now()
+        val result = synchronized(cache) {
+            val cached = cache[key] ?: return@synchronized null
+            if (now < cached.expiresAt && (cached.token == null || cached.token == token)) {
+                cached
+            } else {
+                cache.remove(key)
+                null
+            }
+        }
+        if (result != null) {
+            hitCounter.incrementAndGet()
+        } else {
+            missCounter.incrementAndGet()
+        }
+        return result
+    }
+
+    /** Store a verified [radarToken] for given [token] string. Expired tokens are not stored. */
+    fun put(token: String, radarToken: RadarToken) {
+        if (Instant.now() >= radarToken.expiresAt) return
+        val key = token.hash()
+        synchronized(cache) {
+            cache[key] = radarToken
+        }
+    }
+
+    /** Remove all cached tokens. */
+    fun clear() {
+        synchronized(cache) {
+            cache.clear()
+        }
+    }
+
+    override fun toString(): String = "VerifiedTokenCache(maxSize=$maxSize, size=$size, hits=$hits, misses=$misses)"
+
+    companion object {
+        private fun String.hash(): ByteBuffer = ByteBuffer.wrap(
+            MessageDigest.getInstance("SHA-256")
+                .digest(toByteArray(Charsets.UTF_8))
+        )
+    }
+}
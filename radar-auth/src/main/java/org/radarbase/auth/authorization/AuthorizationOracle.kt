@@ -1,7 +1,11 @@
 package org.radarbase.auth.authorization
 
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.future.future
 import org.radarbase.auth.token.RadarToken
 import java.util.*
+import java.util.concurrent.CompletableFuture
 import java.util.function.Consumer
 
 interface AuthorizationOracle {
@@ -28,6 +32,41 @@ interface AuthorizationOracle {
         entityScope: Permission.Entity = permission.entity,
     ): Boolean
 
+    /**
+     * Whether [identity] has permission [permission], regarding given [entity], if that can be
+     * determined without looking up entity relations. This does not suspend, so it can be
+     * called directly from blocking code.
+     * @return true if identity has permission, false if it does not, or null if the entity
+     *         relations need to be looked up with [hasPermission].
+     */
+    fun hasPermissionOrNull(
+        identity: RadarToken,
+        permission: Permission,
+        entity: EntityDetails = EntityDetails.global,
+        entityScope: Permission.Entity = permission.entity,
+    ): Boolean? = null
+
+    /**
+     * Whether [identity] has permission [permission], regarding given [entity], for use from
+     * Java. If no entity relations need to be looked up, the returned future is already
+     * completed. Otherwise, [hasPermission] is run on the default dispatcher.
+     */
+    fun hasPermissionAsync(
+        identity: RadarToken,
+        permission: Permission,
+        entity: EntityDetails = EntityDetails.global,
+        entityScope: Permission.Entity = permission.entity,
+    ): CompletableFuture<Boolean> {
+        val result = hasPermissionOrNull(identity, permission, entity, entityScope)
+        return if (result != null) {
+            CompletableFuture.completedFuture(result)
+        } else {
+            CoroutineScope(Dispatchers.Default).future {
+                hasPermission(identity, permission, entity, entityScope)
+            }
+        }
+    }
+
     /**
      * Whether given [identity] would have the [permission] scope in any of its roles. This doesn't
      * check whether [identity] has access to a specific entity or global access.
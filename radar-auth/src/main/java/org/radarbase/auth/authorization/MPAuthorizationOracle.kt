@@ -1,7 +1,6 @@
 package org.radarbase.auth.authorization
 
 import org.radarbase.auth.token.RadarToken
-import org.radarbase.kotlin.coroutines.forkAny
 import java.util.*
 
 class MPAuthorizationOracle(
@@ -20,13 +19,44 @@ class MPAuthorizationOracle(
         entity: EntityDetails,
         entityScope: Permission.Entity,
     ): Boolean {
-        if (permission.scope() !in identity.scopes) return false
+        hasPermissionOrNull(identity, permission, entity, entityScope)
+            ?.let { return it }
+
+        // Relation lookups are cached, so there is no need to check roles in parallel.
+        return identity.roles.any {
+            it.hasPermission(identity, permission, entity, entityScope)
+        }
+    }
+
+    /**
+     * Whether [identity] has permission [permission], regarding given [entity], if that can be
+     * determined from the token and [entity] alone. Roles with organization scope, or checks
+     * on the organization entity, may need to look up the organization of a project. In that
+     * case null is returned, unless another role already grants the permission.
+     * @return true if identity has permission, false if it does not, or null if entity
+     *         relations need to be looked up.
+     */
+    override fun hasPermissionOrNull(
+        identity: RadarToken,
+        permission: Permission,
+        entity: EntityDetails,
+        entityScope: Permission.Entity,
+    ): Boolean? {
+        if (identity.scopePermissionMask and permission.mask == 0L) return false
 
         if (identity.isClientCredentials) return true
 
-        return identity.roles.forkAny {
-            it.hasPermission(identity, permission, entity, entityScope)
+        if (identity.rolePermissionMask and permission.mask == 0L) return false
+
+        var isUndetermined = false
+        identity.roles.forEach {
+            when (it.hasPermissionOrNull(identity, permission, entity, entityScope)) {
+                true -> return true
+                null -> isUndetermined = true
+                false -> {}
+            }
         }
+        return if (isUndetermined) null else false
     }
 
     /**
@@ -35,11 +65,11 @@ class MPAuthorizationOracle(
      * @return true if identity has scope, false otherwise
      */
     override fun hasScope(identity: RadarToken, permission: Permission): Boolean {
-        if (permission.scope() !in identity.scopes) return false
+        if (identity.scopePermissionMask and permission.mask == 0L) return false
 
         if (identity.isClientCredentials) return true
 
-        return identity.roles.any { it.role.mayBeGranted(permission) }
+        return identity.rolePermissionMask and permission.mask != 0L
     }
 
     /**
@@ -85,12 +115,11 @@ class MPAuthorizationOracle(
         )
     }
 
-    override fun RoleAuthority.mayBeGranted(permission: Permission) = this in allowedRoles(permission)
+    override fun RoleAuthority.mayBeGranted(permission: Permission) =
+        permissionMask(this) and permission.mask != 0L
 
-    override fun Collection<RoleAuthority>.mayBeGranted(permission: Permission): Boolean {
-        val allowedRoles = allowedRoles(permission)
-        return any { it in allowedRoles }
-    }
+    override fun Collection<RoleAuthority>.mayBeGranted(permission: Permission): Boolean =
+        any { permissionMask(it) and permission.mask != 0L }
 
     /**
      * Whether the current role from [identity] has [permission] over given [entity] in
@@ -112,6 +141,73 @@ class MPAuthorizationOracle(
                         hasAuthority(identity, permission, entity, minEntityScope))
     }
 
+    /**
+     * Whether the current role from [identity] has [permission] over given [entity] in
+     * [entityScope] in any way, or null if that cannot be determined without looking up entity
+     * relations.
+     */
+    private fun AuthorityReference.hasPermissionOrNull(
+        identity: RadarToken,
+        permission: Permission,
+        entity: EntityDetails,
+        entityScope: Permission.Entity,
+    ): Boolean? {
+        if (!role.mayBeGranted(permission)) return false
+        if (role.scope == RoleAuthority.Scope.GLOBAL) return true
+        val minEntityScope = entity.minimumEntityOrNull() ?: return false
+        val hasAuthority = hasAuthorityOrNull(identity, entity, entityScope)
+        if (hasAuthority == false || entityScope == minEntityScope) return hasAuthority
+        return when (hasAuthorityOrNull(identity, entity, minEntityScope)) {
+            true -> hasAuthority
+            false -> false
+            null -> null
+        }
+    }
+
+    /**
+     * Non-suspending variant of [hasAuthority]. It returns null if the organization of
+     * a project would need to be looked up.
+     */
+    private fun AuthorityReference.hasAuthorityOrNull(
+        identity: RadarToken,
+        entity: EntityDetails,
+        entityScope: Permission.Entity,
+    ): Boolean? = when (entityScope) {
+        Permission.Entity.MEASUREMENT -> hasAuthorityOrNull(identity, entity,
+            Permission.Entity.SOURCE
+        )
+        Permission.Entity.SOURCE -> if (role.isPersonal &&
+                entity.source != null &&
+                entity.source !in identity.sources) {
+            false
+        } else {
+            hasAuthorityOrNull(identity, entity, Permission.Entity.SUBJECT)
+        }
+        Permission.Entity.SUBJECT -> if (role.isPersonal && entity.subject != identity.subject) {
+            false
+        } else {
+            hasAuthorityOrNull(identity, entity, Permission.Entity.PROJECT)
+        }
+        Permission.Entity.PROJECT -> when (role.scope) {
+            RoleAuthority.Scope.PROJECT -> referent == entity.project
+            RoleAuthority.Scope.ORGANIZATION -> entity.organization?.let { it == referent }
+                ?: if (entity.project == null) false else null
+            else -> false
+        }
+        Permission.Entity.ORGANIZATION -> when (role.scope) {
+            RoleAuthority.Scope.PROJECT -> when {
+                referent == entity.project -> true
+                entity.organization == null && entity.project == null -> false
+                else -> null
+            }
+            RoleAuthority.Scope.ORGANIZATION -> entity.organization?.let { it == referent }
+                ?: if (entity.project == null) false else null
+            else -> false
+        }
+        Permission.Entity.USER -> entity.user == identity.username || !role.isPersonal
+        else -> true
+    }
+
     /**
      * Whether the current role from [identity] has a specific authority with [permission]
      * over given [entity] in [entityScope]
@@ -174,6 +270,55 @@ class MPAuthorizationOracle(
         @JvmStatic
         val permissionMatrix: Map<Permission, Set<RoleAuthority>> = createPermissions()
 
+        /**
+         * Permissions that each role may be granted, indexed by [RoleAuthority.ordinal]. Each
+         * value is a bitmask of [Permission.mask] values.
+         */
+        private val rolePermissionMasks: LongArray = LongArray(RoleAuthority.values().size)
+            .apply {
+                check(Permission.values().size <= Long.SIZE_BITS) {
+                    "Permissions do not fit in a permission bitmask"
+                }
+                permissionMatrix.forEach { (permission, roles) ->
+                    roles.forEach { role ->
+                        this[role.ordinal] = this[role.ordinal] or permission.mask
+                    }
+                }
+            }
+
+        private val permissionsByScope: Map<String, Permission> = Permission.values()
+            .associateBy { it.scope() }
+
+        /**
+         * Bitmask of [Permission.mask] values of the permissions that [role] may be granted.
+         */
+        @JvmStatic
+        fun permissionMask(role: RoleAuthority): Long = rolePermissionMasks[role.ordinal]
+
+        /**
+         * Bitmask of [Permission.mask] values of the permissions that any of [roles] may be
+         * granted.
+         */
+        @JvmStatic
+        fun permissionMask(roles: Iterable<AuthorityReference>): Long {
+            var mask = 0L
+            roles.forEach { mask = mask or rolePermissionMasks[it.role.ordinal] }
+            return mask
+        }
+
+        /**
+         * Bitmask of [Permission.mask] values of the permissions that given OAuth [scopes]
+         * cover. Scopes that do not represent a permission are ignored.
+         */
+        @JvmStatic
+        fun scopePermissionMask(scopes: Iterable<String>): Long {
+            var mask = 0L
+            scopes.forEach { scope ->
+                permissionsByScope[scope]?.let { mask = mask or it.mask }
+            }
+            return mask
+        }
+
         /**
          * Look up the allowed authorities for a given permission. Authorities are String constants that
          * appear in [RoleAuthority].
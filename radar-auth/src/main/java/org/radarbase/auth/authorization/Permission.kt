@@ -69,6 +69,14 @@ enum class Permission(val entity: Entity, val operation: Operation) {
         CREATE, READ, UPDATE, DELETE
     }
 
+    private val scopeName: String = "$entity.$operation"
+
+    /**
+     * Bit of this permission in permission bitmasks, based on its ordinal.
+     * @see MPAuthorizationOracle.permissionMask
+     */
+    val mask: Long = 1L shl ordinal
+
     override fun toString(): String = "Permission{entity=$entity, operation=$operation}"
 
     /**
@@ -76,7 +84,7 @@ enum class Permission(val entity: Entity, val operation: Operation) {
      *
      * @return the OAuth scope representation of this permission
      */
-    fun scope(): String = "$entity.$operation"
+    fun scope(): String = scopeName
 
     companion object {
         /** Returns all available scope names.  */
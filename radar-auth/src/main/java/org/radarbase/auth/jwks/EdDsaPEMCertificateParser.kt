@@ -0,0 +1,20 @@
+package org.radarbase.auth.jwks
+
+import com.auth0.jwt.algorithms.Algorithm
+import org.radarbase.auth.jwks.PEMCertificateParser.Companion.parsePublicKey
+import org.radarbase.auth.jwt.EdDsaAlgorithm
+import org.radarbase.auth.jwt.EdDsaAlgorithm.Companion.ALGORITHM_EDDSA
+import java.security.PublicKey
+
+class EdDsaPEMCertificateParser : PEMCertificateParser {
+    override val keyFactoryType: String
+        get() = ALGORITHM_EDDSA
+    override val jwtAlgorithm: String
+        get() = ALGORITHM_EDDSA
+    override val keyHeader: String
+        get() = "-----BEGIN EDDSA PUBLIC KEY-----"
+
+    override fun parseAlgorithm(publicKey: String): Algorithm = EdDsaAlgorithm(
+        publicKey.parsePublicKey<PublicKey>(keyFactoryType)
+    )
+}
@@ -17,6 +17,8 @@ import java.lang.IllegalArgumentException
 sealed interface JsonWebKey {
     val alg: String?
     val kty: String
+    /** Key ID. */
+    val kid: String?
     /** X.509 Certificate Chain. */
     val x5c: List<String>
     /** X.509 Certificate SHA-1 thumbprint. */
@@ -25,16 +27,21 @@ sealed interface JsonWebKey {
     companion object {
         const val ALGORITHM_RSA = "RSA"
         const val ALGORITHM_EC = "EC"
+        const val ALGORITHM_OKP = "OKP"
     }
 }
 
 object JavaWebKeyPolymorphicSerializer : JsonContentPolymorphicSerializer<JsonWebKey>(JsonWebKey::class) {
-    override fun selectDeserializer(element: JsonElement): DeserializationStrategy<JsonWebKey> = if ("value" in element.jsonObject) {
-        MPJsonWebKey.serializer()
-    } else when (element.jsonObject["kty"]?.jsonPrimitive?.content) {
-        "EC" -> ECDSAJsonWebKey.serializer()
-        "RSA" -> RSAJsonWebKey.serializer()
-        else -> throw SerializationException("Unknown JavaWebKey")
+    override fun selectDeserializer(element: JsonElement): DeserializationStrategy<JsonWebKey> {
+        val kty = element.jsonObject["kty"]?.jsonPrimitive?.content
+        return when {
+            // OKP keys may also have a PEM value for older clients
+            kty == "OKP" -> OKPJsonWebKey.serializer()
+            "value" in element.jsonObject -> MPJsonWebKey.serializer()
+            kty == "EC" -> ECDSAJsonWebKey.serializer()
+            kty == "RSA" -> RSAJsonWebKey.serializer()
+            else -> throw SerializationException("Unknown JavaWebKey")
+        }
     }
 }
 
@@ -42,7 +49,7 @@ object JavaWebKeyPolymorphicSerializer : JsonContentPolymorphicSerializer<JsonWe
 data class RSAJsonWebKey(
     override val alg: String = HashSize.RS256.name,
     override val kty: String,
-    val kid: String? = null,
+    override val kid: String? = null,
     val use: String = "sig",
     /** RSA modulus. */
     val n: String,
@@ -66,7 +73,7 @@ data class RSAJsonWebKey(
 data class ECDSAJsonWebKey(
     override val alg: String? = null,
     override val kty: String,
-    val kid: String? = null,
+    override val kid: String? = null,
     val use: String = "sig",
     /** ECDSA x coordinate. */
     val x: String,
@@ -98,6 +105,66 @@ data class ECDSAJsonWebKey(
     }
 }
 
+/**
+ * Octet key pair (RFC 8037), used for EdDSA keys. The [value] contains the public key in PEM
+ * format, so that clients that do not know this key type can still read the key as an
+ * [MPJsonWebKey].
+ */
+@Serializable
+data class OKPJsonWebKey(
+    override val alg: String = "EdDSA",
+    override val kty: String = JsonWebKey.ALGORITHM_OKP,
+    override val kid: String? = null,
+    val use: String = "sig",
+    /** EdDSA curve. */
+    val crv: String,
+    /** Public key. */
+    val x: String,
+    /** PEM certificate value. */
+    val value: String? = null,
+    /** X.509 Certificate Chain. */
+    override val x5c: List<String> = emptyList(),
+    /** X.509 Certificate SHA-1 thumbprint. */
+    override val x5t: String? = null,
+) : JsonWebKey {
+    fun curve(): Curve = Curve.values().find { it.name == crv }
+        ?: throw InvalidPublicKeyException("Unknown OKP crv $crv")
+
+    /**
+     * EdDSA curve with the length of its public keys and the X.509 prefix of an encoded public
+     * key of that curve.
+     */
+    enum class Curve(val keyLength: Int, private val x509Prefix: ByteArray) {
+        Ed25519(32, x509Prefix(0x70, 32)),
+        Ed448(57, x509Prefix(0x71, 57));
+
+        /** X.509 encoding of a raw public key, as read by a KeyFactory. */
+        fun toX509(publicKey: ByteArray): ByteArray {
+            if (publicKey.size != keyLength) {
+                throw InvalidPublicKeyException("Invalid $name public key length ${publicKey.size}")
+            }
+            return x509Prefix + publicKey
+        }
+
+        /** Raw public key of an X.509 encoded public key. */
+        fun fromX509(encoded: ByteArray): ByteArray {
+            if (encoded.size != x509Prefix.size + keyLength) {
+                throw InvalidPublicKeyException("Invalid $name public key encoding")
+            }
+            return encoded.copyOfRange(x509Prefix.size, encoded.size)
+        }
+    }
+
+    companion object {
+        /** DER prefix of a SubjectPublicKeyInfo with given EdDSA object ID and key length. */
+        private fun x509Prefix(oid: Int, keyLength: Int): ByteArray = byteArrayOf(
+            0x30, (keyLength + 10).toByte(),
+            0x30, 0x05, 0x06, 0x03, 0x2B, 0x65, oid.toByte(),
+            0x03, (keyLength + 1).toByte(), 0x00,
+        )
+    }
+}
+
 @Serializable
 data class MPJsonWebKey(
     override val alg: String = "ES256",
@@ -108,6 +175,10 @@ data class MPJsonWebKey(
     override val x5c: List<String> = emptyList(),
     /** X.509 Certificate SHA-1 thumbprint. */
     override val x5t: String? = null,
+    /** Key ID. */
+    override val kid: String? = null,
 ) : JsonWebKey {
     constructor(alg: String, kty: String, value: String) : this(alg, kty, value, emptyList(), null)
+
+    constructor(alg: String, kty: String, value: String, kid: String?) : this(alg, kty, value, emptyList(), null, kid)
 }
@@ -5,6 +5,8 @@ import org.radarbase.auth.exception.InvalidPublicKeyException
 import org.radarbase.auth.exception.TokenValidationException
 import org.radarbase.auth.jwks.JsonWebKey.Companion.ALGORITHM_EC
 import org.radarbase.auth.jwks.JsonWebKey.Companion.ALGORITHM_RSA
+import org.radarbase.auth.jwt.EdDsaAlgorithm
+import org.radarbase.auth.jwt.EdDsaAlgorithm.Companion.ALGORITHM_EDDSA
 import java.math.BigInteger
 import java.security.AlgorithmParameters
 import java.security.GeneralSecurityException
@@ -19,7 +21,9 @@ class JwkAlgorithmParser(
     private val supportedAlgorithmsForWebKeySets: List<PEMCertificateParser>,
 ) : JwkParser {
 
-    constructor() : this(listOf(ECPEMCertificateParser(), RSAPEMCertificateParser()))
+    constructor() : this(
+        listOf(ECPEMCertificateParser(), RSAPEMCertificateParser(), EdDsaPEMCertificateParser()),
+    )
 
     override fun parse(key: JsonWebKey): Algorithm {
         if (key.x5c.isNotEmpty()) {
@@ -70,6 +74,19 @@ class JwkAlgorithmParser(
             } catch (e: GeneralSecurityException) {
                 throw InvalidPublicKeyException("Invalid public key", e)
             }
+            is OKPJsonWebKey -> try {
+                val encoded = key.curve().toX509(Base64.getUrlDecoder().decode(key.x))
+                EdDsaAlgorithm(
+                    KeyFactory.getInstance(ALGORITHM_EDDSA)
+                        .generatePublic(X509EncodedKeySpec(encoded)),
+                )
+            } catch (e: NoSuchAlgorithmException) {
+                throw InvalidPublicKeyException("EdDSA keys are not supported by this JVM", e)
+            } catch (e: GeneralSecurityException) {
+                throw InvalidPublicKeyException("Invalid public key", e)
+            } catch (e: IllegalArgumentException) {
+                throw InvalidPublicKeyException("Invalid public key", e)
+            }
         }
     }
 
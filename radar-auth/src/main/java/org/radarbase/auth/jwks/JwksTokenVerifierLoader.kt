@@ -46,36 +46,86 @@ class JwksTokenVerifierLoader(
         }
     }
 
+    /** Last fetched key set, to make conditional requests and to reuse parsed keys. */
+    @Volatile
+    private var lastKeySet: FetchedKeySet? = null
+
+    /**
+     * Fetch the JSON web key set. If the key set has an ETag, the next fetch only downloads
+     * the key set if it changed. Keys that did not change since the last fetch are not parsed
+     * again, but keep their verifiers. If the key set cannot be fetched, the verifiers of the
+     * last successful fetch are returned.
+     */
     override suspend fun fetch(): List<TokenVerifier> {
-        val keySet = try {
-            fetchPublicKeyInfo()
+        val previous = lastKeySet
+        val response = try {
+            fetchPublicKeyInfo(previous?.eTag)
         } catch (ex: Exception) {
             logger.warn("Failed to fetch token for {}: {}", url, ex.message)
-            return listOf()
+            return previous?.verifiers ?: listOf()
+        }
+        val keySet = response.keySet
+        if (keySet == null) {
+            logger.debug("JWT public keys at {} did not change", url)
+            previous ?: return listOf()
+            lastKeySet = previous.copy(freshness = response.freshness)
+            return previous.verifiers
         }
-        return buildList(keySet.keys.size) {
+
+        val verifiersByKey = buildMap(keySet.keys.size) {
             keySet.keys.forEach { key ->
-                try {
-                    add(
+                val verifier = previous?.verifiersByKey?.get(key)
+                    ?: try {
                         algorithmParser.parse(key)
-                            .toTokenVerifier(resourceName)
-                    )
-                } catch (ex: Exception) {
-                    logger.error("Failed to parse key from {}: {}", url, ex.message)
-                }
+                            .toTokenVerifier(resourceName, keyId = key.kid)
+                    } catch (ex: Exception) {
+                        logger.error("Failed to parse key from {}: {}", url, ex.message)
+                        return@forEach
+                    }
+                put(key, verifier)
             }
         }
+        return FetchedKeySet(response.eTag, response.freshness, verifiersByKey)
+            .also { lastKeySet = it }
+            .verifiers
     }
 
-    private suspend fun fetchPublicKeyInfo(): JsonWebKeySet = withContext(Dispatchers.IO) {
+    override fun freshness(): Duration? = lastKeySet?.freshness
+
+    private suspend fun fetchPublicKeyInfo(
+        eTag: String?,
+    ): KeySetResponse = withContext(Dispatchers.IO) {
         logger.info("Getting the JWT public key at {}", url)
-        val response = httpClient.request()
+        val response = httpClient.request {
+            if (eTag != null) {
+                header(HttpHeaders.IfNoneMatch, eTag)
+            }
+        }
+        val freshness = response.headers[HttpHeaders.CacheControl]?.parseFreshness()
 
+        if (response.status == HttpStatusCode.NotModified) {
+            return@withContext KeySetResponse(null, eTag, freshness)
+        }
         if (!response.status.isSuccess()) {
             throw TokenValidationException("Cannot fetch token keys (${response.status}) - ${response.bodyAsText()}")
         }
 
-        response.body()
+        KeySetResponse(response.body(), response.headers[HttpHeaders.ETag], freshness)
+    }
+
+    private class KeySetResponse(
+        /** Key set, or null if it was not modified. */
+        val keySet: JsonWebKeySet?,
+        val eTag: String?,
+        val freshness: Duration?,
+    )
+
+    private data class FetchedKeySet(
+        val eTag: String?,
+        val freshness: Duration?,
+        val verifiersByKey: Map<JsonWebKey, TokenVerifier>,
+    ) {
+        val verifiers: List<TokenVerifier> = verifiersByKey.values.toList()
     }
 
     override fun toString(): String = "MPTokenKeyAlgorithmKeyLoader<url=$url>"
@@ -83,16 +133,39 @@ class JwksTokenVerifierLoader(
     companion object {
         @JvmStatic
         @JvmOverloads
-        fun Algorithm.toTokenVerifier(resourceName: String, builder: Verification.() -> Unit = {}): JwtTokenVerifier {
+        fun Algorithm.toTokenVerifier(
+            resourceName: String,
+            keyId: String? = null,
+            builder: Verification.() -> Unit = {},
+        ): JwtTokenVerifier {
             val verifier = JWT.require(this).run {
                 withClaimPresence(SCOPE_CLAIM)
                 withAudience(resourceName)
                 builder()
                 build()
             }
-            return JwtTokenVerifier(name, verifier)
+            return JwtTokenVerifier(name, verifier, keyId)
         }
 
         private val logger = LoggerFactory.getLogger(JwksTokenVerifierLoader::class.java)
+
+        /**
+         * Parse the freshness of a response from its Cache-Control header value. Returns null
+         * if the header does not set it.
+         */
+        internal fun String.parseFreshness(): Duration? {
+            var freshness: Duration? = null
+            split(',').forEach { directive ->
+                val (name, value) = directive.trim().lowercase().split('=', limit = 2)
+                    .let { Pair(it[0], it.getOrNull(1)?.trim('"')) }
+                when (name) {
+                    "no-cache", "no-store" -> return Duration.ZERO
+                    "max-age" -> value?.toLongOrNull()?.let {
+                        freshness = Duration.ofSeconds(it.coerceAtLeast(0))
+                    }
+                }
+            }
+            return freshness
+        }
     }
 }
@@ -0,0 +1,90 @@
+package org.radarbase.auth.jwt
+
+import com.auth0.jwt.algorithms.Algorithm
+import com.auth0.jwt.exceptions.SignatureGenerationException
+import com.auth0.jwt.exceptions.SignatureVerificationException
+import com.auth0.jwt.interfaces.DecodedJWT
+import java.security.GeneralSecurityException
+import java.security.Key
+import java.security.PrivateKey
+import java.security.PublicKey
+import java.security.Signature
+import java.util.*
+
+/**
+ * EdDSA JWT algorithm (RFC 8037), for Ed25519 or Ed448 keys. The auth0 JWT library does not
+ * support EdDSA, so this uses the EdDSA signature implementation of the JVM, which is
+ * available from Java 15. Ed25519 signatures are faster to create and verify than ECDSA
+ * signatures and have a fixed size of 64 bytes.
+ *
+ * A [publicKey] is needed to verify tokens and a [privateKey] to sign them.
+ */
+class EdDsaAlgorithm @JvmOverloads constructor(
+    private val publicKey: PublicKey?,
+    private val privateKey: PrivateKey? = null,
+    private val keyId: String? = null,
+) : Algorithm(ALGORITHM_EDDSA, "EdDSA with ${(publicKey ?: privateKey)?.algorithm}") {
+
+    override fun verify(jwt: DecodedJWT) {
+        val key = publicKey ?: throw SignatureVerificationException(
+            this,
+            IllegalStateException("The public key is null."),
+        )
+        val valid = try {
+            Signature.getInstance(ALGORITHM_EDDSA).run {
+                initVerify(key)
+                update(jwt.header.toByteArray(Charsets.UTF_8))
+                update(JWT_PART_SEPARATOR)
+                update(jwt.payload.toByteArray(Charsets.UTF_8))
+                verify(Base64.getUrlDecoder().decode(jwt.signature))
+            }
+        } catch (ex: GeneralSecurityException) {
+            throw SignatureVerificationException(this, ex)
+        } catch (ex: IllegalArgumentException) {
+            throw SignatureVerificationException(this, ex)
+        }
+        if (!valid) {
+            throw SignatureVerificationException(this)
+        }
+    }
+
+    override fun sign(headerBytes: ByteArray, payloadBytes: ByteArray): ByteArray =
+        sign {
+            update(headerBytes)
+            update(JWT_PART_SEPARATOR)
+            update(payloadBytes)
+        }
+
+    override fun sign(contentBytes: ByteArray): ByteArray = sign { update(contentBytes) }
+
+    private inline fun sign(update: Signature.() -> Unit): ByteArray {
+        val key = privateKey ?: throw SignatureGenerationException(
+            this,
+            IllegalStateException("The private key is null."),
+        )
+        return try {
+            Signature.getInstance(ALGORITHM_EDDSA).run {
+                initSign(key)
+                update()
+                sign()
+            }
+        } catch (ex: GeneralSecurityException) {
+            throw SignatureGenerationException(this, ex)
+        }
+    }
+
+    override fun getSigningKeyId(): String? = keyId
+
+    companion object {
+        /** JWT algorithm name and JVM signature algorithm of EdDSA. */
+        const val ALGORITHM_EDDSA = "EdDSA"
+
+        private const val JWT_PART_SEPARATOR = '.'.code.toByte()
+
+        /** Whether given key is an EdDSA key. */
+        @JvmStatic
+        fun isEdDsaKey(key: Key): Boolean = key.algorithm in EDDSA_KEY_ALGORITHMS
+
+        private val EDDSA_KEY_ALGORITHMS = setOf(ALGORITHM_EDDSA, "Ed25519", "Ed448")
+    }
+}
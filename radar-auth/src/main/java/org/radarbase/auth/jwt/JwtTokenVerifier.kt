@@ -9,13 +9,16 @@ import com.auth0.jwt.interfaces.JWTVerifier
 import org.radarbase.auth.authentication.TokenVerifier
 import org.radarbase.auth.authorization.AuthorityReference
 import org.radarbase.auth.authorization.RoleAuthority
-import org.radarbase.auth.token.DataRadarToken
+import org.radarbase.auth.token.JwtRadarToken
 import org.radarbase.auth.token.RadarToken
 import org.slf4j.LoggerFactory
 
-class JwtTokenVerifier(
-    private val algorithm: String,
+class JwtTokenVerifier @JvmOverloads constructor(
+    /** JWT algorithm name that the verifier accepts. */
+    val algorithm: String,
     private val verifier: JWTVerifier,
+    /** JWT key ID of the verification key, if known. */
+    val keyId: String? = null,
 ) : TokenVerifier {
     override fun verify(token: String): RadarToken = try {
         val jwt = verifier.verify(token)
@@ -32,7 +35,7 @@ class JwtTokenVerifier(
         throw ex
     }
 
-    override fun toString(): String = "JwtTokenVerifier(algorithm=$algorithm)"
+    override fun toString(): String = "JwtTokenVerifier(algorithm=$algorithm, keyId=$keyId)"
 
     companion object {
         private val logger = LoggerFactory.getLogger(JwtTokenVerifier::class.java)
@@ -45,54 +48,56 @@ class JwtTokenVerifier(
         const val CLIENT_ID_CLAIM = "client_id"
         const val USER_NAME_CLAIM = "user_name"
 
-        fun DecodedJWT.toRadarToken(): RadarToken {
-            val claims = claims
+        /**
+         * Token backed by the claims of this JWT. Claims are parsed when they are first used.
+         */
+        fun DecodedJWT.toRadarToken(): RadarToken = JwtRadarToken(this)
 
-            return DataRadarToken(
-                roles = claims.parseRoles(),
-                scopes = claims.stringListClaim(SCOPE_CLAIM)?.toSet() ?: emptySet(),
-                sources = claims.stringListClaim(SOURCES_CLAIM) ?: emptyList(),
-                grantType = claims.stringClaim(GRANT_TYPE_CLAIM),
-                subject = subject,
-                issuedAt = issuedAtAsInstant,
-                expiresAt = expiresAtAsInstant,
-                audience = audience ?: emptyList(),
-                token = token,
-                issuer = issuer,
-                type = type,
-                clientId = claims.stringClaim(CLIENT_ID_CLAIM),
-                username = claims.stringClaim(USER_NAME_CLAIM),
-            )
-        }
-        fun Map<String, Claim?>.stringListClaim(name: String): List<String>? {
-            val claim = get(name) ?: return null
+        fun Map<String, Claim?>.stringListClaim(name: String): List<String>? =
+            get(name)?.toStringList()
+
+        fun Map<String, Claim?>.stringClaim(name: String): String? = get(name)?.toTrimmedString()
+
+        /**
+         * String list value of a claim. A single string is split on spaces. Empty strings are
+         * removed. Returns null if the claim is missing or has no string values.
+         */
+        fun Claim.toStringList(): List<String>? {
             val claimList = try {
-                claim.asList(String::class.java)
+                asList(String::class.java)
             } catch (ex: JWTDecodeException) {
                 // skip
                 null
             }
             val claims = claimList
-                ?: claim.asString()?.split(' ')
+                ?: asString()?.split(' ')
                 ?: return null
 
             return claims.mapNotNull { it?.trimNotEmpty() }
         }
 
-        fun Map<String, Claim?>.stringClaim(name: String): String? = get(name)?.asString()
-            ?.trimNotEmpty()
+        /** Trimmed string value of a claim, or null if it is missing or empty. */
+        fun Claim.toTrimmedString(): String? = asString()?.trimNotEmpty()
 
         private fun String.trimNotEmpty(): String? = trim()
             .takeIf { it.isNotEmpty() }
 
-        private fun Map<String, Claim?>.parseRoles(): Set<AuthorityReference> = buildSet {
-            stringListClaim(AUTHORITIES_CLAIM)?.forEach {
+        /**
+         * Parse roles from the global [authorities] and the [roles] claim values. Roles are
+         * formatted as `<referent>:<authority>`, or only `<authority>` for global roles.
+         * Invalid roles are skipped.
+         */
+        fun parseRoles(
+            authorities: List<String>?,
+            roles: List<String>?,
+        ): Set<AuthorityReference> = buildSet {
+            authorities?.forEach {
                 val role = RoleAuthority.valueOfAuthorityOrNull(it)
                 if (role?.scope == RoleAuthority.Scope.GLOBAL) {
                     add(AuthorityReference(role))
                 }
             }
-            stringListClaim(ROLES_CLAIM)?.forEach { input ->
+            roles?.forEach { input ->
                 val v = input.split(':')
                 try {
                     add(
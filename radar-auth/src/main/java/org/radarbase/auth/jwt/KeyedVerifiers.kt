@@ -0,0 +1,120 @@
+package org.radarbase.auth.jwt
+
+import com.auth0.jwt.impl.JWTParser
+import com.auth0.jwt.interfaces.Header
+import org.slf4j.LoggerFactory
+import java.util.*
+
+/**
+ * Verifiers indexed by JWT key ID (`kid`) and algorithm (`alg`). Selecting verifiers for a
+ * token only returns the verifiers that can possibly verify the token, so that other keys
+ * do not need to be tried.
+ *
+ * If the token header has a key ID, only verifiers with that key ID are selected. If no verifier
+ * has that key ID, verifiers without a key ID and with a matching algorithm are selected,
+ * because they may still hold the right key. If the token has no key ID, all verifiers with a
+ * matching algorithm are selected. Verifiers without a known algorithm are always selected.
+ */
+class KeyedVerifiers<T : Any>(
+    entries: List<Entry<T>>,
+) {
+    /** All verifiers, in their original order. */
+    val all: List<T> = entries.map { it.verifier }
+
+    private val wildcards: List<T> = entries
+        .filter { it.algorithm == null }
+        .map { it.verifier }
+
+    private val byKeyId: Map<String, List<T>> = entries
+        .filter { it.keyId != null && it.algorithm != null }
+        .groupBy { it.keyId!! }
+        .mapValues { (_, keyEntries) -> keyEntries.map { it.verifier } + wildcards }
+
+    private val byAlgorithm: Map<String, List<T>> = entries.indexByAlgorithm()
+
+    private val withoutKeyIdByAlgorithm: Map<String, List<T>> = entries
+        .filter { it.keyId == null }
+        .indexByAlgorithm()
+
+    /** Whether there are no verifiers. */
+    fun isEmpty(): Boolean = all.isEmpty()
+
+    /**
+     * Select the verifiers for given JWT [token] based on its header. If the header cannot be
+     * parsed, all verifiers are returned.
+     */
+    fun select(token: String): List<T> {
+        val header = parseHeader(token) ?: return all
+        return select(header.keyId, header.algorithm)
+    }
+
+    /**
+     * Whether a verifier has the key ID of the header of given JWT [token]. If not, the key
+     * that signed the token may not have been loaded yet.
+     */
+    fun hasKeyId(token: String): Boolean {
+        val keyId = parseHeader(token)?.keyId ?: return false
+        return keyId in byKeyId
+    }
+
+    /** Select the verifiers for a token with given [keyId] and [algorithm] header. */
+    fun select(keyId: String?, algorithm: String?): List<T> {
+        algorithm ?: return all
+        if (keyId != null) {
+            byKeyId[keyId]?.let { return it }
+            return withoutKeyIdByAlgorithm[algorithm] ?: wildcards
+        }
+        return byAlgorithm[algorithm] ?: wildcards
+    }
+
+    override fun toString(): String = "KeyedVerifiers(keyIds=${byKeyId.keys}, algorithms=${byAlgorithm.keys})"
+
+    private fun parseHeader(token: String): Header? = try {
+        val headerEnd = token.indexOf('.')
+        if (headerEnd == -1) {
+            null
+        } else {
+            headerParser.parseHeader(
+                String(
+                    Base64.getUrlDecoder().decode(token.substring(0, headerEnd)),
+                    Charsets.UTF_8,
+                ),
+            )
+        }
+    } catch (ex: Exception) {
+        logger.debug("Cannot parse token header: {}", ex.toString())
+        null
+    }
+
+    private fun List<Entry<T>>.indexByAlgorithm(): Map<String, List<T>> = buildMap {
+        this@indexByAlgorithm.forEach { entry ->
+            val algorithm = entry.algorithm ?: return@forEach
+            put(algorithm, (get(algorithm) ?: emptyList()) + entry.verifier)
+        }
+        // keep the original order of verifiers, adding verifiers with unknown algorithm last.
+        replaceAll { _, verifiers -> verifiers + wildcards }
+    }
+
+    /**
+     * Verifier with its JWT key ID and algorithm name. If the algorithm is null, the verifier
+     * will be tried for any token.
+     */
+    data class Entry<T : Any>(
+        val keyId: String?,
+        val algorithm: String?,
+        val verifier: T,
+    )
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(KeyedVerifiers::class.java)
+
+        private val headerParser = JWTParser()
+
+        private val EMPTY = KeyedVerifiers<Any>(emptyList())
+
+        /** Empty set of verifiers. */
+        @Suppress("UNCHECKED_CAST")
+        @JvmStatic
+        fun <T : Any> empty(): KeyedVerifiers<T> = EMPTY as KeyedVerifiers<T>
+    }
+}
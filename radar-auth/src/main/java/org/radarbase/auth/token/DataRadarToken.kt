@@ -1,6 +1,7 @@
 package org.radarbase.auth.token
 
 import org.radarbase.auth.authorization.AuthorityReference
+import org.radarbase.auth.authorization.MPAuthorizationOracle
 import java.io.Serializable
 import java.time.Instant
 
@@ -101,6 +102,38 @@ data class DataRadarToken(
         clientId = radarToken.clientId,
     )
 
+    // Permission masks are computed once per token. They are not serialized, but computed again
+    // when first used after deserialization.
+    @Transient
+    private var cachedRolePermissionMask: Long = 0L
+
+    @Transient
+    private var cachedScopePermissionMask: Long = 0L
+
+    @Transient
+    @Volatile
+    private var hasPermissionMasks: Boolean = false
+
+    override val rolePermissionMask: Long
+        get() {
+            computePermissionMasks()
+            return cachedRolePermissionMask
+        }
+
+    override val scopePermissionMask: Long
+        get() {
+            computePermissionMasks()
+            return cachedScopePermissionMask
+        }
+
+    private fun computePermissionMasks() {
+        if (!hasPermissionMasks) {
+            cachedRolePermissionMask = MPAuthorizationOracle.permissionMask(roles)
+            cachedScopePermissionMask = MPAuthorizationOracle.scopePermissionMask(scopes)
+            hasPermissionMasks = true
+        }
+    }
+
     override fun copyWithRoles(roles: Set<AuthorityReference>): DataRadarToken = copy(roles = roles)
 
     companion object {
@@ -0,0 +1,138 @@
+package org.radarbase.auth.token
+
+import com.auth0.jwt.JWT
+import com.auth0.jwt.interfaces.DecodedJWT
+import org.radarbase.auth.authorization.AuthorityReference
+import org.radarbase.auth.authorization.MPAuthorizationOracle
+import org.radarbase.auth.jwt.JwtTokenVerifier.Companion.AUTHORITIES_CLAIM
+import org.radarbase.auth.jwt.JwtTokenVerifier.Companion.CLIENT_ID_CLAIM
+import org.radarbase.auth.jwt.JwtTokenVerifier.Companion.GRANT_TYPE_CLAIM
+import org.radarbase.auth.jwt.JwtTokenVerifier.Companion.ROLES_CLAIM
+import org.radarbase.auth.jwt.JwtTokenVerifier.Companion.SCOPE_CLAIM
+import org.radarbase.auth.jwt.JwtTokenVerifier.Companion.SOURCES_CLAIM
+import org.radarbase.auth.jwt.JwtTokenVerifier.Companion.USER_NAME_CLAIM
+import org.radarbase.auth.jwt.JwtTokenVerifier.Companion.parseRoles
+import org.radarbase.auth.jwt.JwtTokenVerifier.Companion.toStringList
+import org.radarbase.auth.jwt.JwtTokenVerifier.Companion.toTrimmedString
+import java.io.InvalidObjectException
+import java.io.ObjectInputStream
+import java.io.Serializable
+import java.time.Instant
+
+/**
+ * RADAR token backed by the claims of a decoded JWT. Claims are parsed when they are first
+ * used, so a request that only checks the scopes or the username of a token does not parse
+ * its roles and sources.
+ *
+ * The token is serialized in a compact form: only the JWT string, and the roles if they were
+ * replaced with [copyWithRoles]. Its claims are decoded again after deserialization, without
+ * verifying the signature.
+ */
+class JwtRadarToken private constructor(
+    private val jwt: DecodedJWT,
+    private val replacedRoles: Set<AuthorityReference>?,
+) : RadarToken, Serializable {
+    /** Token with the claims of given verified JWT. */
+    constructor(jwt: DecodedJWT) : this(jwt, null)
+
+    override val roles: Set<AuthorityReference> by lazy(LazyThreadSafetyMode.PUBLICATION) {
+        replacedRoles ?: parseRoles(
+            jwt.getClaim(AUTHORITIES_CLAIM).toStringList(),
+            jwt.getClaim(ROLES_CLAIM).toStringList(),
+        )
+    }
+
+    override val scopes: Set<String> by lazy(LazyThreadSafetyMode.PUBLICATION) {
+        jwt.getClaim(SCOPE_CLAIM).toStringList()?.toSet() ?: emptySet()
+    }
+
+    override val sources: List<String> by lazy(LazyThreadSafetyMode.PUBLICATION) {
+        jwt.getClaim(SOURCES_CLAIM).toStringList() ?: emptyList()
+    }
+
+    override val grantType: String?
+        get() = jwt.getClaim(GRANT_TYPE_CLAIM).toTrimmedString()
+
+    override val subject: String?
+        get() = jwt.subject
+
+    override val username: String?
+        get() = jwt.getClaim(USER_NAME_CLAIM).toTrimmedString()
+
+    override val issuedAt: Instant?
+        get() = jwt.issuedAtAsInstant
+
+    override val expiresAt: Instant = requireNotNull(jwt.expiresAtAsInstant) {
+        "Token does not have an expiry time"
+    }
+
+    override val audience: List<String>
+        get() = jwt.audience ?: emptyList()
+
+    override val token: String
+        get() = jwt.token
+
+    override val issuer: String?
+        get() = jwt.issuer
+
+    override val type: String?
+        get() = jwt.type
+
+    override val clientId: String?
+        get() = jwt.getClaim(CLIENT_ID_CLAIM).toTrimmedString()
+
+    override val rolePermissionMask: Long by lazy(LazyThreadSafetyMode.PUBLICATION) {
+        MPAuthorizationOracle.permissionMask(roles)
+    }
+
+    override val scopePermissionMask: Long by lazy(LazyThreadSafetyMode.PUBLICATION) {
+        MPAuthorizationOracle.scopePermissionMask(scopes)
+    }
+
+    /** Token with the same claims, but with given roles. The claims are not parsed again. */
+    override fun copyWithRoles(roles: Set<AuthorityReference>): JwtRadarToken =
+        JwtRadarToken(jwt, roles)
+
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (other !is JwtRadarToken) return false
+        return jwt.token == other.jwt.token && replacedRoles == other.replacedRoles
+    }
+
+    override fun hashCode(): Int = jwt.token.hashCode()
+
+    override fun toString(): String =
+        "JwtRadarToken(subject=$subject, clientId=$clientId, expiresAt=$expiresAt)"
+
+    private fun writeReplace(): Any = SerializedJwtRadarToken(
+        jwt.token,
+        replacedRoles?.map { it.authority }?.toTypedArray(),
+        replacedRoles?.map { it.referent }?.toTypedArray(),
+    )
+
+    @Suppress("UNUSED_PARAMETER")
+    private fun readObject(stream: ObjectInputStream): Unit =
+        throw InvalidObjectException("JwtRadarToken is serialized as SerializedJwtRadarToken")
+
+    /** Serialized form of a [JwtRadarToken]. */
+    private class SerializedJwtRadarToken(
+        private val token: String,
+        private val roleAuthorities: Array<String>?,
+        private val roleReferents: Array<String?>?,
+    ) : Serializable {
+        private fun readResolve(): Any {
+            val roles = if (roleAuthorities != null && roleReferents != null) {
+                roleAuthorities.indices.mapTo(HashSet()) { i ->
+                    AuthorityReference(roleAuthorities[i], roleReferents[i])
+                }
+            } else {
+                null
+            }
+            return JwtRadarToken(JWT.decode(token), roles)
+        }
+
+        companion object {
+            private const val serialVersionUID = 1L
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.radarbase.auth.token
 
 import org.radarbase.auth.authorization.AuthorityReference
+import org.radarbase.auth.authorization.MPAuthorizationOracle
+import org.radarbase.auth.authorization.Permission
 import java.time.Instant
 
 /**
@@ -92,6 +94,20 @@ interface RadarToken {
     val isClientCredentials: Boolean
         get() = grantType == CLIENT_CREDENTIALS
 
+    /**
+     * Permissions that any of the [roles] of this token may be granted, as a bitmask of
+     * [Permission.mask] values.
+     */
+    val rolePermissionMask: Long
+        get() = MPAuthorizationOracle.permissionMask(roles)
+
+    /**
+     * Permissions that the [scopes] of this token cover, as a bitmask of [Permission.mask]
+     * values.
+     */
+    val scopePermissionMask: Long
+        get() = MPAuthorizationOracle.scopePermissionMask(scopes)
+
     fun copyWithRoles(roles: Set<AuthorityReference>): RadarToken
 
     companion object {
@@ -0,0 +1,51 @@
+package org.radarbase.auth.authentication
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertThrows
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.radarbase.auth.exception.TokenValidationException
+import org.radarbase.auth.util.TokenTestUtils
+import java.security.KeyStore
+
+class KeyStoreTokenVerifierLoaderTest {
+    private lateinit var validator: TokenValidator
+
+    @BeforeEach
+    fun setUp() {
+        val keyStore = KeyStore.getInstance("PKCS12")
+        Thread.currentThread().contextClassLoader
+            .getResourceAsStream("keystore.p12")
+            .use { keyStore.load(it, "radarbase".toCharArray()) }
+
+        validator = TokenValidator(
+            listOf(
+                KeyStoreTokenVerifierLoader(
+                    keyStore,
+                    listOf("selfsigned", "missing-alias"),
+                    TokenTestUtils.CLIENT,
+                )
+            )
+        )
+    }
+
+    @Test
+    fun testValidToken() {
+        val token = validator.validateBlocking(TokenTestUtils.VALID_RSA_TOKEN)
+        assertEquals(TokenTestUtils.USER, token.username)
+    }
+
+    @Test
+    fun testIncorrectAudienceToken() {
+        assertThrows(TokenValidationException::class.java) {
+            validator.validateBlocking(TokenTestUtils.INCORRECT_AUDIENCE_TOKEN)
+        }
+    }
+
+    @Test
+    fun testIncorrectAlgorithmToken() {
+        assertThrows(TokenValidationException::class.java) {
+            validator.validateBlocking(TokenTestUtils.INCORRECT_ALGORITHM_TOKEN)
+        }
+    }
+}
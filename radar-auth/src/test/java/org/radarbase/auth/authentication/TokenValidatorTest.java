@@ -13,11 +13,17 @@ import org.radarbase.auth.jwks.JwksTokenVerifierLoader;
 import org.radarbase.auth.jwks.RSAPEMCertificateParser;
 import org.radarbase.auth.util.TokenTestUtils;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.radarbase.auth.util.TokenTestUtils.WIREMOCK_PORT;
 
@@ -90,4 +96,47 @@ class TokenValidatorTest {
         assertThrows(TokenValidationException.class,
                 () -> validator.validateBlocking(TokenTestUtils.INCORRECT_ALGORITHM_TOKEN));
     }
+
+    @Test
+    void testValidateWithLoadedVerifiers() {
+        assertNull(validator.validateOrNull(TokenTestUtils.VALID_RSA_TOKEN));
+        validator.validateBlocking(TokenTestUtils.VALID_RSA_TOKEN);
+        assertNotNull(validator.validateOrNull(TokenTestUtils.VALID_RSA_TOKEN));
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo(TokenTestUtils.PUBLIC_KEY_PATH)));
+    }
+
+    @Test
+    void testRefreshInBackground() throws InterruptedException {
+        var algorithmParser = new JwkAlgorithmParser(List.of(new RSAPEMCertificateParser()));
+        var verifierLoader = new JwksTokenVerifierLoader(
+                "http://localhost:" + WIREMOCK_PORT + TokenTestUtils.PUBLIC_KEY_PATH,
+                "unit_test",
+                algorithmParser
+        );
+        validator = new TokenValidator(List.of(verifierLoader),
+                Duration.ofMillis(100), Duration.ofSeconds(2));
+        validator.validateBlocking(TokenTestUtils.VALID_RSA_TOKEN);
+
+        // after three quarters of the maximum age, loaded verifiers are still used while they
+        // are refreshed in the background.
+        Thread.sleep(1600);
+        assertNotNull(validator.validateOrNull(TokenTestUtils.VALID_RSA_TOKEN));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (wireMockServer.findAll(getRequestedFor(urlEqualTo(
+                TokenTestUtils.PUBLIC_KEY_PATH))).size() < 2
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo(TokenTestUtils.PUBLIC_KEY_PATH)));
+        assertNotNull(validator.validateOrNull(TokenTestUtils.VALID_RSA_TOKEN));
+    }
+
+    @Test
+    void testValidateAsync() {
+        assertEquals(TokenTestUtils.USER,
+                validator.validateAsync(TokenTestUtils.VALID_RSA_TOKEN).join().getUsername());
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> validator.validateAsync(TokenTestUtils.EXPIRED_TOKEN).join());
+        assertEquals(TokenValidationException.class, ex.getCause().getClass());
+    }
 }
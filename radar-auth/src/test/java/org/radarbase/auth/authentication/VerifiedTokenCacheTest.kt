@@ -0,0 +1,48 @@
+package org.radarbase.auth.authentication
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+import org.radarbase.auth.token.DataRadarToken
+import java.time.Instant
+
+class VerifiedTokenCacheTest {
+    private fun radarToken(token: String, expiresAt: Instant) = DataRadarToken(
+        roles = emptySet(),
+        scopes = emptySet(),
+        grantType = "password",
+        expiresAt = expiresAt,
+        token = token,
+    )
+
+    @Test
+    fun testHitAndMiss() {
+        val cache = VerifiedTokenCache(10)
+        val token = radarToken("a", Instant.now().plusSeconds(60))
+        assertNull(cache.get("a"))
+        cache.put("a", token)
+        assertSame(token, cache.get("a"))
+        assertEquals(1, cache.hits)
+        assertEquals(1, cache.misses)
+    }
+
+    @Test
+    fun testExpired() {
+        val cache = VerifiedTokenCache(10)
+        cache.put("a", radarToken("a", Instant.now().minusSeconds(1)))
+        assertNull(cache.get("a"))
+        assertEquals(0, cache.size)
+    }
+
+    @Test
+    fun testBounded() {
+        val cache = VerifiedTokenCache(2)
+        val expiresAt = Instant.now().plusSeconds(60)
+        listOf("a", "b", "c").forEach { cache.put(it, radarToken(it, expiresAt)) }
+        assertEquals(2, cache.size)
+        assertNull(cache.get("a"))
+        cache.clear()
+        assertNull(cache.get("c"))
+    }
+}
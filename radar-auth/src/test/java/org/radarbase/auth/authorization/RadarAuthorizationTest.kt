@@ -1,7 +1,9 @@
 package org.radarbase.auth.authorization
 
 import kotlinx.coroutines.runBlocking
+import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNull
 import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
@@ -82,6 +84,55 @@ internal class RadarAuthorizationTest {
         )
     }
 
+    @Test
+    fun testCheckPermissionWithoutRelations() = runBlocking {
+        val projectAdmin = TokenTestUtils.PROJECT_ADMIN_TOKEN.toRadarToken()
+        val organizationAdmin = TokenTestUtils.ORGANIZATION_ADMIN_TOKEN.toRadarToken()
+        assertEquals(
+            true,
+            oracle.hasPermissionOrNull(projectAdmin, Permission.SUBJECT_READ, EntityDetails(project = "PROJECT1")),
+        )
+        // organization of the project must be looked up
+        assertNull(
+            oracle.hasPermissionOrNull(organizationAdmin, Permission.SUBJECT_READ, EntityDetails(project = "PROJECT1")),
+        )
+
+        val entities = listOf(
+            EntityDetails.global,
+            EntityDetails(organization = "main"),
+            EntityDetails(project = "PROJECT1"),
+            EntityDetails(project = "PROJECT2", subject = projectAdmin.subject),
+            EntityDetails(project = "PROJECT2", subject = "other-subject", source = "source-1"),
+        )
+        listOf(projectAdmin, organizationAdmin).forEach { token ->
+            entities.forEach { entity ->
+                Permission.values().forEach { p ->
+                    val result = oracle.hasPermissionOrNull(token, p, entity)
+                    if (result != null) {
+                        assertEquals(oracle.hasPermission(token, p, entity), result, "$p on $entity")
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    fun testPermissionMask() {
+        RoleAuthority.values().forEach { role ->
+            Permission.values().forEach { p ->
+                assertEquals(
+                    role in MPAuthorizationOracle.allowedRoles(p),
+                    MPAuthorizationOracle.permissionMask(role) and p.mask != 0L,
+                    "$role with $p",
+                )
+            }
+        }
+        val token = TokenTestUtils.SCOPE_TOKEN.toRadarToken()
+        Permission.values().forEach { p ->
+            assertEquals(p.scope() in token.scopes, token.scopePermissionMask and p.mask != 0L)
+        }
+    }
+
     @Test
     fun testCheckPermission() = runBlocking {
         val token: RadarToken = TokenTestUtils.SUPER_USER_TOKEN.toRadarToken()
@@ -0,0 +1,131 @@
+package org.radarbase.auth.jwks
+
+import com.github.tomakehurst.wiremock.WireMockServer
+import com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import com.github.tomakehurst.wiremock.client.WireMock.absent
+import com.github.tomakehurst.wiremock.client.WireMock.equalTo
+import com.github.tomakehurst.wiremock.client.WireMock.get
+import com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor
+import com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration
+import kotlinx.coroutines.runBlocking
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.radarbase.auth.jwks.JwksTokenVerifierLoader.Companion.parseFreshness
+import org.radarbase.auth.util.TokenTestUtils
+import org.radarbase.auth.util.TokenTestUtils.PUBLIC_KEY_PATH
+import org.radarbase.auth.util.TokenTestUtils.WIREMOCK_PORT
+import java.time.Duration
+
+class JwksTokenVerifierLoaderTest {
+    private val loader = JwksTokenVerifierLoader(
+        "http://localhost:$WIREMOCK_PORT$PUBLIC_KEY_PATH",
+        "unit_test",
+        JwkAlgorithmParser(listOf(RSAPEMCertificateParser())),
+    )
+
+    @AfterEach
+    fun reset() {
+        wireMockServer.resetAll()
+    }
+
+    @Test
+    fun fetchNotModified() {
+        wireMockServer.stubFor(
+            get(urlEqualTo(PUBLIC_KEY_PATH))
+                .withHeader("If-None-Match", absent())
+                .willReturn(
+                    aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TokenTestUtils.APPLICATION_JSON)
+                        .withHeader("ETag", "\"keys-1\"")
+                        .withHeader("Cache-Control", "public, max-age=3600")
+                        .withBody(TokenTestUtils.PUBLIC_KEY_BODY),
+                ),
+        )
+        wireMockServer.stubFor(
+            get(urlEqualTo(PUBLIC_KEY_PATH))
+                .withHeader("If-None-Match", equalTo("\"keys-1\""))
+                .willReturn(aResponse().withStatus(304)),
+        )
+
+        val verifiers = runBlocking { loader.fetch() }
+        assertEquals(1, verifiers.size)
+        assertEquals(Duration.ofHours(1), loader.freshness())
+
+        val notModifiedVerifiers = runBlocking { loader.fetch() }
+        assertSame(verifiers[0], notModifiedVerifiers[0])
+        wireMockServer.verify(
+            1,
+            getRequestedFor(urlEqualTo(PUBLIC_KEY_PATH))
+                .withHeader("If-None-Match", equalTo("\"keys-1\"")),
+        )
+    }
+
+    @Test
+    fun fetchReusesUnchangedKeys() {
+        wireMockServer.stubFor(
+            get(urlEqualTo(PUBLIC_KEY_PATH))
+                .willReturn(
+                    aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TokenTestUtils.APPLICATION_JSON)
+                        .withBody(TokenTestUtils.PUBLIC_KEY_BODY),
+                ),
+        )
+
+        val verifiers = runBlocking { loader.fetch() }
+        val refetchedVerifiers = runBlocking { loader.fetch() }
+        assertSame(verifiers[0], refetchedVerifiers[0])
+        assertNull(loader.freshness())
+    }
+
+    @Test
+    fun fetchKeepsVerifiersOnFailure() {
+        wireMockServer.stubFor(
+            get(urlEqualTo(PUBLIC_KEY_PATH))
+                .willReturn(
+                    aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", TokenTestUtils.APPLICATION_JSON)
+                        .withBody(TokenTestUtils.PUBLIC_KEY_BODY),
+                ),
+        )
+        val verifiers = runBlocking { loader.fetch() }
+
+        wireMockServer.stubFor(
+            get(urlEqualTo(PUBLIC_KEY_PATH)).willReturn(aResponse().withStatus(503)),
+        )
+        assertEquals(verifiers, runBlocking { loader.fetch() })
+    }
+
+    @Test
+    fun parseCacheControl() {
+        assertEquals(Duration.ofSeconds(60), "public, max-age=60".parseFreshness())
+        assertEquals(Duration.ZERO, "no-cache".parseFreshness())
+        assertEquals(Duration.ZERO, "max-age=60, no-store".parseFreshness())
+        assertNull("public".parseFreshness())
+    }
+
+    companion object {
+        private lateinit var wireMockServer: WireMockServer
+
+        @BeforeAll
+        @JvmStatic
+        fun startServer() {
+            wireMockServer = WireMockServer(WireMockConfiguration().port(WIREMOCK_PORT))
+            wireMockServer.start()
+        }
+
+        @AfterAll
+        @JvmStatic
+        fun stopServer() {
+            wireMockServer.stop()
+        }
+    }
+}
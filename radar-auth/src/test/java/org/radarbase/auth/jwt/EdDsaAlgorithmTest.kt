@@ -0,0 +1,58 @@
+package org.radarbase.auth.jwt
+
+import com.auth0.jwt.JWT
+import com.auth0.jwt.exceptions.SignatureVerificationException
+import kotlinx.serialization.decodeFromString
+import kotlinx.serialization.json.Json
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertInstanceOf
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.radarbase.auth.jwks.JsonWebKey
+import org.radarbase.auth.jwks.JwkAlgorithmParser
+import org.radarbase.auth.jwks.OKPJsonWebKey
+import java.security.KeyPair
+import java.security.KeyPairGenerator
+import java.util.Base64
+
+class EdDsaAlgorithmTest {
+    private val keyPair: KeyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair()
+    private val algorithm = EdDsaAlgorithm(keyPair.public, keyPair.private, "ed-key")
+
+    @Test
+    fun signAndVerify() {
+        val token = JWT.create()
+            .withSubject("user")
+            .sign(algorithm)
+
+        val decoded = JWT.require(EdDsaAlgorithm(keyPair.public)).build().verify(token)
+        assertEquals("EdDSA", decoded.algorithm)
+        assertEquals("ed-key", decoded.keyId)
+        assertEquals("user", decoded.subject)
+    }
+
+    @Test
+    fun rejectOtherKey() {
+        val token = JWT.create().withSubject("user").sign(algorithm)
+        val otherKey = KeyPairGenerator.getInstance("Ed25519").generateKeyPair().public
+
+        assertThrows<SignatureVerificationException> {
+            JWT.require(EdDsaAlgorithm(otherKey)).build().verify(token)
+        }
+    }
+
+    @Test
+    fun verifyWithJsonWebKey() {
+        val x = Base64.getUrlEncoder().withoutPadding().encodeToString(
+            OKPJsonWebKey.Curve.Ed25519.fromX509(keyPair.public.encoded),
+        )
+        val key = Json.decodeFromString<JsonWebKey>(
+            """{"kty": "OKP", "alg": "EdDSA", "crv": "Ed25519", "x": "$x"}""",
+        )
+        assertInstanceOf(OKPJsonWebKey::class.java, key)
+
+        val token = JWT.create().withSubject("user").sign(algorithm)
+        val verifier = JwkAlgorithmParser().parse(key)
+        assertEquals("user", JWT.require(verifier).build().verify(token).subject)
+    }
+}
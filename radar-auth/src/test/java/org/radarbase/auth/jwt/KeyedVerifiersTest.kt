@@ -0,0 +1,46 @@
+package org.radarbase.auth.jwt
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import java.util.Base64
+
+class KeyedVerifiersTest {
+    private val verifiers = KeyedVerifiers(
+        listOf(
+            KeyedVerifiers.Entry("a", "ES256", "a-ec"),
+            KeyedVerifiers.Entry("b", "RS256", "b-rsa"),
+            KeyedVerifiers.Entry(null, "ES256", "unnamed-ec"),
+            KeyedVerifiers.Entry(null, null, "any"),
+        )
+    )
+
+    @Test
+    fun selectByKeyId() {
+        assertEquals(listOf("a-ec", "any"), verifiers.select("a", "ES256"))
+        assertEquals(listOf("b-rsa", "any"), verifiers.select("b", "RS256"))
+    }
+
+    @Test
+    fun selectUnknownKeyId() {
+        assertEquals(listOf("unnamed-ec", "any"), verifiers.select("c", "ES256"))
+        assertEquals(listOf("any"), verifiers.select("c", "RS256"))
+    }
+
+    @Test
+    fun selectByAlgorithm() {
+        assertEquals(listOf("a-ec", "unnamed-ec", "any"), verifiers.select(null, "ES256"))
+        assertEquals(listOf("any"), verifiers.select(null, "HS256"))
+    }
+
+    @Test
+    fun selectFromToken() {
+        val header = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("""{"alg":"RS256","kid":"b","typ":"JWT"}""".toByteArray())
+        assertEquals(listOf("b-rsa", "any"), verifiers.select("$header.e30.c2ln"))
+    }
+
+    @Test
+    fun selectFromInvalidToken() {
+        assertEquals(verifiers.all, verifiers.select("not-a-token"))
+    }
+}
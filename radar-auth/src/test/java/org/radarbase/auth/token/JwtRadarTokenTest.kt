@@ -0,0 +1,69 @@
+package org.radarbase.auth.token
+
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertInstanceOf
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.radarbase.auth.authorization.AuthorityReference
+import org.radarbase.auth.authorization.RoleAuthority
+import org.radarbase.auth.jwt.JwtTokenVerifier.Companion.toRadarToken
+import org.radarbase.auth.token.DataRadarToken.Companion.toDataRadarToken
+import org.radarbase.auth.util.TokenTestUtils
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.ObjectInputStream
+import java.io.ObjectOutputStream
+
+class JwtRadarTokenTest {
+    private val token = TokenTestUtils.PROJECT_ADMIN_TOKEN.toRadarToken()
+
+    @Test
+    fun parseClaims() {
+        assertInstanceOf(JwtRadarToken::class.java, token)
+        assertEquals(
+            setOf(
+                AuthorityReference(RoleAuthority.PROJECT_ADMIN, "PROJECT1"),
+                AuthorityReference(RoleAuthority.PARTICIPANT, "PROJECT2"),
+            ),
+            token.roles,
+        )
+        assertEquals(TokenTestUtils.ALL_SCOPES.toSet(), token.scopes)
+        assertEquals(emptyList<String>(), token.sources)
+        assertEquals(TokenTestUtils.USER, token.username)
+        assertEquals(TokenTestUtils.CLIENT, token.clientId)
+        assertEquals("password", token.grantType)
+        assertEquals(TokenTestUtils.PROJECT_ADMIN_TOKEN.token, token.token)
+    }
+
+    @Test
+    fun serializeCompactly() {
+        val serialized = serialize(token)
+        val deserialized = deserialize(serialized)
+        assertEquals(token, deserialized)
+        assertEquals(token.roles, deserialized.roles)
+        assertTrue(serialized.size < serialize(token.toDataRadarToken()).size)
+    }
+
+    @Test
+    fun serializeWithReplacedRoles() {
+        val roles = setOf(
+            AuthorityReference(RoleAuthority.SYS_ADMIN),
+            AuthorityReference(RoleAuthority.ORGANIZATION_ADMIN, "main"),
+        )
+        val copy = token.copyWithRoles(roles)
+        assertEquals(roles, copy.roles)
+
+        val deserialized = deserialize(serialize(copy))
+        assertEquals(copy, deserialized)
+        assertEquals(roles, deserialized.roles)
+        assertEquals(token.scopes, deserialized.scopes)
+    }
+
+    private fun serialize(token: RadarToken): ByteArray = ByteArrayOutputStream().use { out ->
+        ObjectOutputStream(out).use { it.writeObject(token) }
+        out.toByteArray()
+    }
+
+    private fun deserialize(bytes: ByteArray): RadarToken =
+        ObjectInputStream(ByteArrayInputStream(bytes)).use { it.readObject() as RadarToken }
+}
@@ -3,8 +3,8 @@ import java.util.Base64
 
 import ch.qos.logback.classic.LoggerContext
 import io.gatling.core.Predef._
-import io.gatling.core.structure.ScenarioBuilder
-import io.gatling.http.Predef.http
+import io.gatling.core.structure.{ChainBuilder, ScenarioBuilder}
+import io.gatling.http.Predef._
 import io.gatling.http.protocol.HttpProtocolBuilder
 import org.slf4j.LoggerFactory
 import scala.concurrent.duration._
@@ -20,6 +20,16 @@ abstract class ManagementPortalSimulation extends Simulation {
 
     val baseUrl: String = Option(System.getProperty("baseUrl")) getOrElse """http://127.0.0.1:8080"""
 
+    val adminPassword: String = Option(System.getProperty("adminPassword")) getOrElse "admin"
+
+    // Load profile, override with -Dusers=... and -DrampSeconds=...
+    val users: Int = intProperty("users", 100)
+    val rampDuration: FiniteDuration = intProperty("rampSeconds", 60).seconds
+
+    // Size of the data created by SeedDataSimulation, override with -Dprojects=... and -Dsubjects=...
+    val seedProjects: Int = intProperty("projects", 10)
+    val seedSubjects: Int = intProperty("subjects", 100)
+
     val httpConf: HttpProtocolBuilder = http.baseUrl(baseUrl)
             .inferHtmlResources()
             .acceptHeader("*/*")
@@ -47,12 +57,31 @@ abstract class ManagementPortalSimulation extends Simulation {
 
     val randomString: Iterator[Map[String, String]] = Iterator.continually(Map("randstring" -> Random.alphanumeric.take(12).mkString))// length of the random string is 12 chars here
 
+    /** Feeds the name of a random project created by SeedDataSimulation. */
+    val seedProjectFeeder: Iterator[Map[String, String]] = Iterator.continually(Map("projectName" -> seedProjectName(Random.nextInt(seedProjects) + 1)))
+
+    /** Request an admin access token with the password grant, saving the access and refresh tokens. */
+    val authenticate: ChainBuilder = exec(http("Authentication")
+        .post("/oauth/token")
+        .headers(headers_http_authentication)
+        .formParam("username", "admin")
+        .formParam("password", adminPassword)
+        .formParam("grant_type", "password")
+        .check(jsonPath("$.access_token").saveAs("access_token"))
+        .check(jsonPath("$.refresh_token").saveAs("refresh_token"))).exitHereIfFailed
+
+    def intProperty(name: String, default: Int): Int = Option(System.getProperty(name)).map(_.toInt) getOrElse default
+
+    def seedProjectName(index: Int): String = f"gatling-project-$index%04d"
+
+    def seedSubjectExternalId(projectIndex: Int, subjectIndex: Int): String = f"gatling-$projectIndex%04d-$subjectIndex%06d"
+
     def scn : ScenarioBuilder
 
     def run(): Unit = {
-        val users = scenario("Users").exec(scn)
+        val scenarioUsers = scenario("Users").exec(scn)
         setUp(
-            users.inject(rampUsers(100) during (1.minutes))
+            scenarioUsers.inject(rampUsers(users) during rampDuration)
         ).protocols(httpConf)
     }
 }
@@ -0,0 +1,44 @@
+import io.gatling.core.Predef._
+import io.gatling.core.structure.ScenarioBuilder
+import io.gatling.http.Predef._
+
+import scala.concurrent.duration._
+
+/**
+  * Performance test for pairing an app with a subject. A study administrator creates a meta-token
+  * for the subject, which the app then exchanges for a refresh token. Run SeedDataSimulation
+  * first.
+  */
+class MetaTokenGatlingTest extends ManagementPortalSimulation {
+    val pairClientId: String = Option(System.getProperty("pairClientId")) getOrElse "pRMT"
+
+    override val scn: ScenarioBuilder = scenario("Test pairing an app")
+      .exec(authenticate)
+      .pause(1)
+      .repeat(5) {
+          feed(seedProjectFeeder)
+            .exec(http("List subjects")
+              .get("/api/projects/${projectName}/subjects")
+              .queryParam("size", 50)
+              .headers(headers_http_authenticated)
+              .check(status.is(200))
+              .check(jsonPath("$[*].login").findRandom.saveAs("login"))).exitHereIfFailed
+            .pause(1.seconds, 2.seconds)
+            .exec(http("Create meta-token")
+              .get("/api/oauth-clients/pair")
+              .queryParam("login", "${login}")
+              .queryParam("clientId", pairClientId)
+              .headers(headers_http_authenticated)
+              .check(status.is(200))
+              .check(jsonPath("$.tokenName").saveAs("token_name"))).exitHereIfFailed
+            .pause(1.seconds, 2.seconds)
+            .exec(http("Get meta-token")
+              .get("/api/meta-token/${token_name}")
+              .headers(headers_http)
+              .check(status.is(200))
+              .check(jsonPath("$.refreshToken").exists))
+            .pause(1.seconds, 2.seconds)
+      }
+
+    run()
+}
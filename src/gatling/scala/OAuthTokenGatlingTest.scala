@@ -0,0 +1,50 @@
+import java.nio.charset.StandardCharsets
+import java.util.Base64
+
+import io.gatling.core.Predef._
+import io.gatling.core.structure.ScenarioBuilder
+import io.gatling.http.Predef._
+
+import scala.concurrent.duration._
+
+/**
+  * Performance test for the token endpoint, using the password, refresh_token and
+  * client_credentials grants. The client credentials grant uses the radar_restapi client of the
+  * default OAuth client configuration.
+  */
+class OAuthTokenGatlingTest extends ManagementPortalSimulation {
+    val clientCredentialsClientId: String = Option(System.getProperty("clientCredentialsClientId")) getOrElse "radar_restapi"
+    val clientCredentialsSecret: String = Option(System.getProperty("clientCredentialsSecret")) getOrElse "secret"
+
+    val headers_client_credentials = Map(
+        "Content-Type" -> """application/x-www-form-urlencoded""",
+        "Accept" -> """application/json""",
+        "Authorization" -> ("Basic " + Base64.getEncoder.encodeToString(s"$clientCredentialsClientId:$clientCredentialsSecret".getBytes(StandardCharsets.UTF_8)))
+    )
+
+    override val scn: ScenarioBuilder = scenario("Test the token endpoint")
+      .exec(authenticate)
+      .pause(1)
+      .repeat(5) {
+          exec(http("Refresh token grant")
+            .post("/oauth/token")
+            .headers(headers_http_authentication)
+            .formParam("grant_type", "refresh_token")
+            .formParam("refresh_token", "${refresh_token}")
+            .check(status.is(200))
+            .check(jsonPath("$.access_token").saveAs("access_token"))
+            .check(jsonPath("$.refresh_token").saveAs("refresh_token")))
+            .pause(1.seconds, 2.seconds)
+            .exec(http("Client credentials grant")
+              .post("/oauth/token")
+              .headers(headers_client_credentials)
+              .formParam("grant_type", "client_credentials")
+              .check(status.is(200))
+              .check(jsonPath("$.access_token").exists))
+            .pause(1.seconds, 2.seconds)
+            .exec(authenticate)
+            .pause(1.seconds, 2.seconds)
+      }
+
+    run()
+}
@@ -0,0 +1,72 @@
+import io.gatling.core.Predef._
+import io.gatling.core.structure.ScenarioBuilder
+import io.gatling.http.Predef._
+
+/**
+  * Creates the data that the other simulations run against: a dynamically registrable source
+  * type and `projects` projects in the main organization, each with `subjects` subjects.
+  * Projects and subjects that already exist are skipped, so the simulation can be run again to
+  * extend the data set. Run it once against a freshly started portal with, e.g.,
+  * `./gradlew gatlingRunSeedDataSimulation -Dprojects=10 -Dsubjects=1000`.
+  */
+class SeedDataSimulation extends ManagementPortalSimulation {
+    val sourceTypeProducer = "GATLING"
+    val sourceTypeModel = "Seed"
+    val sourceTypeVersion = "v1"
+
+    val projectIndexFeeder: Iterator[Map[String, Any]] = (1 to seedProjects).iterator
+      .map(i => Map("projectIndex" -> i, "projectName" -> seedProjectName(i)))
+
+    override val scn: ScenarioBuilder = scenario("Seed projects and subjects")
+      .feed(projectIndexFeeder)
+      .exec(authenticate)
+      .exec(http("Find seed source type")
+        .get(s"/api/source-types/$sourceTypeProducer/$sourceTypeModel/$sourceTypeVersion")
+        .headers(headers_http_authenticated)
+        .check(status.in(200, 404))
+        .check(jsonPath("$.id").optional.saveAs("sourceTypeId")))
+      .doIf(session => !session.contains("sourceTypeId")) {
+          exec(http("Create seed source type")
+            .post("/api/source-types")
+            .headers(headers_http_authenticated)
+            .body(StringBody(s"""{"producer":"$sourceTypeProducer", "model":"$sourceTypeModel", "catalogVersion":"$sourceTypeVersion", "sourceTypeScope":"PASSIVE", "canRegisterDynamically":true}""")).asJson
+            // another virtual user may have created it concurrently, which fails on the unique
+            // constraint, so only check that the source type exists afterwards
+            .check(status.not(404)))
+            .exec(http("Find created seed source type")
+              .get(s"/api/source-types/$sourceTypeProducer/$sourceTypeModel/$sourceTypeVersion")
+              .headers(headers_http_authenticated)
+              .check(status.is(200))
+              .check(jsonPath("$.id").saveAs("sourceTypeId"))).exitHereIfFailed
+      }
+      .exec(http("Create project")
+        .post("/api/projects")
+        .headers(headers_http_authenticated)
+        .body(StringBody("""{"projectName":"${projectName}", "description":"Gatling seed project", "location":"SAMPLE_TEXT", "organization":{"name":"main"}, "sourceTypes":[{"id":${sourceTypeId}}]}""")).asJson
+        // a project that already exists is reused
+        .check(status.in(201, 400)))
+      .exec(http("Get project")
+        .get("/api/projects/${projectName}")
+        .headers(headers_http_authenticated)
+        .check(status.is(200))
+        .check(jsonPath("$.id").saveAs("projectId"))).exitHereIfFailed
+      .repeat(seedSubjects, "subjectIndex") {
+          exec(session => session.set("externalId",
+              seedSubjectExternalId(session("projectIndex").as[Int], session("subjectIndex").as[Int] + 1)))
+            .exec(http("Create subject")
+              .post("/api/subjects")
+              .headers(headers_http_authenticated)
+              .body(StringBody("""{"externalId":"${externalId}", "project":{"id":${projectId}, "projectName":"${projectName}"}}""")).asJson
+              // a subject that already exists is reused
+              .check(status.in(201, 400)))
+      }
+
+    override def run(): Unit = {
+        // one virtual user per project
+        setUp(
+            scn.inject(atOnceUsers(seedProjects))
+        ).protocols(httpConf)
+    }
+
+    run()
+}
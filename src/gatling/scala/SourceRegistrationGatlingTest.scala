@@ -0,0 +1,47 @@
+import io.gatling.core.Predef._
+import io.gatling.core.structure.ScenarioBuilder
+import io.gatling.http.Predef._
+
+import scala.concurrent.duration._
+
+/**
+  * Performance test for source registration by an app. Each iteration enrolls a new subject in
+  * a seeded project, registers a source of the seed source type for it and then updates the
+  * source attributes, as an app does after registration. Run SeedDataSimulation first.
+  */
+class SourceRegistrationGatlingTest extends ManagementPortalSimulation {
+    override val scn: ScenarioBuilder = scenario("Test source registration")
+      .exec(authenticate)
+      .pause(1)
+      .repeat(5) {
+          feed(seedProjectFeeder)
+            .feed(randomString)
+            .exec(http("Get project")
+              .get("/api/projects/${projectName}")
+              .headers(headers_http_authenticated)
+              .check(status.is(200))
+              .check(jsonPath("$.id").saveAs("projectId"))).exitHereIfFailed
+            .exec(http("Create subject")
+              .post("/api/subjects")
+              .headers(headers_http_authenticated)
+              .body(StringBody("""{"externalId":"gatling-source-${randstring}", "project":{"id":${projectId}, "projectName":"${projectName}"}}""")).asJson
+              .check(status.is(201))
+              .check(jsonPath("$.login").saveAs("login"))).exitHereIfFailed
+            .pause(1.seconds, 2.seconds)
+            .exec(http("Register source")
+              .post("/api/subjects/${login}/sources")
+              .headers(headers_http_authenticated)
+              .body(StringBody("""{"sourceTypeProducer":"GATLING", "sourceTypeModel":"Seed", "sourceTypeCatalogVersion":"v1"}""")).asJson
+              .check(status.is(201))
+              .check(jsonPath("$.sourceId").saveAs("sourceId"))).exitHereIfFailed
+            .pause(1.seconds, 2.seconds)
+            .exec(http("Update source attributes")
+              .post("/api/subjects/${login}/sources")
+              .headers(headers_http_authenticated)
+              .body(StringBody("""{"sourceTypeProducer":"GATLING", "sourceTypeModel":"Seed", "sourceTypeCatalogVersion":"v1", "sourceId":"${sourceId}", "attributes":{"app_version":"1.0.0"}}""")).asJson
+              .check(status.is(200)))
+            .pause(1.seconds, 2.seconds)
+      }
+
+    run()
+}
@@ -0,0 +1,61 @@
+import io.gatling.core.Predef._
+import io.gatling.core.structure.ScenarioBuilder
+import io.gatling.http.Predef._
+
+import scala.concurrent.duration._
+
+/**
+  * Performance test for listing the subjects of a project and for getting a single subject.
+  * Pages after the first are requested with the `last` parameters of the next link, as a client
+  * paging through a large project would. Run SeedDataSimulation first.
+  */
+class SubjectListGatlingTest extends ManagementPortalSimulation {
+    val maxPages: Int = intProperty("maxPages", 5)
+
+    val nextLink: String = """<([^>]+)>; rel="next""""
+
+    override val scn: ScenarioBuilder = scenario("Test listing subjects")
+      .exec(authenticate)
+      .pause(1)
+      .repeat(5) {
+          feed(seedProjectFeeder)
+            .exec(http("List subjects")
+              .get("/api/projects/${projectName}/subjects")
+              .queryParam("size", 50)
+              .headers(headers_http_authenticated)
+              .check(status.is(200))
+              .check(jsonPath("$[*].login").findRandom.optional.saveAs("login"))
+              .check(headerRegex("Link", nextLink).optional.saveAs("next_url")))
+            .asLongAs(session => session.contains("next_url") && session("pageIndex").asOption[Int].getOrElse(0) < maxPages, "pageIndex") {
+                exec(session => session.set("page_url", relativeUrl(session("next_url").as[String])).remove("next_url"))
+                  .exec(http("List subjects next page")
+                    .get("${page_url}")
+                    .headers(headers_http_authenticated)
+                    .check(status.is(200))
+                    .check(headerRegex("Link", nextLink).optional.saveAs("next_url")))
+            }
+            .exec(session => session.remove("next_url"))
+            .pause(1.seconds, 2.seconds)
+            .exec(http("List subjects with filters")
+              .get("/api/projects/${projectName}/subjects")
+              .queryParam("externalId", "gatling-")
+              .queryParam("authority", "ROLE_PARTICIPANT")
+              .queryParam("sort", "externalId,asc")
+              .queryParam("size", 20)
+              .headers(headers_http_authenticated)
+              .check(status.is(200)))
+            .pause(1.seconds, 2.seconds)
+            .doIf(session => session.contains("login")) {
+                exec(http("Get subject")
+                  .get("/api/subjects/${login}")
+                  .headers(headers_http_authenticated)
+                  .check(status.is(200)))
+                  .pause(1.seconds, 2.seconds)
+            }
+      }
+
+    /** Strip the scheme and host of a link, so that it is resolved against the base URL. */
+    def relativeUrl(url: String): String = url.replaceFirst("^https?://[^/]+", "")
+
+    run()
+}
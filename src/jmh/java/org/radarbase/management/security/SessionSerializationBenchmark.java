@@ -0,0 +1,137 @@
+package org.radarbase.management.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.Data;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.radarbase.auth.authorization.AuthorityReference;
+import org.radarbase.auth.authorization.RoleAuthority;
+import org.radarbase.auth.token.DataRadarToken;
+import org.radarbase.auth.token.JwtRadarToken;
+import org.radarbase.auth.token.RadarToken;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.session.MapSession;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures writing and reading an HTTP session with a RADAR token and its security context,
+ * with the default Java serialization of Hazelcast and with {@link SessionSerializers}. The
+ * serialized session sizes are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionSerializationBenchmark {
+    @Param({"data", "jwt"})
+    public String tokenType;
+
+    @Param({"java", "compact"})
+    public String serialization;
+
+    @Param({"1", "20"})
+    public int projects;
+
+    private HazelcastInstance hazelcastInstance;
+    private SerializationService serializationService;
+    private MapSession session;
+    private Data sessionData;
+
+    /** Start a Hazelcast member with the serialization under test and create a session. */
+    @Setup
+    public void setUp() {
+        Config config = new Config();
+        config.setClusterName("session-serialization-benchmark");
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        if (serialization.equals("compact")) {
+            SessionSerializers.register(config.getSerializationConfig());
+        }
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+        serializationService = ((SerializationServiceSupport) hazelcastInstance)
+                .getSerializationService();
+
+        RadarToken token = createToken();
+        session = new MapSession();
+        session.setAttribute("jwt", token);
+        session.setAttribute("SPRING_SECURITY_CONTEXT",
+                new SecurityContextImpl(new RadarAuthentication(token)));
+        sessionData = serializationService.toData(session);
+        System.out.printf("%nSerialized session size with %s token and %s serialization:"
+                + " %d bytes%n", tokenType, serialization, sessionData.totalSize());
+    }
+
+    @TearDown
+    public void tearDown() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Benchmark
+    public Data writeSession() {
+        return serializationService.toData(session);
+    }
+
+    @Benchmark
+    public MapSession readSession() {
+        return serializationService.toObject(sessionData);
+    }
+
+    private RadarToken createToken() {
+        Set<AuthorityReference> roles = IntStream.range(0, projects)
+                .mapToObj(i -> new AuthorityReference(
+                        RoleAuthority.PROJECT_ADMIN, "project-" + i))
+                .collect(Collectors.toSet());
+        List<String> scopes = List.of("SUBJECT.READ", "SUBJECT.UPDATE", "PROJECT.READ",
+                "SOURCE.READ", "MEASUREMENT.READ", "USER.READ");
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant expiresAt = now.plus(Duration.ofHours(1));
+
+        if (tokenType.equals("jwt")) {
+            String jwt = JWT.create()
+                    .withSubject("admin")
+                    .withIssuer("ManagementPortal")
+                    .withClaim("user_name", "admin")
+                    .withClaim("client_id", "ManagementPortalapp")
+                    .withClaim("grant_type", "password")
+                    .withArrayClaim("aud", new String[] {"res_ManagementPortal"})
+                    .withClaim("scope", scopes)
+                    .withClaim("roles", roles.stream()
+                            .map(r -> r.getReferent() + ":" + r.getAuthority())
+                            .toList())
+                    .withIssuedAt(now)
+                    .withExpiresAt(expiresAt)
+                    .sign(Algorithm.HMAC256("secret"));
+            return new JwtRadarToken(JWT.decode(jwt)).copyWithRoles(roles);
+        } else {
+            return new DataRadarToken(roles, Set.copyOf(scopes), List.of(), "password",
+                    "admin", "admin", now, expiresAt, List.of("res_ManagementPortal"),
+                    null, "ManagementPortal", "JWT", "ManagementPortalapp");
+        }
+    }
+}
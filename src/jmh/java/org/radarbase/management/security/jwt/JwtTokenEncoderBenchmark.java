@@ -0,0 +1,185 @@
+package org.radarbase.management.security.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.radarbase.auth.jwt.KeyedVerifiers;
+import org.radarbase.management.security.jwt.algorithm.EcdsaJwtAlgorithm;
+import org.radarbase.management.security.jwt.algorithm.JwtAlgorithm;
+import org.radarbase.management.security.jwt.algorithm.RsaJwtAlgorithm;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.radarbase.management.security.jwt.ManagementPortalJwtAccessTokenConverter.RES_MANAGEMENT_PORTAL;
+
+/**
+ * Compares the {@link JwtTokenEncoder} with encoding through a claims map and the auth0
+ * {@link JWTCreator}, as the access token converter did before, and measures enhancing an
+ * access token with a refresh token with and without signing both in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenEncoderBenchmark {
+    private static final String KEY_ID = "selfsigned";
+
+    @Param({"ES256", "RS256"})
+    public String algorithm;
+
+    private Algorithm signingAlgorithm;
+    private JwtTokenEncoder encoder;
+    private DefaultAccessTokenConverter claimsConverter;
+    private ManagementPortalJwtAccessTokenConverter sequentialConverter;
+    private ManagementPortalJwtAccessTokenConverter parallelConverter;
+    private ExecutorService signingExecutor;
+    private DefaultOAuth2AccessToken accessToken;
+    private OAuth2Authentication authentication;
+
+    /** Create the encoders and a typical access token with a refresh token. */
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        JwtAlgorithm jwtAlgorithm = createAlgorithm();
+        signingAlgorithm = jwtAlgorithm.getAlgorithm();
+        encoder = new JwtTokenEncoder(signingAlgorithm);
+        claimsConverter = new DefaultAccessTokenConverter();
+        claimsConverter.setIncludeGrantType(true);
+
+        JWTVerifier verifier = JWT.require(signingAlgorithm)
+                .withAudience(RES_MANAGEMENT_PORTAL)
+                .build();
+        KeyedVerifiers<JWTVerifier> verifiers = new KeyedVerifiers<>(List.of(
+                new KeyedVerifiers.Entry<>(KEY_ID, signingAlgorithm.getName(), verifier)));
+        sequentialConverter = new ManagementPortalJwtAccessTokenConverter(
+                signingAlgorithm, verifiers, verifiers);
+        parallelConverter = new ManagementPortalJwtAccessTokenConverter(
+                signingAlgorithm, verifiers, verifiers);
+        signingExecutor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors());
+        parallelConverter.setSigningExecutor(signingExecutor);
+
+        Set<String> scopes = Set.of("MEASUREMENT.READ", "PROJECT.READ", "PROJECT.UPDATE",
+                "SOURCE.READ", "SOURCETYPE.READ", "SUBJECT.CREATE", "SUBJECT.READ",
+                "SUBJECT.UPDATE", "USER.READ");
+        List<GrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_PROJECT_ADMIN"));
+
+        accessToken = new DefaultOAuth2AccessToken("1b1e9c3f-7c5a-4e0c-8d4f-1a6e4f3c2b1a");
+        accessToken.setScope(scopes);
+        accessToken.setExpiration(Date.from(Instant.now().plus(Duration.ofHours(1))));
+        accessToken.setRefreshToken(new DefaultExpiringOAuth2RefreshToken(
+                "5d7f0c1e-2b3a-4c5d-8e9f-0a1b2c3d4e5f",
+                Date.from(Instant.now().plus(Duration.ofDays(30)))));
+        accessToken.setAdditionalInformation(Map.of(
+                "sub", "admin",
+                "iss", "ManagementPortal",
+                "iat", Instant.now().getEpochSecond(),
+                "roles", List.of("main:ROLE_ORGANIZATION_ADMIN",
+                        "PROJECT1:ROLE_PROJECT_ADMIN", "PROJECT2:ROLE_PROJECT_ANALYST"),
+                "sources", List.of()));
+
+        OAuth2Request request = new OAuth2Request(
+                Map.of("grant_type", "authorization_code"), "ManagementPortalapp",
+                authorities, true, scopes,
+                Set.of(RES_MANAGEMENT_PORTAL, "res_gateway", "res_appconfig"),
+                null, null, null);
+        authentication = new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken("admin", null, authorities));
+    }
+
+    /** Stop the signing threads. */
+    @TearDown
+    public void tearDown() {
+        signingExecutor.shutdownNow();
+    }
+
+    private JwtAlgorithm createAlgorithm() throws GeneralSecurityException {
+        switch (algorithm) {
+            case "ES256": {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                return new EcdsaJwtAlgorithm(generator.generateKeyPair(), KEY_ID);
+            }
+            case "RS256": {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+                return new RsaJwtAlgorithm(generator.generateKeyPair(), KEY_ID);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+        }
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(accessToken, authentication);
+    }
+
+    /** Encoding as the access token converter did before the JwtTokenEncoder. */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public String encodeWithClaimsMap() {
+        Map<String, ?> claims = claimsConverter.convertAccessToken(accessToken, authentication);
+
+        JWTCreator.Builder builder = JWT.create();
+        Stream.of("aud", "sources", "roles", "authorities", "scope")
+                .filter(claims::containsKey)
+                .forEach(claim -> builder.withArrayClaim(claim,
+                        ((Collection<String>) claims.get(claim)).toArray(new String[0])));
+        Stream.of("sub", "iss", "user_name", "client_id", "grant_type", "jti", "ati")
+                .filter(claims::containsKey)
+                .forEach(claim -> builder.withClaim(claim, (String) claims.get(claim)));
+        Stream.of("exp", "iat")
+                .filter(claims::containsKey)
+                .forEach(claim -> builder.withClaim(claim,
+                        Date.from(Instant.ofEpochSecond((Long) claims.get(claim)))));
+        return builder.sign(signingAlgorithm);
+    }
+
+    @Benchmark
+    public OAuth2AccessToken enhance() {
+        return sequentialConverter.enhance(accessToken, authentication);
+    }
+
+    @Benchmark
+    public OAuth2AccessToken enhanceInParallel() {
+        return parallelConverter.enhance(accessToken, authentication);
+    }
+}
@@ -0,0 +1,134 @@
+package org.radarbase.management.security.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.radarbase.auth.jwt.KeyedVerifiers;
+import org.radarbase.management.security.jwt.algorithm.EcdsaJwtAlgorithm;
+import org.radarbase.management.security.jwt.algorithm.JwtAlgorithm;
+import org.radarbase.management.security.jwt.algorithm.RsaJwtAlgorithm;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.radarbase.management.security.jwt.ManagementPortalJwtAccessTokenConverter.RES_MANAGEMENT_PORTAL;
+
+/**
+ * Measures encoding and decoding of access tokens by the
+ * {@link ManagementPortalJwtAccessTokenConverter}, with an EC or RSA signing key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ManagementPortalJwtAccessTokenConverterBenchmark {
+    private static final String KEY_ID = "selfsigned";
+
+    @Param({"ES256", "RS256"})
+    public String algorithm;
+
+    private ManagementPortalJwtAccessTokenConverter converter;
+    private OAuth2AccessToken accessToken;
+    private OAuth2Authentication authentication;
+    private String encodedToken;
+
+    /** Create the converter and a typical access token to encode and decode. */
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        JwtAlgorithm jwtAlgorithm = createAlgorithm();
+        Algorithm signingAlgorithm = jwtAlgorithm.getAlgorithm();
+        JWTVerifier verifier = JWT.require(signingAlgorithm)
+                .withAudience(RES_MANAGEMENT_PORTAL)
+                .build();
+        KeyedVerifiers<JWTVerifier> verifiers = new KeyedVerifiers<>(List.of(
+                new KeyedVerifiers.Entry<>(KEY_ID, signingAlgorithm.getName(), verifier)));
+        converter = new ManagementPortalJwtAccessTokenConverter(
+                signingAlgorithm, verifiers, verifiers);
+
+        Set<String> scopes = Set.of("MEASUREMENT.READ", "PROJECT.READ", "PROJECT.UPDATE",
+                "SOURCE.READ", "SOURCETYPE.READ", "SUBJECT.CREATE", "SUBJECT.READ",
+                "SUBJECT.UPDATE", "USER.READ");
+        List<GrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_PROJECT_ADMIN"));
+
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(
+                "1b1e9c3f-7c5a-4e0c-8d4f-1a6e4f3c2b1a");
+        token.setScope(scopes);
+        token.setExpiration(Date.from(Instant.now().plus(Duration.ofHours(1))));
+        token.setAdditionalInformation(Map.of(
+                "sub", "admin",
+                "iss", "ManagementPortal",
+                "iat", Instant.now().getEpochSecond(),
+                "roles", List.of("main:ROLE_ORGANIZATION_ADMIN",
+                        "PROJECT1:ROLE_PROJECT_ADMIN", "PROJECT2:ROLE_PROJECT_ANALYST"),
+                "sources", List.of()));
+        accessToken = token;
+
+        OAuth2Request request = new OAuth2Request(
+                Map.of("grant_type", "authorization_code"), "ManagementPortalapp",
+                authorities, true, scopes,
+                Set.of(RES_MANAGEMENT_PORTAL, "res_gateway", "res_appconfig"),
+                null, null, null);
+        authentication = new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken("admin", null, authorities));
+
+        encodedToken = converter.encode(accessToken, authentication);
+    }
+
+    private JwtAlgorithm createAlgorithm() throws GeneralSecurityException {
+        switch (algorithm) {
+            case "ES256": {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+                return new EcdsaJwtAlgorithm(generator.generateKeyPair(), KEY_ID);
+            }
+            case "RS256": {
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+                KeyPair keyPair = generator.generateKeyPair();
+                return new RsaJwtAlgorithm(keyPair, KEY_ID);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+        }
+    }
+
+    @Benchmark
+    public String encode() {
+        return converter.encode(accessToken, authentication);
+    }
+
+    @Benchmark
+    public Map<String, Object> decode() {
+        return converter.decode(encodedToken);
+    }
+}
@@ -1,26 +1,61 @@
 package org.radarbase.management.config
 
-import kotlinx.coroutines.Dispatchers
-import kotlinx.coroutines.withContext
+import com.hazelcast.core.HazelcastInstance
+import io.micrometer.core.instrument.MeterRegistry
 import org.radarbase.auth.authorization.AuthorizationOracle
-import org.radarbase.auth.authorization.EntityRelationService
 import org.radarbase.auth.authorization.MPAuthorizationOracle
-import org.radarbase.management.repository.ProjectRepository
+import org.radarbase.management.repository.SubjectRepository
+import org.radarbase.management.repository.UserRepository
+import org.radarbase.management.security.CachedClientDetailsService
+import org.radarbase.management.security.CachedClientDetailsService.Companion.CLIENT_DETAILS_MAP
+import org.radarbase.management.security.SubjectSourceCache
+import org.radarbase.management.security.SubjectSourceCache.Companion.SUBJECT_SOURCE_MAP
+import org.radarbase.management.security.UserAuthorityCache
+import org.radarbase.management.security.UserAuthorityCache.Companion.USER_AUTHORITY_MAP
+import org.radarbase.management.service.CachedEntityRelationService
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Configuration
+import org.springframework.security.oauth2.provider.client.JdbcClientDetailsService
 
 @Configuration
 open class AuthorizationConfiguration(
-    private val projectRepository: ProjectRepository,
+    private val entityRelationService: CachedEntityRelationService,
 ) {
     @Bean
     open fun authorizationOracle(): AuthorizationOracle = MPAuthorizationOracle(
-        object : EntityRelationService {
-            override suspend fun findOrganizationOfProject(project: String): String? = withContext(Dispatchers.IO) {
-                projectRepository.findOneWithEagerRelationshipsByName(project)
-                    .map { it.organization.name }
-                    .orElse(null)
-            }
-        }
+        entityRelationService
+    )
+
+    @Bean
+    open fun userAuthorityCache(
+        userRepository: UserRepository,
+        hazelcastInstance: HazelcastInstance,
+        meterRegistry: MeterRegistry,
+    ): UserAuthorityCache = UserAuthorityCache(
+        userRepository,
+        hazelcastInstance.getMap(USER_AUTHORITY_MAP),
+        meterRegistry,
+    )
+
+    @Bean
+    open fun subjectSourceCache(
+        subjectRepository: SubjectRepository,
+        hazelcastInstance: HazelcastInstance,
+        meterRegistry: MeterRegistry,
+    ): SubjectSourceCache = SubjectSourceCache(
+        subjectRepository,
+        hazelcastInstance.getMap(SUBJECT_SOURCE_MAP),
+        meterRegistry,
+    )
+
+    @Bean
+    open fun cachedClientDetailsService(
+        jdbcClientDetailsService: JdbcClientDetailsService,
+        hazelcastInstance: HazelcastInstance,
+        meterRegistry: MeterRegistry,
+    ): CachedClientDetailsService = CachedClientDetailsService(
+        jdbcClientDetailsService,
+        hazelcastInstance.getMap(CLIENT_DETAILS_MAP),
+        meterRegistry,
     )
 }
@@ -6,10 +6,16 @@ import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.IndexConfig;
 import com.hazelcast.config.IndexType;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.config.NetworkConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.hazelcast.spring.cache.HazelcastCacheManager;
+import org.radarbase.management.security.CachedClientDetailsService;
+import org.radarbase.management.security.SessionSerializers;
+import org.radarbase.management.security.SubjectSourceCache;
+import org.radarbase.management.security.UserAuthorityCache;
+import org.radarbase.management.service.CachedEntityRelationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -80,9 +86,14 @@ public class CacheConfiguration {
                 .addAttributeConfig(attributeConfig).addIndexConfig(
                         new IndexConfig(IndexType.HASH,
                                 Hazelcast4IndexedSessionRepository.PRINCIPAL_NAME_ATTRIBUTE));
+        SessionSerializers.register(config.getSerializationConfig());
         config.getMapConfigs().put("default", initializeDefaultMapConfig());
         config.getMapConfigs().put("org.radarbase.management.domain.*",
                 initializeDomainMapConfig(jHipsterProperties));
+        config.addMapConfig(initializeProjectOrganizationMapConfig());
+        config.addMapConfig(initializeUserAuthorityMapConfig());
+        config.addMapConfig(initializeSubjectSourceMapConfig());
+        config.addMapConfig(initializeClientDetailsMapConfig());
         return config;
     }
 
@@ -110,6 +121,44 @@ public class CacheConfiguration {
         return mapConfig;
     }
 
+    private MapConfig initializeProjectOrganizationMapConfig() {
+        MapConfig mapConfig = new MapConfig(CachedEntityRelationService.PROJECT_ORGANIZATION_MAP);
+        // Keep a local copy on each member, which is invalidated when the map changes.
+        mapConfig.setNearCacheConfig(new NearCacheConfig().setInvalidateOnChange(true));
+        // A lookup that read the database before a project moved organization may store the
+        // old organization after the map was cleared. This limits how long that stale
+        // relation, and the organization permissions that follow from it, can be used.
+        mapConfig.setTimeToLiveSeconds(60);
+        return mapConfig;
+    }
+
+    private MapConfig initializeUserAuthorityMapConfig() {
+        MapConfig mapConfig = new MapConfig(UserAuthorityCache.USER_AUTHORITY_MAP);
+        mapConfig.setNearCacheConfig(new NearCacheConfig().setInvalidateOnChange(true));
+        // Roles are evicted when they change, so this only limits how long a role change
+        // that was not evicted, for example from a direct database edit, goes unnoticed.
+        mapConfig.setTimeToLiveSeconds(60);
+        return mapConfig;
+    }
+
+    private MapConfig initializeSubjectSourceMapConfig() {
+        MapConfig mapConfig = new MapConfig(SubjectSourceCache.SUBJECT_SOURCE_MAP);
+        mapConfig.setNearCacheConfig(new NearCacheConfig().setInvalidateOnChange(true));
+        // Source assignments are evicted when they change, so this only limits how long
+        // a change that was not evicted goes unnoticed.
+        mapConfig.setTimeToLiveSeconds(60);
+        return mapConfig;
+    }
+
+    private MapConfig initializeClientDetailsMapConfig() {
+        MapConfig mapConfig = new MapConfig(CachedClientDetailsService.CLIENT_DETAILS_MAP);
+        mapConfig.setNearCacheConfig(new NearCacheConfig().setInvalidateOnChange(true));
+        // Clients are evicted when they change, so this only limits how long a client change
+        // that was not evicted, for example from a direct database edit, goes unnoticed.
+        mapConfig.setTimeToLiveSeconds(600);
+        return mapConfig;
+    }
+
     private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
         MapConfig mapConfig = new MapConfig();
         mapConfig.setTimeToLiveSeconds(
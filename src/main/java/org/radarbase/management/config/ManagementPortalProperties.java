@@ -20,6 +20,10 @@ public class ManagementPortalProperties {
 
     private final CatalogueServer catalogueServer = new CatalogueServer();
 
+    private final Audit audit = new Audit();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
     public ManagementPortalProperties.Frontend getFrontend() {
         return frontend;
     }
@@ -44,6 +48,14 @@ public class ManagementPortalProperties {
         return common;
     }
 
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
     public static class Common {
 
         private String baseUrl = "";
@@ -180,6 +192,18 @@ public class ManagementPortalProperties {
 
         private Boolean enablePublicKeyVerifiers = false;
 
+        private Integer tokenCacheSize = 1000;
+
+        private Integer approvalCacheSize = 0;
+
+        private Integer approvalCacheTimeToLiveSeconds = 60;
+
+        private Integer clientSecretCacheSize = 1000;
+
+        private Integer clientSecretCacheTimeToLiveSeconds = 60;
+
+        private Integer tokenSigningThreads = 0;
+
         public String getClientsFile() {
             return clientsFile;
         }
@@ -235,6 +259,55 @@ public class ManagementPortalProperties {
         public void setEnablePublicKeyVerifiers(Boolean enablePublicKeyVerifiers) {
             this.enablePublicKeyVerifiers = enablePublicKeyVerifiers;
         }
+
+        public Integer getTokenCacheSize() {
+            return tokenCacheSize;
+        }
+
+        public void setTokenCacheSize(Integer tokenCacheSize) {
+            this.tokenCacheSize = tokenCacheSize;
+        }
+
+        public Integer getApprovalCacheSize() {
+            return approvalCacheSize;
+        }
+
+        public void setApprovalCacheSize(Integer approvalCacheSize) {
+            this.approvalCacheSize = approvalCacheSize;
+        }
+
+        public Integer getApprovalCacheTimeToLiveSeconds() {
+            return approvalCacheTimeToLiveSeconds;
+        }
+
+        public void setApprovalCacheTimeToLiveSeconds(Integer approvalCacheTimeToLiveSeconds) {
+            this.approvalCacheTimeToLiveSeconds = approvalCacheTimeToLiveSeconds;
+        }
+
+        public Integer getClientSecretCacheSize() {
+            return clientSecretCacheSize;
+        }
+
+        public void setClientSecretCacheSize(Integer clientSecretCacheSize) {
+            this.clientSecretCacheSize = clientSecretCacheSize;
+        }
+
+        public Integer getClientSecretCacheTimeToLiveSeconds() {
+            return clientSecretCacheTimeToLiveSeconds;
+        }
+
+        public void setClientSecretCacheTimeToLiveSeconds(
+                Integer clientSecretCacheTimeToLiveSeconds) {
+            this.clientSecretCacheTimeToLiveSeconds = clientSecretCacheTimeToLiveSeconds;
+        }
+
+        public Integer getTokenSigningThreads() {
+            return tokenSigningThreads;
+        }
+
+        public void setTokenSigningThreads(Integer tokenSigningThreads) {
+            this.tokenSigningThreads = tokenSigningThreads;
+        }
     }
 
     public static class CatalogueServer {
@@ -259,4 +332,65 @@ public class ManagementPortalProperties {
             this.enableAutoImport = enableAutoImport;
         }
     }
+
+    public static class Audit {
+
+        /** Write audit events from a background thread instead of in the request thread. */
+        private boolean asynchronous = true;
+
+        /** Maximum number of audit events waiting to be written before events are dropped. */
+        private int queueCapacity = 10000;
+
+        /** Maximum number of audit events written in a single transaction. */
+        private int batchSize = 100;
+
+        public boolean isAsynchronous() {
+            return asynchronous;
+        }
+
+        public void setAsynchronous(boolean asynchronous) {
+            this.asynchronous = asynchronous;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        /** Number of threads that hash passwords. */
+        private int threads = Runtime.getRuntime().availableProcessors();
+
+        /** Maximum number of password operations waiting for a thread before rejecting more. */
+        private int queueCapacity = 100;
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
 }
@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import org.radarbase.auth.authorization.Permission;
+import org.radarbase.management.security.CachedClientDetailsService;
 import org.radarbase.management.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +44,9 @@ public class ManagementPortalSecurityConfigLoader {
     @Autowired
     private JdbcClientDetailsService clientDetailsService;
 
+    @Autowired
+    private CachedClientDetailsService cachedClientDetailsService;
+
     @Autowired
     private ManagementPortalProperties managementPortalProperties;
 
@@ -147,6 +151,8 @@ public class ManagementPortalSecurityConfigLoader {
         }
         try {
             clientDetailsService.addClientDetails(details);
+            // other cluster members may still have the previous client details cached
+            cachedClientDetailsService.evict(details.getClientId());
             logger.info("OAuth client loaded: " + details.getClientId());
         } catch (Exception ex) {
             logger.error("Unable to load OAuth client " + details.getClientId() + ": "
@@ -1,11 +1,15 @@
 package org.radarbase.management.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.radarbase.auth.authorization.RoleAuthority;
-import org.radarbase.management.repository.UserRepository;
+import org.radarbase.management.security.CachedClientDetailsService;
+import org.radarbase.management.security.CachedPasswordEncoder;
 import org.radarbase.management.security.ClaimsTokenEnhancer;
 import org.radarbase.management.security.Http401UnauthorizedEntryPoint;
 import org.radarbase.management.security.JwtAuthenticationFilter;
 import org.radarbase.management.security.PostgresApprovalStore;
+import org.radarbase.management.security.TokenEndpointExceptionTranslator;
+import org.radarbase.management.security.UserAuthorityCache;
 import org.radarbase.management.security.jwt.ManagementPortalJwtAccessTokenConverter;
 import org.radarbase.management.security.jwt.ManagementPortalJwtTokenStore;
 import org.radarbase.management.security.jwt.ManagementPortalOauthKeyStoreHandler;
@@ -19,14 +23,16 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.DefaultAuthenticationEventPublisher;
+import org.springframework.security.config.annotation.ObjectPostProcessor;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.config.annotation.configurers.ClientDetailsServiceConfigurer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.AuthorizationServerConfigurerAdapter;
@@ -38,9 +44,11 @@ import org.springframework.security.oauth2.config.annotation.web.configurers.Aut
 import org.springframework.security.oauth2.config.annotation.web.configurers.ResourceServerSecurityConfigurer;
 import org.springframework.security.oauth2.provider.approval.ApprovalStore;
 import org.springframework.security.oauth2.provider.approval.JdbcApprovalStore;
+import org.springframework.security.oauth2.provider.client.ClientCredentialsTokenEndpointFilter;
 import org.springframework.security.oauth2.provider.client.JdbcClientDetailsService;
 import org.springframework.security.oauth2.provider.code.AuthorizationCodeServices;
 import org.springframework.security.oauth2.provider.code.JdbcAuthorizationCodeServices;
+import org.springframework.security.oauth2.provider.error.OAuth2AuthenticationEntryPoint;
 import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
 import org.springframework.security.oauth2.provider.token.TokenEnhancer;
 import org.springframework.security.oauth2.provider.token.TokenEnhancerChain;
@@ -49,6 +57,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 import java.util.Arrays;
 
 import static org.springframework.orm.jpa.vendor.Database.POSTGRESQL;
@@ -99,7 +108,7 @@ public class OAuth2ServerConfiguration {
         private AuthenticationManager authenticationManager;
 
         @Autowired
-        private UserRepository userRepository;
+        private UserAuthorityCache userAuthorityCache;
 
         @Autowired
         private ManagementPortalOauthKeyStoreHandler keyStoreHandler;
@@ -109,7 +118,7 @@ public class OAuth2ServerConfiguration {
             return new JwtAuthenticationFilter(
                     keyStoreHandler.getTokenValidator(),
                     authenticationManager,
-                    userRepository,
+                    userAuthorityCache,
                     true);
         }
     }
@@ -140,11 +149,11 @@ public class OAuth2ServerConfiguration {
         private AuthenticationManager authenticationManager;
 
         @Autowired
-        private UserRepository userRepository;
+        private UserAuthorityCache userAuthorityCache;
 
         public JwtAuthenticationFilter jwtAuthenticationFilter() {
             return new JwtAuthenticationFilter(
-                    keyStoreHandler.getTokenValidator(), authenticationManager, userRepository
+                    keyStoreHandler.getTokenValidator(), authenticationManager, userAuthorityCache
             )
                     .skipUrlPattern(HttpMethod.GET, "/management/health")
                     .skipUrlPattern(HttpMethod.GET, "/api/meta-token/*")
@@ -229,7 +238,13 @@ public class OAuth2ServerConfiguration {
         private DataSource dataSource;
 
         @Autowired
-        private JdbcClientDetailsService jdbcClientDetailsService;
+        private CachedClientDetailsService cachedClientDetailsService;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @Autowired
+        private PasswordEncoder passwordEncoder;
 
         @Autowired
         private ManagementPortalOauthKeyStoreHandler keyStoreHandler;
@@ -239,16 +254,33 @@ public class OAuth2ServerConfiguration {
             return new JdbcAuthorizationCodeServices(dataSource);
         }
 
+        @Autowired
+        private ManagementPortalProperties managementPortalProperties;
+
         @Bean
         public ApprovalStore approvalStore() {
             if (jpaProperties.getDatabase().equals(POSTGRESQL)) {
-                return new PostgresApprovalStore(dataSource);
+                PostgresApprovalStore approvalStore = new PostgresApprovalStore(dataSource);
+                ManagementPortalProperties.Oauth oauth = managementPortalProperties.getOauth();
+                approvalStore.setApprovalCache(oauth.getApprovalCacheSize(),
+                        Duration.ofSeconds(oauth.getApprovalCacheTimeToLiveSeconds()));
+                return approvalStore;
             } else {
                 // to have compatibility for other databases including H2
                 return new JdbcApprovalStore(dataSource);
             }
         }
 
+        /**
+         * Expired approvals are deleted daily.
+         */
+        @Scheduled(cron = "0 30 1 * * ?")
+        public void purgeExpiredApprovals() {
+            if (approvalStore() instanceof PostgresApprovalStore postgresApprovalStore) {
+                postgresApprovalStore.purgeExpiredApprovals();
+            }
+        }
+
         @Bean
         public TokenEnhancer tokenEnhancer() {
             return new ClaimsTokenEnhancer();
@@ -262,10 +294,32 @@ public class OAuth2ServerConfiguration {
         @Bean
         public ManagementPortalJwtAccessTokenConverter accessTokenConverter() {
             logger.debug("loading token converter from keystore configurations");
-            return new ManagementPortalJwtAccessTokenConverter(
-                    keyStoreHandler.getAlgorithmForSigning(),
-                    keyStoreHandler.getVerifiers(),
-                    keyStoreHandler.getRefreshTokenVerifiers());
+            ManagementPortalJwtAccessTokenConverter converter =
+                    new ManagementPortalJwtAccessTokenConverter(
+                            keyStoreHandler.getAlgorithmForSigning(),
+                            keyStoreHandler.getVerifiers(),
+                            keyStoreHandler.getRefreshTokenVerifiers());
+            if (managementPortalProperties.getOauth().getTokenSigningThreads() > 0) {
+                converter.setSigningExecutor(tokenSigningExecutor());
+            }
+            return converter;
+        }
+
+        /**
+         * Executor to sign refresh tokens on, if token signing threads are configured. Its
+         * threads are only started when tokens are signed on it, and they are stopped when the
+         * application context is closed.
+         */
+        @Bean
+        public ThreadPoolTaskExecutor tokenSigningExecutor() {
+            int signingThreads = Math.max(1,
+                    managementPortalProperties.getOauth().getTokenSigningThreads());
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(signingThreads);
+            executor.setMaxPoolSize(signingThreads);
+            executor.setThreadNamePrefix("token-signing-");
+            executor.setDaemon(true);
+            return executor;
         }
 
         @Bean
@@ -278,6 +332,15 @@ public class OAuth2ServerConfiguration {
             return defaultTokenServices;
         }
 
+        /**
+         * Translates exceptions of the token endpoint and its client authentication, so that
+         * rejected password checks result in a 503 Service Unavailable response.
+         */
+        @Bean
+        public TokenEndpointExceptionTranslator tokenEndpointExceptionTranslator() {
+            return new TokenEndpointExceptionTranslator();
+        }
+
         @Override
         public void configure(AuthorizationServerEndpointsConfigurer endpoints) {
             TokenEnhancerChain tokenEnhancerChain = new TokenEnhancerChain();
@@ -290,20 +353,40 @@ public class OAuth2ServerConfiguration {
                     .tokenStore(tokenStore())
                     .tokenEnhancer(tokenEnhancerChain)
                     .reuseRefreshTokens(false)
+                    .exceptionTranslator(tokenEndpointExceptionTranslator())
                     .authenticationManager(authenticationManager);
         }
 
         @Override
         public void configure(AuthorizationServerSecurityConfigurer oauthServer) {
+            ManagementPortalProperties.Oauth oauth = managementPortalProperties.getOauth();
+            // client authentication entry point, with the same type and realm as the default one
+            OAuth2AuthenticationEntryPoint clientEntryPoint = new OAuth2AuthenticationEntryPoint();
+            clientEntryPoint.setTypeName("Basic");
+            clientEntryPoint.setRealmName("oauth2/client");
+            clientEntryPoint.setExceptionTranslator(tokenEndpointExceptionTranslator());
+            oauthServer.authenticationEntryPoint(clientEntryPoint)
+                    .addObjectPostProcessor(
+                            new ObjectPostProcessor<ClientCredentialsTokenEndpointFilter>() {
+                                @Override
+                                public <O extends ClientCredentialsTokenEndpointFilter> O
+                                        postProcess(O filter) {
+                                    filter.setAuthenticationEntryPoint(clientEntryPoint);
+                                    return filter;
+                                }
+                            });
             oauthServer.allowFormAuthenticationForClients()
                     .checkTokenAccess("isAuthenticated()")
                     .tokenKeyAccess("permitAll()")
-                    .passwordEncoder(new BCryptPasswordEncoder());
+                    .passwordEncoder(new CachedPasswordEncoder(passwordEncoder,
+                            Duration.ofSeconds(oauth.getClientSecretCacheTimeToLiveSeconds()),
+                            oauth.getClientSecretCacheSize(),
+                            meterRegistry));
         }
 
         @Override
         public void configure(ClientDetailsServiceConfigurer clients) throws Exception {
-            clients.withClientDetails(jdbcClientDetailsService);
+            clients.withClientDetails(cachedClientDetailsService);
         }
     }
 }
@@ -1,5 +1,7 @@
 package org.radarbase.management.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.radarbase.management.security.BoundedPasswordEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -108,8 +110,17 @@ public class WebConfigurer implements ServletContextInitializer,
         cachingHttpHeadersFilter.setAsyncSupported(true);
     }
 
+    /**
+     * Password encoder that hashes passwords on a dedicated, size-limited thread pool.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ManagementPortalProperties managementPortalProperties,
+            MeterRegistry meterRegistry) {
+        ManagementPortalProperties.PasswordHashing passwordHashing =
+                managementPortalProperties.getPasswordHashing();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(),
+                Math.max(1, passwordHashing.getThreads()),
+                Math.max(1, passwordHashing.getQueueCapacity()),
+                meterRegistry);
     }
 }
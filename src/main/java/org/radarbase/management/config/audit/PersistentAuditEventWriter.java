@@ -0,0 +1,199 @@
+package org.radarbase.management.config.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.hibernate.Session;
+import org.radarbase.management.config.ManagementPortalProperties;
+import org.radarbase.management.domain.PersistentAuditEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes audit events to the database. By default, events are added to a bounded queue that
+ * is drained by a background thread, which writes them in batches. When the queue is full,
+ * events are dropped and counted in the {@code audit.events} metric with result
+ * {@code dropped}. Remaining events are written when the application shuts down. Set
+ * {@code managementportal.audit.asynchronous} to false to write each event synchronously in
+ * its own transaction instead.
+ */
+@Component
+public class PersistentAuditEventWriter implements InitializingBean, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(PersistentAuditEventWriter.class);
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10_000L;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean asynchronous;
+
+    private final int batchSize;
+
+    private final BlockingQueue<PersistentAuditEvent> queue;
+
+    private final Counter writtenCounter;
+
+    private final Counter droppedCounter;
+
+    private final Counter failedCounter;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private Thread writerThread;
+
+    private volatile boolean running;
+
+    /**
+     * Audit event writer.
+     *
+     * @param entityManager entity manager to persist events with
+     * @param transactionManager transaction manager to write events in a new transaction
+     * @param managementPortalProperties audit settings
+     * @param meterRegistry registry for the audit event metrics
+     */
+    public PersistentAuditEventWriter(EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            ManagementPortalProperties managementPortalProperties,
+            MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(
+                TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        ManagementPortalProperties.Audit audit = managementPortalProperties.getAudit();
+        this.asynchronous = audit.isAsynchronous();
+        this.batchSize = Math.max(1, audit.getBatchSize());
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, audit.getQueueCapacity()));
+
+        this.writtenCounter = meterRegistry.counter("audit.events", "result", "written");
+        this.droppedCounter = meterRegistry.counter("audit.events", "result", "dropped");
+        this.failedCounter = meterRegistry.counter("audit.events", "result", "failed");
+        meterRegistry.gaugeCollectionSize("audit.events.queued", Tags.empty(), queue);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (asynchronous) {
+            running = true;
+            writerThread = new Thread(this::run, "audit-event-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+    }
+
+    /**
+     * Write an audit event. In asynchronous mode, this only adds the event to the queue of
+     * events to write, or drops it if the queue is full. In synchronous mode, any failure to
+     * write the event is thrown to the caller.
+     *
+     * @param event event to write
+     */
+    public void write(PersistentAuditEvent event) {
+        if (!asynchronous) {
+            persist(List.of(event));
+            writtenCounter.increment();
+        } else if (!running) {
+            // the application is shutting down
+            writeBatch(List.of(event));
+        } else if (queue.offer(event)) {
+            if (!running) {
+                // the writer may have stopped before it could take the event from the queue
+                flush();
+            }
+        } else {
+            droppedCounter.increment();
+            long dropped = droppedCount.incrementAndGet();
+            // do not flood the log when the database cannot keep up
+            if (dropped % 1000 == 1) {
+                logger.warn("Audit event queue is full, dropped {} audit events so far",
+                        dropped);
+            }
+        }
+    }
+
+    private void run() {
+        List<PersistentAuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PersistentAuditEvent event = queue.poll(1, TimeUnit.SECONDS);
+                if (event == null) {
+                    continue;
+                }
+                batch.add(event);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+                batch.clear();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    /** Write all queued events in batches on the calling thread. */
+    private void flush() {
+        List<PersistentAuditEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<PersistentAuditEvent> events) {
+        try {
+            persist(events);
+            writtenCounter.increment(events.size());
+        } catch (RuntimeException ex) {
+            failedCounter.increment(events.size());
+            logger.error("Failed to write {} audit events: {}", events.size(), ex.toString());
+        }
+    }
+
+    /** Persist events in a new transaction, using JDBC batches for the inserts. */
+    private void persist(List<PersistentAuditEvent> events) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            events.forEach(entityManager::persist);
+        });
+    }
+
+    /**
+     * Stop the background writer and write any events that are still queued. If the writer
+     * does not finish in time, the events that are still queued are dropped.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (!asynchronous) {
+            return;
+        }
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+        if (writerThread != null && writerThread.isAlive()) {
+            List<PersistentAuditEvent> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            droppedCounter.increment(remaining.size());
+            logger.warn("Audit event writer did not finish within {} ms, {} events not written",
+                    SHUTDOWN_TIMEOUT_MILLIS, remaining.size());
+        } else {
+            flush();
+        }
+    }
+}
@@ -6,13 +6,12 @@ import java.time.ZoneId;
 import java.util.List;
 import org.radarbase.management.security.Constants;
 import org.radarbase.management.config.audit.AuditEventConverter;
+import org.radarbase.management.config.audit.PersistentAuditEventWriter;
 import org.radarbase.management.domain.PersistentAuditEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * An implementation of Spring Boot's AuditEventRepository.
@@ -28,6 +27,9 @@ public class CustomAuditEventRepository implements AuditEventRepository {
     @Autowired
     private AuditEventConverter auditEventConverter;
 
+    @Autowired
+    private PersistentAuditEventWriter auditEventWriter;
+
     @Override
     public List<AuditEvent> find(String principal, Instant after, String type) {
         Iterable<PersistentAuditEvent> persistentAuditEvents =
@@ -38,7 +40,6 @@ public class CustomAuditEventRepository implements AuditEventRepository {
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void add(AuditEvent event) {
         if (!AUTHORIZATION_FAILURE.equals(event.getType())
                 && !Constants.ANONYMOUS_USER.equals(event.getPrincipal())) {
@@ -49,7 +50,7 @@ public class CustomAuditEventRepository implements AuditEventRepository {
             persistentAuditEvent.setAuditEventDate(LocalDateTime.ofInstant(event.getTimestamp(),
                     ZoneId.systemDefault()));
             persistentAuditEvent.setData(auditEventConverter.convertDataToStrings(event.getData()));
-            persistenceAuditEventRepository.save(persistentAuditEvent);
+            auditEventWriter.write(persistentAuditEvent);
         }
     }
 }
@@ -16,6 +16,7 @@ import org.springframework.data.repository.RepositoryDefinition;
 import org.springframework.data.repository.history.RevisionRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 @RepositoryDefinition(domainClass = Group.class, idClass = Long.class)
@@ -35,4 +36,8 @@ public interface GroupRepository extends JpaRepository<Group, Long>,
     Optional<Group> findByProjectNameAndName(
             @Param("project_name") String projectName,
             @Param("group_name") String groupName);
+
+    @Query("SELECT group FROM Group group "
+            + "WHERE group.project.id = :project_id")
+    List<Group> findAllByProjectId(@Param("project_id") Long id);
 }
@@ -62,6 +62,11 @@ public interface ProjectRepository extends JpaRepository<Project, Long>,
             + "where project.projectName = :name")
     Optional<Project> findOneWithEagerRelationshipsByName(@Param("name") String name);
 
+    @Query("select organization.name from Project project "
+            + "join project.organization organization "
+            + "where project.projectName = :name")
+    Optional<String> findOrganizationNameByProjectName(@Param("name") String name);
+
     @Query("select project.id from Project project "
             + "where project.projectName =:name")
     Optional<Long> findProjectIdByName(@Param("name") String name);
@@ -12,8 +12,10 @@ import org.springframework.data.repository.RepositoryDefinition;
 import org.springframework.data.repository.history.RevisionRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -23,7 +25,7 @@ import java.util.UUID;
 @RepositoryDefinition(domainClass = Subject.class, idClass = Long.class)
 public interface SubjectRepository extends JpaRepository<Subject, Long>,
         RevisionRepository<Subject, Long, Integer>,
-        JpaSpecificationExecutor<Subject> {
+        JpaSpecificationExecutor<Subject>, SubjectRepositoryCustom {
 
     @Query("SELECT count(*) from Subject subject "
             + "WHERE subject.group.id = :group_id")
@@ -46,6 +48,13 @@ public interface SubjectRepository extends JpaRepository<Subject, Long>,
             + "WHERE subject.user.login = :login")
     Optional<Subject> findOneWithEagerBySubjectLogin(@Param("login") String login);
 
+    @Query("select distinct subject from Subject subject "
+            + "left join fetch subject.sources "
+            + "join fetch subject.user "
+            + "left join fetch subject.attributes "
+            + "WHERE subject.id in :ids")
+    List<Subject> findAllWithEagerByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("select subject from Subject subject "
             + "WHERE subject.user.login in :logins")
     List<Subject> findAllBySubjectLogins(@Param("logins") List<String> logins);
@@ -70,6 +79,10 @@ public interface SubjectRepository extends JpaRepository<Subject, Long>,
     @Query("select subject.sources from Subject subject WHERE subject.user.login = :login")
     List<Source> findSourcesBySubjectLogin(@Param("login") String login);
 
+    @Query("select source.sourceId from Subject subject join subject.sources source "
+            + "WHERE subject.user.login = :login")
+    List<UUID> findSourceIdsBySubjectLogin(@Param("login") String login);
+
     @Query("select distinct subject from Subject subject left join fetch subject.sources "
             + "left join fetch subject.user user "
             + "join user.roles roles where roles.project.projectName = :projectName "
@@ -77,6 +90,13 @@ public interface SubjectRepository extends JpaRepository<Subject, Long>,
     Optional<Subject> findOneByProjectNameAndExternalId(@Param("projectName") String projectName,
             @Param("externalId") String externalId);
 
+    @Query("select subject.externalId from Subject subject "
+            + "join subject.user user "
+            + "join user.roles roles where roles.project.projectName = :projectName "
+            + "and subject.externalId in :externalIds")
+    Set<String> findExistingExternalIds(@Param("projectName") String projectName,
+            @Param("externalIds") Collection<String> externalIds);
+
     @Query("select distinct subject from Subject subject left join fetch subject.sources "
             + "left join fetch subject.user user "
             + "join user.roles roles where roles.project.projectName = :projectName "
@@ -0,0 +1,34 @@
+package org.radarbase.management.repository;
+
+import org.radarbase.management.repository.filters.SubjectSpecification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Subject queries that cannot be expressed with Spring Data query methods.
+ */
+public interface SubjectRepositoryCustom {
+    /**
+     * Find the IDs of subjects matching given specification, in the sort order of the
+     * specification. Unlike querying subjects with their sources, this limits the number of
+     * rows read from the database.
+     *
+     * @param specification subject filter and sort order.
+     * @param offset number of matching subjects to skip.
+     * @param limit maximum number of subject IDs to return.
+     * @return subject IDs.
+     */
+    List<Long> findAllIds(SubjectSpecification specification, long offset, int limit);
+
+    /**
+     * Stream the IDs of all subjects matching given specification, in the sort order of the
+     * specification. The IDs are read from a single forward-only result set, so the stream
+     * must be consumed within a transaction and closed after use.
+     *
+     * @param specification subject filter and sort order.
+     * @param fetchSize number of IDs to fetch from the database at once.
+     * @return stream of subject IDs.
+     */
+    Stream<Long> streamAllIds(SubjectSpecification specification, int fetchSize);
+}
@@ -0,0 +1,54 @@
+package org.radarbase.management.repository;
+
+import org.hibernate.jpa.QueryHints;
+import org.radarbase.management.domain.Subject;
+import org.radarbase.management.repository.filters.SubjectSpecification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of {@link SubjectRepositoryCustom}.
+ */
+public class SubjectRepositoryCustomImpl implements SubjectRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findAllIds(SubjectSpecification specification, long offset, int limit) {
+        return createIdQuery(specification)
+                .setFirstResult((int) offset)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(tuple -> tuple.get(0, Long.class))
+                .toList();
+    }
+
+    @Override
+    public Stream<Long> streamAllIds(SubjectSpecification specification, int fetchSize) {
+        return createIdQuery(specification)
+                .setHint(QueryHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream()
+                .map(tuple -> tuple.get(0, Long.class));
+    }
+
+    private TypedQuery<Tuple> createIdQuery(SubjectSpecification specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Subject> root = query.from(Subject.class);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(specification.getIdSelection(root));
+        return entityManager.createQuery(query);
+    }
+}
@@ -12,8 +12,10 @@ import org.springframework.data.repository.history.RevisionRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Spring Data JPA repository for the User entity.
@@ -45,4 +47,38 @@ public interface UserRepository extends JpaRepository<User, Long>,
 
     Page<User> findAllByLoginNot(Pageable pageable, String login);
 
+    /**
+     * Find which of given logins are already in use.
+     *
+     * @param logins logins to check.
+     * @return logins of existing users among given logins.
+     */
+    @Query("select user.login from User user where user.login in :logins")
+    Set<String> findExistingLogins(@Param("logins") Collection<String> logins);
+
+    /**
+     * Find the roles of a user with the names of the entities they refer to, in a single query.
+     * A user without roles results in a single row with only null values.
+     *
+     * @param login user login.
+     * @return roles of the user, or an empty list if the user does not exist.
+     */
+    @Query("select authority.name as authority, project.projectName as projectName, "
+            + "organization.name as organizationName from User user "
+            + "left join user.roles role "
+            + "left join role.authority authority "
+            + "left join role.project project "
+            + "left join role.organization organization "
+            + "where user.login = :login")
+    List<RoleReference> findRoleReferencesByLogin(@Param("login") String login);
+
+    /** Role of a user with the names of the entities it refers to. */
+    interface RoleReference {
+        String getAuthority();
+
+        String getProjectName();
+
+        String getOrganizationName();
+    }
+
 }
@@ -21,6 +21,7 @@ import javax.persistence.criteria.Order;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -147,14 +148,34 @@ public class SubjectSpecification implements Specification<Subject> {
         if (queryResult == Long.class || queryResult == long.class) {
             return;
         }
-        root.fetch("sources", JoinType.LEFT);
-        root.fetch("user", JoinType.INNER);
+        // Only fetch relations when selecting subjects, not when selecting IDs.
+        if (queryResult == Subject.class) {
+            root.fetch("sources", JoinType.LEFT);
+            root.fetch("user", JoinType.INNER);
+        }
 
         if (last != null) {
             predicates.add(filterLastValues(root, builder));
         }
     }
 
+    /**
+     * Selection for a query of subject IDs with this specification. It contains the subject ID
+     * followed by the sort properties, so that the query can be both distinct and sorted.
+     * @param root subject root of the query.
+     * @return selected subject ID and sort properties.
+     */
+    public List<Selection<?>> getIdSelection(Root<Subject> root) {
+        List<Selection<?>> selection = new ArrayList<>(sort.size() + 1);
+        selection.add(root.get("id"));
+        for (SubjectSortOrder order : sort) {
+            if (order.getSortBy() != SubjectSortBy.ID) {
+                selection.add(getPropertyPath(order.getSortBy(), root));
+            }
+        }
+        return selection;
+    }
+
     private String getLastValue(SubjectSortBy property) {
         String result = switch (property) {
             case ID -> last.getId();
@@ -0,0 +1,131 @@
+package org.radarbase.management.security
+
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Tags
+import io.micrometer.core.instrument.Timer
+import org.springframework.security.crypto.password.PasswordEncoder
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Supplier
+
+/**
+ * Password encoder that encodes and checks passwords on a dedicated pool of [threads]. Password
+ * hashing is slow by design, so a burst of logins, token requests or enrollments would otherwise
+ * use all request threads for hashing and starve cheaper requests. The calling thread waits for
+ * the result. When [queueCapacity] operations are already waiting, new operations are rejected
+ * with a [PasswordHashingRejectedException], which results in a 503 Service Unavailable status.
+ *
+ * Passwords equal to [NON_LOGINABLE_PASSWORD] never match, without hashing anything.
+ *
+ * The time spent waiting for a hashing thread is recorded in the `password.hashing.queue`
+ * metric and the hashing time in `password.hashing.duration`, both tagged with the operation.
+ * Rejected operations are counted in `password.hashing.rejected`.
+ */
+class BoundedPasswordEncoder(
+    private val delegate: PasswordEncoder,
+    threads: Int,
+    queueCapacity: Int,
+    meterRegistry: MeterRegistry,
+) : PasswordEncoder, AutoCloseable {
+    private val executor = ThreadPoolExecutor(
+        threads,
+        threads,
+        0L,
+        TimeUnit.MILLISECONDS,
+        ArrayBlockingQueue(queueCapacity),
+        HashingThreadFactory(),
+    )
+
+    private val encodeQueueTimer = queueTimer(meterRegistry, "encode")
+    private val matchesQueueTimer = queueTimer(meterRegistry, "matches")
+    private val encodeTimer = durationTimer(meterRegistry, "encode")
+    private val matchesTimer = durationTimer(meterRegistry, "matches")
+    private val rejectedCounter: Counter = meterRegistry.counter("password.hashing.rejected")
+
+    init {
+        meterRegistry.gaugeCollectionSize(
+            "password.hashing.queued",
+            Tags.empty(),
+            executor.queue,
+        )
+    }
+
+    override fun encode(rawPassword: CharSequence): String =
+        execute(encodeQueueTimer, encodeTimer) { delegate.encode(rawPassword) }
+
+    override fun matches(rawPassword: CharSequence?, encodedPassword: String?): Boolean {
+        if (encodedPassword == NON_LOGINABLE_PASSWORD) {
+            return false
+        }
+        return execute(matchesQueueTimer, matchesTimer) {
+            delegate.matches(rawPassword, encodedPassword)
+        }
+    }
+
+    override fun upgradeEncoding(encodedPassword: String?): Boolean =
+        delegate.upgradeEncoding(encodedPassword)
+
+    private fun <T> execute(queueTimer: Timer, durationTimer: Timer, action: () -> T): T {
+        val submitTime = System.nanoTime()
+        val future = try {
+            executor.submit(
+                Callable {
+                    queueTimer.record(System.nanoTime() - submitTime, TimeUnit.NANOSECONDS)
+                    durationTimer.record(Supplier { action() })
+                },
+            )
+        } catch (ex: RejectedExecutionException) {
+            rejectedCounter.increment()
+            throw PasswordHashingRejectedException(
+                "Too many password operations in progress, try again later",
+                ex,
+            )
+        }
+        try {
+            return future.get()
+        } catch (ex: ExecutionException) {
+            throw ex.cause as? RuntimeException ?: IllegalStateException(ex.cause)
+        } catch (ex: InterruptedException) {
+            Thread.currentThread().interrupt()
+            future.cancel(true)
+            throw IllegalStateException("Interrupted while waiting for password hashing", ex)
+        }
+    }
+
+    /** Stop the hashing threads. */
+    override fun close() {
+        executor.shutdownNow()
+    }
+
+    private class HashingThreadFactory : ThreadFactory {
+        private val count = AtomicInteger()
+
+        override fun newThread(runnable: Runnable) = Thread(
+            runnable,
+            "password-hashing-${count.incrementAndGet()}",
+        ).apply { isDaemon = true }
+    }
+
+    companion object {
+        /**
+         * Stored password of users that cannot log in with a password until they set one, for
+         * example newly created subjects. It has the length of a BCrypt hash but can never be
+         * produced by one, so no password matches it.
+         */
+        @JvmField
+        val NON_LOGINABLE_PASSWORD = "!".repeat(60)
+
+        private fun queueTimer(meterRegistry: MeterRegistry, operation: String): Timer =
+            meterRegistry.timer("password.hashing.queue", "operation", operation)
+
+        private fun durationTimer(meterRegistry: MeterRegistry, operation: String): Timer =
+            meterRegistry.timer("password.hashing.duration", "operation", operation)
+    }
+}
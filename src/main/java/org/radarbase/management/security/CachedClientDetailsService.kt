@@ -0,0 +1,62 @@
+package org.radarbase.management.security
+
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.MeterRegistry
+import org.radarbase.management.service.runAfterCommit
+import org.slf4j.LoggerFactory
+import org.springframework.security.oauth2.provider.ClientDetails
+import org.springframework.security.oauth2.provider.ClientDetailsService
+import java.util.concurrent.ConcurrentMap
+
+/**
+ * Cache of the OAuth client details of each client ID, in front of the database client details
+ * service. Client details are read on each token request and each client authentication, so
+ * this prevents several database queries per request. The [clients] map is normally a Hazelcast
+ * map, so that an eviction on one member is seen by the entire cluster. Entries are evicted
+ * when a client is created, updated or deleted. Unknown clients are not cached.
+ *
+ * Lookups are counted in the `cache.gets` metric, tagged with the cache name and
+ * whether the lookup was a hit or a miss.
+ */
+open class CachedClientDetailsService(
+    private val delegate: ClientDetailsService,
+    private val clients: ConcurrentMap<String, ClientDetails>,
+    meterRegistry: MeterRegistry,
+) : ClientDetailsService {
+    private val hitCounter: Counter = meterRegistry.counter(
+        "cache.gets", "cache", CLIENT_DETAILS_MAP, "result", "hit",
+    )
+    private val missCounter: Counter = meterRegistry.counter(
+        "cache.gets", "cache", CLIENT_DETAILS_MAP, "result", "miss",
+    )
+
+    override fun loadClientByClientId(clientId: String): ClientDetails {
+        clients[clientId]?.let {
+            hitCounter.increment()
+            return it
+        }
+        missCounter.increment()
+        return delegate.loadClientByClientId(clientId)
+            .also { clients[clientId] = it }
+    }
+
+    /**
+     * Remove the cached details of given client IDs. If a transaction is active, they are
+     * removed after it commits.
+     */
+    open fun evict(vararg clientIds: String?) = runAfterCommit {
+        clientIds.forEach { clientId ->
+            if (clientId != null) {
+                logger.debug("Evicting cached details of OAuth client {}", clientId)
+                clients.remove(clientId)
+            }
+        }
+    }
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(CachedClientDetailsService::class.java)
+
+        /** Name of the Hazelcast map with the details of each OAuth client. */
+        const val CLIENT_DETAILS_MAP = "oauthClientDetails"
+    }
+}
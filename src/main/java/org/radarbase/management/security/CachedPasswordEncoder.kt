@@ -0,0 +1,87 @@
+package org.radarbase.management.security
+
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.security.crypto.password.PasswordEncoder
+import java.nio.charset.StandardCharsets.UTF_8
+import java.security.MessageDigest
+import java.time.Duration
+import java.util.Base64
+
+/**
+ * Password encoder that remembers successful password checks for a short [timeToLive], so that
+ * a client that requests many tokens does not need a BCrypt check for each request. This is
+ * meant for OAuth client secrets, which are checked on every token request.
+ *
+ * Only successful checks are remembered, and only in the memory of this member. They are
+ * stored by a SHA-256 digest of the encoded secret and the raw secret, so the raw secret is not
+ * kept. Since the encoded secret of a client changes when its secret is changed, earlier checks
+ * no longer match after a change. At most [maxSize] checks are remembered; when more checks
+ * succeed, the least recently used check is forgotten.
+ *
+ * Checks are counted in the `cache.gets` metric, tagged with the cache name and
+ * whether the check was a hit or a miss.
+ */
+class CachedPasswordEncoder(
+    private val delegate: PasswordEncoder,
+    timeToLive: Duration,
+    private val maxSize: Int,
+    meterRegistry: MeterRegistry,
+) : PasswordEncoder {
+    private val timeToLiveNanos = timeToLive.toNanos()
+    private val matchExpiries = object : LinkedHashMap<String, Long>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Long>): Boolean =
+            size > maxSize
+    }
+
+    private val hitCounter: Counter = meterRegistry.counter(
+        "cache.gets", "cache", CLIENT_SECRET_CACHE, "result", "hit",
+    )
+    private val missCounter: Counter = meterRegistry.counter(
+        "cache.gets", "cache", CLIENT_SECRET_CACHE, "result", "miss",
+    )
+
+    override fun encode(rawPassword: CharSequence): String = delegate.encode(rawPassword)
+
+    override fun matches(rawPassword: CharSequence?, encodedPassword: String?): Boolean {
+        if (rawPassword == null || encodedPassword.isNullOrEmpty() || maxSize <= 0) {
+            return delegate.matches(rawPassword, encodedPassword)
+        }
+        val key = digest(rawPassword, encodedPassword)
+        val now = System.nanoTime()
+        if (isRemembered(key, now)) {
+            hitCounter.increment()
+            return true
+        }
+        missCounter.increment()
+        return delegate.matches(rawPassword, encodedPassword)
+            .also { isMatch -> if (isMatch) remember(key, now + timeToLiveNanos) }
+    }
+
+    override fun upgradeEncoding(encodedPassword: String?): Boolean =
+        delegate.upgradeEncoding(encodedPassword)
+
+    private fun isRemembered(key: String, now: Long): Boolean = synchronized(matchExpiries) {
+        val expiry = matchExpiries[key] ?: return false
+        if (expiry - now > 0) return true
+        matchExpiries.remove(key)
+        false
+    }
+
+    private fun remember(key: String, expiry: Long) = synchronized(matchExpiries) {
+        matchExpiries[key] = expiry
+    }
+
+    companion object {
+        /** Name of the client secret check cache in the `cache.gets` metric. */
+        const val CLIENT_SECRET_CACHE = "oauthClientSecrets"
+
+        private fun digest(rawPassword: CharSequence, encodedPassword: String): String {
+            val digest = MessageDigest.getInstance("SHA-256")
+            digest.update(encodedPassword.toByteArray(UTF_8))
+            digest.update(0)
+            digest.update(rawPassword.toString().toByteArray(UTF_8))
+            return Base64.getEncoder().encodeToString(digest.digest())
+        }
+    }
+}
@@ -1,12 +1,9 @@
 package org.radarbase.management.security;
 
+import org.radarbase.auth.authorization.AuthorityReference;
 import org.radarbase.auth.authorization.AuthorizationOracle;
 import org.radarbase.auth.authorization.Permission;
 import org.radarbase.auth.authorization.RoleAuthority;
-import org.radarbase.management.domain.Role;
-import org.radarbase.management.domain.Source;
-import org.radarbase.management.repository.SubjectRepository;
-import org.radarbase.management.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
@@ -39,10 +36,10 @@ public class ClaimsTokenEnhancer implements TokenEnhancer, InitializingBean {
     private static final Logger logger = LoggerFactory.getLogger(ClaimsTokenEnhancer.class);
 
     @Autowired
-    private SubjectRepository subjectRepository;
+    private SubjectSourceCache subjectSourceCache;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserAuthorityCache userAuthorityCache;
 
     @Autowired
     private AuditEventRepository auditEventRepository;
@@ -69,46 +66,32 @@ public class ClaimsTokenEnhancer implements TokenEnhancer, InitializingBean {
             // add the 'sub' claim in accordance with JWT spec
             additionalInfo.put("sub", userName);
 
-            userRepository.findOneByLogin(userName)
-                    .ifPresent(user -> {
-                        var roles = user.getRoles().stream()
-                                .map(role -> {
-                                    var auth = role.getAuthority().getName();
-                                    return switch (role.getRole().getScope()) {
-                                        case GLOBAL -> auth;
-                                        case ORGANIZATION -> role.getOrganization().getName()
-                                                + ":" + auth;
-                                        case PROJECT -> role.getProject().getProjectName()
-                                                + ":" + auth;
-                                    };
-                                })
-                                .toList();
-                        additionalInfo.put(ROLES_CLAIM, roles);
-
-                        // Do not grant scopes that cannot be given to a user.
-                        Set<String> currentScopes = accessToken.getScope();
-                        Set<String> newScopes = currentScopes.stream()
-                                .filter(scope -> {
-                                    Permission permission = Permission.ofScope(scope);
-                                    var roleAuthorities = user.getRoles().stream()
-                                            .map(Role::getRole)
-                                            .collect(Collectors.toCollection(() ->
-                                                    EnumSet.noneOf(RoleAuthority.class)));
-                                    return authorizationOracle.mayBeGranted(roleAuthorities,
-                                            permission);
-                                })
-                                .collect(Collectors.toCollection(TreeSet::new));
-
-                        if (!newScopes.equals(currentScopes)) {
-                            ((DefaultOAuth2AccessToken) accessToken).setScope(newScopes);
-                        }
-                    });
-
-            List<Source> assignedSources = subjectRepository.findSourcesBySubjectLogin(userName);
-
-            List<String> sourceIds = assignedSources.stream()
-                    .map(s -> s.getSourceId().toString())
-                    .toList();
+            // roles and sources are cached per user, so that frequent refresh token grants do
+            // not query the roles and sources of the user each time
+            Set<AuthorityReference> authorities = userAuthorityCache.findAuthorities(userName);
+            if (authorities != null) {
+                List<String> roles = authorities.stream()
+                        .map(ClaimsTokenEnhancer::roleClaim)
+                        .toList();
+                additionalInfo.put(ROLES_CLAIM, roles);
+
+                // Do not grant scopes that cannot be given to a user.
+                Set<RoleAuthority> roleAuthorities = authorities.stream()
+                        .map(AuthorityReference::getRole)
+                        .collect(Collectors.toCollection(() ->
+                                EnumSet.noneOf(RoleAuthority.class)));
+                Set<String> currentScopes = accessToken.getScope();
+                Set<String> newScopes = currentScopes.stream()
+                        .filter(scope -> authorizationOracle.mayBeGranted(
+                                roleAuthorities, Permission.ofScope(scope)))
+                        .collect(Collectors.toCollection(TreeSet::new));
+
+                if (!newScopes.equals(currentScopes)) {
+                    ((DefaultOAuth2AccessToken) accessToken).setScope(newScopes);
+                }
+            }
+
+            List<String> sourceIds = subjectSourceCache.findSourceIds(userName);
             additionalInfo.put(SOURCES_CLAIM, sourceIds);
         }
         // add iat and iss optional JWT claims
@@ -131,6 +114,12 @@ public class ClaimsTokenEnhancer implements TokenEnhancer, InitializingBean {
         return accessToken;
     }
 
+    private static String roleClaim(AuthorityReference reference) {
+        return reference.getRole().getScope() == RoleAuthority.Scope.GLOBAL
+                ? reference.getAuthority()
+                : reference.getReferent() + ":" + reference.getAuthority();
+    }
+
     @Override
     public void afterPropertiesSet() throws Exception {
         // nothing to do for now
@@ -8,7 +8,6 @@ import org.radarbase.auth.token.RadarToken
 import org.radarbase.management.config.OAuth2ServerConfiguration
 import org.radarbase.management.domain.Role
 import org.radarbase.management.domain.User
-import org.radarbase.management.repository.UserRepository
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpHeaders
 import org.springframework.http.HttpMethod
@@ -35,13 +34,13 @@ import javax.servlet.http.HttpSession
  * Authentication filter using given validator.
  * @param validator validates the JWT token.
  * @param authenticationManager authentication manager to pass valid authentication to.
- * @param userRepository user repository to retrieve user details from.
+ * @param userAuthorityCache cache of user authorities to update the token roles with.
  * @param isOptional do not fail if no authentication is provided
  */
 class JwtAuthenticationFilter @JvmOverloads constructor(
     private val validator: TokenValidator,
     private val authenticationManager: AuthenticationManager,
-    private val userRepository: UserRepository,
+    private val userAuthorityCache: UserAuthorityCache,
     private val isOptional: Boolean = false
 ) : OncePerRequestFilter() {
     private val ignoreUrls: MutableList<AntPathRequestMatcher> = mutableListOf()
@@ -151,9 +150,9 @@ class JwtAuthenticationFilter @JvmOverloads constructor(
         session: HttpSession?,
     ): RadarToken? {
         val userName = token.username ?: return token
-        val user = userRepository.findOneByLogin(userName)
-        return if (user.isPresent) {
-            token.copyWithRoles(user.get().authorityReferences)
+        val authorities = userAuthorityCache.findAuthorities(userName)
+        return if (authorities != null) {
+            token.copyWithRoles(authorities)
         } else {
             session?.removeAttribute(TOKEN_ATTRIBUTE)
             httpResponse.returnUnauthorized(httpRequest, "User not found")
@@ -0,0 +1,21 @@
+package org.radarbase.management.security;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * This exception is thrown when a password cannot be hashed or checked because too many password
+ * operations are already waiting. It is an authentication exception so that a login is aborted
+ * instead of failing with a server error, and it results in a 503 Service Unavailable response.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE,
+        reason = "Too many password operations in progress, try again later")
+public class PasswordHashingRejectedException extends InternalAuthenticationServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message, Throwable t) {
+        super(message, t);
+    }
+}
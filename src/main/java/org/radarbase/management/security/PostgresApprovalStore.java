@@ -18,17 +18,25 @@ package org.radarbase.management.security;
 
 import static org.springframework.security.oauth2.provider.approval.Approval.ApprovalStatus.APPROVED;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import javax.sql.DataSource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.security.oauth2.provider.approval.Approval;
@@ -37,8 +45,10 @@ import org.springframework.security.oauth2.provider.approval.ApprovalStore;
 import org.springframework.util.Assert;
 
 /**
- * This class will be used to execute functions related to token approval. It is an duplicate of
- * JdbcApprovalStore with escaped case sensitive fields to query.
+ * This class will be used to execute functions related to token approval. It is based on
+ * JdbcApprovalStore, with escaped case sensitive fields to query. Approvals are added with a
+ * single batch of PostgreSQL upserts and revoked with a single batch of updates or deletes.
+ * Optionally, the approvals of a user and client are cached for a limited time.
  *
  * @author Dave Syer
  * @author Modified by Nivethika
@@ -61,29 +71,29 @@ public class PostgresApprovalStore implements ApprovalStore {
 
     private static final String WHERE_KEY_AND_SCOPE = WHERE_KEY + " and \"scope\"=?";
 
-    private static final String AND_LESS_THAN_EXPIRE_AT =  " and \"expiresAt\" <= ?";
-
-    private static final String DEFAULT_ADD_APPROVAL_STATEMENT =
-            String.format("insert into %s ( %s ) values (?,?,?,?,?,?)", TABLE_NAME, FIELDS);
-
-    private static final String DEFAULT_REFRESH_APPROVAL_STATEMENT = String.format(
-            "update %s set \"expiresAt\"=?, \"status\"=?, \"lastModifiedAt\"=? "
-                + WHERE_KEY_AND_SCOPE, TABLE_NAME);
+    private static final String DEFAULT_ADD_APPROVAL_STATEMENT = String.format(
+            "insert into %s ( %s ) values (?,?,?,?,?,?) "
+                + "on conflict (\"userId\", \"clientId\", \"scope\") do update set "
+                + "\"expiresAt\"=excluded.\"expiresAt\", \"status\"=excluded.\"status\", "
+                + "\"lastModifiedAt\"=excluded.\"lastModifiedAt\"", TABLE_NAME, FIELDS);
 
     private static final String DEFAULT_GET_APPROVAL_SQL =
             String.format("select %s from %s " + WHERE_KEY, FIELDS, TABLE_NAME);
 
     private static final String DEFAULT_DELETE_APPROVAL_SQL =
-            String.format("delete from %s " + WHERE_KEY_AND_SCOPE + AND_LESS_THAN_EXPIRE_AT,
-                TABLE_NAME);
+            String.format("delete from %s " + WHERE_KEY_AND_SCOPE, TABLE_NAME);
 
     private static final String DEFAULT_EXPIRE_APPROVAL_STATEMENT =
             String.format("update %s set " + "\"expiresAt\" = ? "
                 + WHERE_KEY_AND_SCOPE, TABLE_NAME);
 
-    private String addApprovalStatement = DEFAULT_ADD_APPROVAL_STATEMENT;
+    private static final String DEFAULT_PURGE_APPROVAL_STATEMENT = String.format(
+            "delete from %1$s where ctid in (select ctid from %1$s "
+                + "where \"expiresAt\" <= ? limit ?)", TABLE_NAME);
 
-    private String refreshApprovalStatement = DEFAULT_REFRESH_APPROVAL_STATEMENT;
+    private static final int DEFAULT_PURGE_CHUNK_SIZE = 1000;
+
+    private String addApprovalStatement = DEFAULT_ADD_APPROVAL_STATEMENT;
 
     private String findApprovalStatement = DEFAULT_GET_APPROVAL_SQL;
 
@@ -91,10 +101,16 @@ public class PostgresApprovalStore implements ApprovalStore {
 
     private String expireApprovalStatement = DEFAULT_EXPIRE_APPROVAL_STATEMENT;
 
+    private String purgeApprovalStatement = DEFAULT_PURGE_APPROVAL_STATEMENT;
+
+    private int purgeChunkSize = DEFAULT_PURGE_CHUNK_SIZE;
+
     private boolean handleRevocationsAsExpiry = false;
 
+    private ApprovalCache approvalCache;
+
     public PostgresApprovalStore(DataSource dataSource) {
-        Assert.notNull(dataSource);
+        Assert.notNull(dataSource, "DataSource required");
         this.jdbcTemplate = new JdbcTemplate(dataSource);
     }
 
@@ -118,68 +134,127 @@ public class PostgresApprovalStore implements ApprovalStore {
         this.expireApprovalStatement = expireApprovalStatement;
     }
 
-    public void setRefreshApprovalStatement(String refreshApprovalStatement) {
-        this.refreshApprovalStatement = refreshApprovalStatement;
+    public void setPurgeApprovalStatement(String purgeApprovalStatement) {
+        this.purgeApprovalStatement = purgeApprovalStatement;
+    }
+
+    /**
+     * Maximum number of expired approvals deleted by a single statement when purging.
+     * @param purgeChunkSize positive number of approvals.
+     */
+    public void setPurgeChunkSize(int purgeChunkSize) {
+        Assert.isTrue(purgeChunkSize > 0, "Purge chunk size must be positive");
+        this.purgeChunkSize = purgeChunkSize;
+    }
+
+    /**
+     * Cache the approvals of each user and client. Changes made through this store evict the
+     * cached approvals, but changes made by other instances are only seen after the cached
+     * approvals expire.
+     * @param maxSize maximum number of user and client combinations to cache, or 0 to disable
+     *                caching.
+     * @param timeToLive duration that approvals remain cached.
+     */
+    public void setApprovalCache(int maxSize, Duration timeToLive) {
+        this.approvalCache = maxSize > 0 ? new ApprovalCache(maxSize, timeToLive) : null;
     }
 
     @Override
     public boolean addApprovals(final Collection<Approval> approvals) {
-        logger.debug(String.format("adding approvals: [%s]", approvals));
-        boolean success = true;
-        for (Approval approval : approvals) {
-            if (!updateApproval(refreshApprovalStatement, approval) && !updateApproval(
-                    addApprovalStatement, approval)) {
-                success = false;
-            }
+        logger.debug("adding approvals: [{}]", approvals);
+        if (approvals.isEmpty()) {
+            return true;
+        }
+        List<Approval> approvalList = new ArrayList<>(approvals);
+        try {
+            int[] updated = jdbcTemplate.batchUpdate(addApprovalStatement,
+                    new ApprovalBatchSetter(approvalList) {
+                        @Override
+                        protected void setValues(PreparedStatement ps, Approval approval)
+                                throws SQLException {
+                            ps.setTimestamp(1, new Timestamp(approval.getExpiresAt().getTime()));
+                            ps.setString(2, (approval.getStatus() == null ? APPROVED
+                                    : approval.getStatus()).toString());
+                            ps.setTimestamp(3,
+                                    new Timestamp(approval.getLastUpdatedAt().getTime()));
+                            ps.setString(4, approval.getUserId());
+                            ps.setString(5, approval.getClientId());
+                            ps.setString(6, approval.getScope());
+                        }
+                    });
+            return allUpdated(updated);
+        } finally {
+            evict(approvalList);
         }
-        return success;
     }
 
     @Override
     public boolean revokeApprovals(Collection<Approval> approvals) {
-        logger.debug(String.format("Revoking approvals: [%s]", approvals));
-        boolean success = true;
-        for (final Approval approval : approvals) {
+        logger.debug("Revoking approvals: [{}]", approvals);
+        if (approvals.isEmpty()) {
+            return true;
+        }
+        List<Approval> approvalList = new ArrayList<>(approvals);
+        try {
+            int[] updated;
             if (handleRevocationsAsExpiry) {
-                int refreshed = jdbcTemplate
-                        .update(expireApprovalStatement, (ps) -> {
-                            ps.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
-                            ps.setString(2, approval.getUserId());
-                            ps.setString(3, approval.getClientId());
-                            ps.setString(4, approval.getScope());
+                Timestamp now = new Timestamp(System.currentTimeMillis());
+                updated = jdbcTemplate.batchUpdate(expireApprovalStatement,
+                        new ApprovalBatchSetter(approvalList) {
+                            @Override
+                            protected void setValues(PreparedStatement ps, Approval approval)
+                                    throws SQLException {
+                                ps.setTimestamp(1, now);
+                                ps.setString(2, approval.getUserId());
+                                ps.setString(3, approval.getClientId());
+                                ps.setString(4, approval.getScope());
+                            }
                         });
-                if (refreshed != 1) {
-                    success = false;
-                }
             } else {
-                int refreshed = jdbcTemplate
-                        .update(deleteApprovalStatment, (ps) -> {
-                            ps.setString(1, approval.getUserId());
-                            ps.setString(2, approval.getClientId());
-                            ps.setString(3, approval.getScope());
+                updated = jdbcTemplate.batchUpdate(deleteApprovalStatment,
+                        new ApprovalBatchSetter(approvalList) {
+                            @Override
+                            protected void setValues(PreparedStatement ps, Approval approval)
+                                    throws SQLException {
+                                ps.setString(1, approval.getUserId());
+                                ps.setString(2, approval.getClientId());
+                                ps.setString(3, approval.getScope());
+                            }
                         });
-                if (refreshed != 1) {
-                    success = false;
-                }
             }
+            return allUpdated(updated);
+        } finally {
+            evict(approvalList);
         }
-        return success;
     }
 
     /**
-     * Purges expired approvals from database.
+     * Purges expired approvals from database. Approvals are deleted in chunks of at most
+     * {@link #setPurgeChunkSize(int)} approvals, so that a large number of expired approvals
+     * does not lock the table for a long time.
      * @return {@code true} if removed successfully, {@code false} otherwise.
      */
     public boolean purgeExpiredApprovals() {
         logger.debug("Purging expired approvals from database");
+        Timestamp now = new Timestamp(new Date().getTime());
+        int total = 0;
         try {
-            int deleted = jdbcTemplate.update(deleteApprovalStatment, (ps) -> {
-                ps.setTimestamp(1, new Timestamp(new Date().getTime()));
-            });
-            logger.debug(deleted + " expired approvals deleted");
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(purgeApprovalStatement, (ps) -> {
+                    ps.setTimestamp(1, now);
+                    ps.setInt(2, purgeChunkSize);
+                });
+                total += deleted;
+            } while (deleted >= purgeChunkSize);
+            logger.debug("{} expired approvals deleted", total);
         } catch (DataAccessException ex) {
             logger.error("Error purging expired approvals", ex);
             return false;
+        } finally {
+            if (total > 0 && approvalCache != null) {
+                approvalCache.clear();
+            }
         }
         return true;
     }
@@ -187,21 +262,113 @@ public class PostgresApprovalStore implements ApprovalStore {
     @Override
     public List<Approval> getApprovals(String userName, String clientId) {
         logger.debug("Finding approvals for userName {} and cliendId {}", userName, clientId);
-        return jdbcTemplate.query(findApprovalStatement, rowMapper, userName, clientId);
-    }
-
-    private boolean updateApproval(final String sql, final Approval approval) {
-        logger.debug(String.format("refreshing approval: [%s]", approval));
-        int refreshed = jdbcTemplate.update(sql, (ps) -> {
-            ps.setTimestamp(1, new Timestamp(approval.getExpiresAt().getTime()));
-            ps.setString(2, (approval.getStatus() == null ? APPROVED
-                    : approval.getStatus()).toString());
-            ps.setTimestamp(3, new Timestamp(approval.getLastUpdatedAt().getTime()));
-            ps.setString(4, approval.getUserId());
-            ps.setString(5, approval.getClientId());
-            ps.setString(6, approval.getScope());
-        });
-        return refreshed == 1;
+        if (approvalCache == null) {
+            return jdbcTemplate.query(findApprovalStatement, rowMapper, userName, clientId);
+        }
+        List<Approval> approvals = approvalCache.get(userName, clientId);
+        if (approvals == null) {
+            approvals = jdbcTemplate.query(findApprovalStatement, rowMapper, userName, clientId);
+            approvalCache.put(userName, clientId, approvals);
+        }
+        return new ArrayList<>(approvals);
+    }
+
+    private void evict(List<Approval> approvals) {
+        if (approvalCache != null) {
+            approvals.forEach(a -> approvalCache.remove(a.getUserId(), a.getClientId()));
+        }
+    }
+
+    private static boolean allUpdated(int[] updated) {
+        for (int count : updated) {
+            if (count != 1 && count != Statement.SUCCESS_NO_INFO) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Sets the statement parameters of each approval in a batch. */
+    private abstract static class ApprovalBatchSetter implements BatchPreparedStatementSetter {
+        private final List<Approval> approvals;
+
+        ApprovalBatchSetter(List<Approval> approvals) {
+            this.approvals = approvals;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            setValues(ps, approvals.get(i));
+        }
+
+        @Override
+        public int getBatchSize() {
+            return approvals.size();
+        }
+
+        protected abstract void setValues(PreparedStatement ps, Approval approval)
+                throws SQLException;
+    }
+
+    /**
+     * Size-bounded cache of the approvals of a user and client. If the cache is full, the least
+     * recently used entry is evicted.
+     */
+    private static class ApprovalCache {
+        private final Duration timeToLive;
+
+        private final Map<String, CachedApprovals> cache;
+
+        ApprovalCache(int maxSize, Duration timeToLive) {
+            this.timeToLive = timeToLive;
+            this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedApprovals> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        synchronized List<Approval> get(String userId, String clientId) {
+            String key = key(userId, clientId);
+            CachedApprovals cached = cache.get(key);
+            if (cached == null) {
+                return null;
+            }
+            if (Instant.now().isAfter(cached.expiresAt)) {
+                cache.remove(key);
+                return null;
+            }
+            return cached.approvals;
+        }
+
+        synchronized void put(String userId, String clientId, List<Approval> approvals) {
+            cache.put(key(userId, clientId),
+                    new CachedApprovals(approvals, Instant.now().plus(timeToLive)));
+        }
+
+        synchronized void remove(String userId, String clientId) {
+            cache.remove(key(userId, clientId));
+        }
+
+        synchronized void clear() {
+            cache.clear();
+        }
+
+        private static String key(String userId, String clientId) {
+            return userId + '\n' + clientId;
+        }
+    }
+
+    private static class CachedApprovals {
+        private final List<Approval> approvals;
+
+        private final Instant expiresAt;
+
+        CachedApprovals(List<Approval> approvals, Instant expiresAt) {
+            this.approvals = approvals;
+            this.expiresAt = expiresAt;
+        }
     }
 
     private static class AuthorizationRowMapper implements RowMapper<Approval> {
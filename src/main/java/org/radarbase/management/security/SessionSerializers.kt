@@ -0,0 +1,245 @@
+package org.radarbase.management.security
+
+import com.auth0.jwt.JWT
+import com.hazelcast.config.SerializationConfig
+import com.hazelcast.config.SerializerConfig
+import com.hazelcast.nio.ObjectDataInput
+import com.hazelcast.nio.ObjectDataOutput
+import com.hazelcast.nio.serialization.HazelcastSerializationException
+import com.hazelcast.nio.serialization.StreamSerializer
+import com.hazelcast.nio.serialization.compact.CompactReader
+import com.hazelcast.nio.serialization.compact.CompactSerializer
+import com.hazelcast.nio.serialization.compact.CompactWriter
+import org.radarbase.auth.authorization.AuthorityReference
+import org.radarbase.auth.token.DataRadarToken
+import org.radarbase.auth.token.JwtRadarToken
+import org.radarbase.auth.token.RadarToken
+import org.springframework.security.core.Authentication
+import org.springframework.security.core.context.SecurityContext
+import org.springframework.security.core.context.SecurityContextImpl
+import org.springframework.session.MapSession
+import org.springframework.session.hazelcast.HazelcastSessionSerializer
+import java.time.Instant
+
+/**
+ * Hazelcast serializers for HTTP sessions and the RADAR tokens and authentication stored in
+ * them. Without these, a session is stored with Java serialization, including all class
+ * descriptors of the token, its roles and its collections, on each session write.
+ *
+ * Sessions are written with a [HazelcastSessionSerializer], which writes each attribute with
+ * Hazelcast serialization. RADAR tokens, authority references and [RadarAuthentication] are
+ * then written with compact serializers, and the security context with a stream serializer
+ * that writes its authentication with Hazelcast serialization. Other attributes still use
+ * Java serialization. A JWT is written only once per session, see [SessionSerializer].
+ */
+object SessionSerializers {
+    /**
+     * Type ID of the session serializer. Spring Session uses type ID 1453 for sessions without
+     * a JWT table.
+     */
+    const val SESSION_TYPE_ID = 1455
+
+    /** Type ID of the stream serializer of security contexts. */
+    const val SECURITY_CONTEXT_TYPE_ID = 1454
+
+    /** JWTs of the session that is being serialized on the current thread. */
+    private val sessionJwts = ThreadLocal<List<String>>()
+
+    /** Register the session serializers with given Hazelcast serialization config. */
+    @JvmStatic
+    fun register(config: SerializationConfig) {
+        config.addSerializerConfig(
+            SerializerConfig()
+                .setImplementation(SessionSerializer())
+                .setTypeClass(MapSession::class.java),
+        )
+        config.addSerializerConfig(
+            SerializerConfig()
+                .setImplementation(SecurityContextSerializer())
+                .setTypeClass(SecurityContextImpl::class.java),
+        )
+        config.compactSerializationConfig
+            .addSerializer(AuthorityReferenceSerializer())
+            .addSerializer(DataRadarTokenSerializer())
+            .addSerializer(JwtRadarTokenSerializer())
+            .addSerializer(RadarAuthenticationSerializer())
+    }
+
+    class AuthorityReferenceSerializer : CompactSerializer<AuthorityReference> {
+        override fun read(reader: CompactReader) = AuthorityReference(
+            reader.readString("authority")!!,
+            reader.readString("referent"),
+        )
+
+        override fun write(writer: CompactWriter, value: AuthorityReference) {
+            writer.writeString("authority", value.authority)
+            writer.writeString("referent", value.referent)
+        }
+
+        override fun getTypeName() = "AuthorityReference"
+
+        override fun getCompactClass() = AuthorityReference::class.java
+    }
+
+    class DataRadarTokenSerializer : CompactSerializer<DataRadarToken> {
+        override fun read(reader: CompactReader) = DataRadarToken(
+            roles = reader.readRoles() ?: emptySet(),
+            scopes = reader.readArrayOfString("scopes")!!.filterNotNullTo(HashSet()),
+            sources = reader.readArrayOfString("sources")!!.filterNotNull(),
+            grantType = reader.readString("grantType"),
+            subject = reader.readString("subject"),
+            username = reader.readString("username"),
+            issuedAt = reader.readNullableInt64("issuedAt")?.let { Instant.ofEpochMilli(it) },
+            expiresAt = Instant.ofEpochMilli(reader.readInt64("expiresAt")),
+            audience = reader.readArrayOfString("audience")!!.filterNotNull(),
+            token = reader.readString("token"),
+            issuer = reader.readString("issuer"),
+            type = reader.readString("type"),
+            clientId = reader.readString("clientId"),
+        )
+
+        override fun write(writer: CompactWriter, value: DataRadarToken) {
+            writer.writeRoles(value.roles)
+            writer.writeArrayOfString("scopes", value.scopes.toTypedArray())
+            writer.writeArrayOfString("sources", value.sources.toTypedArray())
+            writer.writeString("grantType", value.grantType)
+            writer.writeString("subject", value.subject)
+            writer.writeString("username", value.username)
+            writer.writeNullableInt64("issuedAt", value.issuedAt?.toEpochMilli())
+            writer.writeInt64("expiresAt", value.expiresAt.toEpochMilli())
+            writer.writeArrayOfString("audience", value.audience.toTypedArray())
+            writer.writeString("token", value.token)
+            writer.writeString("issuer", value.issuer)
+            writer.writeString("type", value.type)
+            writer.writeString("clientId", value.clientId)
+        }
+
+        override fun getTypeName() = "DataRadarToken"
+
+        override fun getCompactClass() = DataRadarToken::class.java
+    }
+
+    /**
+     * Writes the JWT string and roles of a token. The other claims are decoded from the JWT
+     * again when they are used. Within a session, the JWT refers to the JWTs written by the
+     * [SessionSerializer].
+     */
+    class JwtRadarTokenSerializer : CompactSerializer<JwtRadarToken> {
+        override fun read(reader: CompactReader): JwtRadarToken {
+            val index = reader.readInt32("tokenIndex")
+            val jwt = if (index == -1) {
+                reader.readString("token")
+            } else {
+                sessionJwts.get()?.getOrNull(index)
+            } ?: throw HazelcastSerializationException("Missing JWT of token")
+            val token = JwtRadarToken(JWT.decode(jwt))
+            val roles = reader.readRoles() ?: return token
+            return token.copyWithRoles(roles)
+        }
+
+        override fun write(writer: CompactWriter, value: JwtRadarToken) {
+            val index = sessionJwts.get()?.indexOf(value.token) ?: -1
+            writer.writeString("token", if (index == -1) value.token else null)
+            writer.writeInt32("tokenIndex", index)
+            writer.writeRoles(value.roles)
+        }
+
+        override fun getTypeName() = "JwtRadarToken"
+
+        override fun getCompactClass() = JwtRadarToken::class.java
+    }
+
+    class RadarAuthenticationSerializer : CompactSerializer<RadarAuthentication> {
+        override fun read(reader: CompactReader) =
+            RadarAuthentication(reader.readCompact<RadarToken>("token")!!).apply {
+                isAuthenticated = reader.readBoolean("authenticated")
+            }
+
+        override fun write(writer: CompactWriter, value: RadarAuthentication) {
+            writer.writeCompact("token", value.credentials)
+            writer.writeBoolean("authenticated", value.isAuthenticated)
+        }
+
+        override fun getTypeName() = "RadarAuthentication"
+
+        override fun getCompactClass() = RadarAuthentication::class.java
+    }
+
+    /**
+     * Session serializer that writes each JWT only once per session. The session token is
+     * usually also the token of the authentication in the security context, but the attributes
+     * of a session are serialized separately. The distinct JWTs of the session are written
+     * before the session, and its tokens refer to them by index.
+     */
+    class SessionSerializer : HazelcastSessionSerializer() {
+        override fun write(out: ObjectDataOutput, session: MapSession) {
+            val jwts = session.attributeNames
+                .mapNotNullTo(LinkedHashSet()) { session.getAttribute<Any>(it).jwt }
+                .toList()
+            out.writeInt(jwts.size)
+            jwts.forEach { out.writeString(it) }
+            withSessionJwts(jwts) { super.write(out, session) }
+        }
+
+        override fun read(input: ObjectDataInput): MapSession {
+            val jwts = List(input.readInt()) { input.readString()!! }
+            return withSessionJwts(jwts) { super.read(input) }
+        }
+
+        override fun getTypeId() = SESSION_TYPE_ID
+
+        private inline fun <T> withSessionJwts(jwts: List<String>, action: () -> T): T {
+            val previous = sessionJwts.get()
+            sessionJwts.set(jwts)
+            try {
+                return action()
+            } finally {
+                if (previous != null) {
+                    sessionJwts.set(previous)
+                } else {
+                    sessionJwts.remove()
+                }
+            }
+        }
+
+        private val Any?.jwt: String?
+            get() = when (this) {
+                is JwtRadarToken -> token
+                is SecurityContext -> ((authentication as? RadarAuthentication)
+                    ?.credentials as? JwtRadarToken)?.token
+                else -> null
+            }
+    }
+
+    /**
+     * Writes the authentication of a security context with Hazelcast serialization, so that a
+     * [RadarAuthentication] uses its compact serializer.
+     */
+    class SecurityContextSerializer : StreamSerializer<SecurityContextImpl> {
+        override fun write(out: ObjectDataOutput, context: SecurityContextImpl) {
+            out.writeObject(context.authentication)
+        }
+
+        override fun read(input: ObjectDataInput) =
+            SecurityContextImpl(input.readObject<Authentication>())
+
+        override fun getTypeId() = SECURITY_CONTEXT_TYPE_ID
+    }
+
+    /**
+     * Write roles as separate arrays of authorities and referents. This is smaller than an
+     * array of compact authority references, which each have their own header.
+     */
+    private fun CompactWriter.writeRoles(roles: Set<AuthorityReference>?) {
+        writeArrayOfString("roleAuthorities", roles?.map { it.authority }?.toTypedArray())
+        writeArrayOfString("roleReferents", roles?.map { it.referent }?.toTypedArray())
+    }
+
+    private fun CompactReader.readRoles(): Set<AuthorityReference>? {
+        val authorities = readArrayOfString("roleAuthorities") ?: return null
+        val referents = readArrayOfString("roleReferents") ?: return null
+        return authorities.indices.mapTo(HashSet()) { i ->
+            AuthorityReference(authorities[i]!!, referents[i])
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.radarbase.management.security
+
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.MeterRegistry
+import org.radarbase.management.repository.SubjectRepository
+import org.radarbase.management.service.runAfterCommit
+import org.slf4j.LoggerFactory
+import java.util.concurrent.ConcurrentMap
+
+/**
+ * Cache of the IDs of the sources assigned to the subject of each user login, which are added
+ * to each token granted to that user. The [sourceIds] map is normally a Hazelcast map with a
+ * short time-to-live, so that it is shared across the cluster. Entries are evicted when sources
+ * are assigned to or removed from a subject.
+ *
+ * Lookups are counted in the `cache.gets` metric, tagged with the cache name and
+ * whether the lookup was a hit or a miss.
+ */
+open class SubjectSourceCache(
+    private val subjectRepository: SubjectRepository,
+    private val sourceIds: ConcurrentMap<String, List<String>>,
+    meterRegistry: MeterRegistry,
+) {
+    private val hitCounter: Counter = meterRegistry.counter(
+        "cache.gets", "cache", SUBJECT_SOURCE_MAP, "result", "hit",
+    )
+    private val missCounter: Counter = meterRegistry.counter(
+        "cache.gets", "cache", SUBJECT_SOURCE_MAP, "result", "miss",
+    )
+
+    /**
+     * Get the IDs of the sources assigned to the subject with given user [login].
+     * @return source IDs, or an empty list if the user is not a subject.
+     */
+    open fun findSourceIds(login: String): List<String> {
+        sourceIds[login]?.let {
+            hitCounter.increment()
+            return it
+        }
+        missCounter.increment()
+        return subjectRepository.findSourceIdsBySubjectLogin(login)
+            .map { it.toString() }
+            .also { sourceIds[login] = it }
+    }
+
+    /**
+     * Remove the cached source IDs of given user logins. If a transaction is active, they are
+     * removed after it commits.
+     */
+    open fun evict(vararg logins: String?) = runAfterCommit {
+        logins.forEach { login ->
+            if (login != null) {
+                logger.debug("Evicting cached source IDs of subject {}", login)
+                sourceIds.remove(login)
+            }
+        }
+    }
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(SubjectSourceCache::class.java)
+
+        /** Name of the Hazelcast map with the source IDs of each subject login. */
+        const val SUBJECT_SOURCE_MAP = "subjectSources"
+    }
+}
@@ -0,0 +1,53 @@
+package org.radarbase.management.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.common.exceptions.OAuth2Exception;
+import org.springframework.security.oauth2.provider.error.DefaultWebResponseExceptionTranslator;
+
+/**
+ * Translates exceptions of the OAuth token endpoint and of its client authentication. A
+ * {@link PasswordHashingRejectedException} results in a 503 Service Unavailable response with a
+ * {@code temporarily_unavailable} error, so that clients retry the request later. Other
+ * exceptions are translated as usual.
+ */
+public class TokenEndpointExceptionTranslator extends DefaultWebResponseExceptionTranslator {
+    /** Number of seconds after which a rejected request may be retried. */
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @Override
+    public ResponseEntity<OAuth2Exception> translate(Exception e) throws Exception {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PasswordHashingRejectedException) {
+                HttpHeaders headers = new HttpHeaders();
+                headers.set(HttpHeaders.CACHE_CONTROL, "no-store");
+                headers.set(HttpHeaders.PRAGMA, "no-cache");
+                headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+                return new ResponseEntity<>(
+                        new TemporarilyUnavailableException(cause.getMessage()),
+                        headers, HttpStatus.SERVICE_UNAVAILABLE);
+            }
+        }
+        return super.translate(e);
+    }
+
+    /** OAuth error of a server that is temporarily unable to handle the request. */
+    private static class TemporarilyUnavailableException extends OAuth2Exception {
+        private static final long serialVersionUID = 1L;
+
+        TemporarilyUnavailableException(String msg) {
+            super(msg);
+        }
+
+        @Override
+        public String getOAuth2ErrorCode() {
+            return "temporarily_unavailable";
+        }
+
+        @Override
+        public int getHttpErrorCode() {
+            return HttpStatus.SERVICE_UNAVAILABLE.value();
+        }
+    }
+}
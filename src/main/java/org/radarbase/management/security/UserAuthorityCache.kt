@@ -0,0 +1,90 @@
+package org.radarbase.management.security
+
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.MeterRegistry
+import org.radarbase.auth.authorization.AuthorityReference
+import org.radarbase.auth.authorization.RoleAuthority
+import org.radarbase.management.repository.UserRepository
+import org.radarbase.management.repository.UserRepository.RoleReference
+import org.radarbase.management.service.runAfterCommit
+import org.slf4j.LoggerFactory
+import java.util.concurrent.ConcurrentMap
+
+/**
+ * Cache of the authority references of each user login. This prevents a database query on
+ * each authenticated request. The [authorities] map is normally a Hazelcast map with a short
+ * time-to-live, so that it is shared across the cluster. Entries are evicted when the roles
+ * of a user change.
+ *
+ * Lookups are counted in the `cache.gets` metric, tagged with the cache name and
+ * whether the lookup was a hit or a miss.
+ */
+open class UserAuthorityCache(
+    private val userRepository: UserRepository,
+    private val authorities: ConcurrentMap<String, Set<AuthorityReference>>,
+    meterRegistry: MeterRegistry,
+) {
+    private val hitCounter: Counter = meterRegistry.counter(
+        "cache.gets", "cache", USER_AUTHORITY_MAP, "result", "hit",
+    )
+    private val missCounter: Counter = meterRegistry.counter(
+        "cache.gets", "cache", USER_AUTHORITY_MAP, "result", "miss",
+    )
+
+    /**
+     * Get the authority references of the user with given [login].
+     * @return authority references or null if the user does not exist.
+     */
+    open fun findAuthorities(login: String): Set<AuthorityReference>? {
+        authorities[login]?.let {
+            hitCounter.increment()
+            return it
+        }
+        missCounter.increment()
+        val roles = userRepository.findRoleReferencesByLogin(login)
+        if (roles.isEmpty()) return null
+        return roles
+            .mapNotNullTo(HashSet()) { it.toAuthorityReference() }
+            .also { authorities[login] = it }
+    }
+
+    /**
+     * Remove the cached authorities of given user logins. If a transaction is active, they
+     * are removed after it commits.
+     */
+    open fun evict(vararg logins: String?) = runAfterCommit {
+        logins.forEach { login ->
+            if (login != null) {
+                logger.debug("Evicting cached authorities of user {}", login)
+                authorities.remove(login)
+            }
+        }
+    }
+
+    /**
+     * Remove the cached authorities of all users. If a transaction is active, they are removed
+     * after it commits.
+     */
+    open fun evictAll() = runAfterCommit {
+        logger.debug("Evicting cached authorities of all users")
+        authorities.clear()
+    }
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(UserAuthorityCache::class.java)
+
+        private fun RoleReference.toAuthorityReference(): AuthorityReference? {
+            val authorityName = authority ?: return null
+            val role = RoleAuthority.valueOfAuthority(authorityName)
+            val referent = when (role.scope) {
+                RoleAuthority.Scope.GLOBAL -> null
+                RoleAuthority.Scope.ORGANIZATION -> organizationName
+                RoleAuthority.Scope.PROJECT -> projectName
+            }
+            return AuthorityReference(role, authorityName, referent)
+        }
+
+        /** Name of the Hazelcast map with the authority references of each user login. */
+        const val USER_AUTHORITY_MAP = "userAuthorities"
+    }
+}
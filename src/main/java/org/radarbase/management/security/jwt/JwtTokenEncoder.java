@@ -0,0 +1,178 @@
+package org.radarbase.management.security.jwt;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.springframework.security.oauth2.provider.token.AccessTokenConverter.ATI;
+import static org.springframework.security.oauth2.provider.token.AccessTokenConverter.AUD;
+import static org.springframework.security.oauth2.provider.token.AccessTokenConverter.AUTHORITIES;
+import static org.springframework.security.oauth2.provider.token.AccessTokenConverter.CLIENT_ID;
+import static org.springframework.security.oauth2.provider.token.AccessTokenConverter.EXP;
+import static org.springframework.security.oauth2.provider.token.AccessTokenConverter.GRANT_TYPE;
+import static org.springframework.security.oauth2.provider.token.AccessTokenConverter.JTI;
+import static org.springframework.security.oauth2.provider.token.AccessTokenConverter.SCOPE;
+import static org.springframework.security.oauth2.provider.token.UserAuthenticationConverter.USERNAME;
+
+/**
+ * Encodes and signs OAuth2 tokens as JWTs. The header is serialized once per signing key and
+ * the claims are written straight to JSON from the token and its authentication, without
+ * building a claims map first. The claims are the same as
+ * {@link org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter}
+ * would produce with the grant type included, restricted to the claims used by RADAR-base.
+ * This class is thread-safe.
+ */
+public class JwtTokenEncoder {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
+    private final Algorithm algorithm;
+
+    private final byte[] encodedHeader;
+
+    /**
+     * Token encoder that signs tokens with given algorithm. If the algorithm has a signing key
+     * ID, it is added to the header.
+     *
+     * @param algorithm signing algorithm
+     */
+    public JwtTokenEncoder(Algorithm algorithm) {
+        this.algorithm = algorithm;
+        this.encodedHeader = BASE64.encode(writeJson(generator -> {
+            generator.writeStringField("alg", algorithm.getName());
+            generator.writeStringField("typ", "JWT");
+            String keyId = algorithm.getSigningKeyId();
+            if (keyId != null) {
+                generator.writeStringField("kid", keyId);
+            }
+        }));
+    }
+
+    /**
+     * Encode and sign a token.
+     *
+     * @param token token to encode
+     * @param authentication authentication that the token was granted to
+     * @return signed JWT
+     */
+    public String encode(OAuth2AccessToken token, OAuth2Authentication authentication) {
+        byte[] payload = BASE64.encode(writeJson(generator ->
+                writeClaims(generator, token, authentication)));
+        byte[] signature = BASE64.encode(algorithm.sign(encodedHeader, payload));
+
+        byte[] jwt = new byte[encodedHeader.length + payload.length + signature.length + 2];
+        System.arraycopy(encodedHeader, 0, jwt, 0, encodedHeader.length);
+        int offset = encodedHeader.length;
+        jwt[offset++] = '.';
+        System.arraycopy(payload, 0, jwt, offset, payload.length);
+        offset += payload.length;
+        jwt[offset++] = '.';
+        System.arraycopy(signature, 0, jwt, offset, signature.length);
+        return new String(jwt, US_ASCII);
+    }
+
+    /**
+     * Write the claims of a token. As in DefaultAccessTokenConverter, additional information
+     * of the token takes precedence over the token attributes, except for the client ID and
+     * the resource IDs of the request.
+     */
+    private static void writeClaims(JsonGenerator generator, OAuth2AccessToken token,
+            OAuth2Authentication authentication) throws IOException {
+        Map<String, Object> info = token.getAdditionalInformation();
+        OAuth2Request request = authentication.getOAuth2Request();
+
+        Collection<String> resourceIds = request.getResourceIds();
+        writeArray(generator, AUD, resourceIds != null && !resourceIds.isEmpty()
+                ? resourceIds : info.get(AUD));
+        writeArray(generator, "sources", info.get("sources"));
+        writeArray(generator, "roles", info.get("roles"));
+        writeArray(generator, AUTHORITIES, info.containsKey(AUTHORITIES)
+                ? info.get(AUTHORITIES) : authorities(authentication));
+        writeArray(generator, SCOPE, info.containsKey(SCOPE)
+                ? info.get(SCOPE) : token.getScope());
+
+        writeString(generator, "sub", info.get("sub"));
+        writeString(generator, "iss", info.get("iss"));
+        Authentication user = authentication.getUserAuthentication();
+        writeString(generator, USERNAME, info.containsKey(USERNAME) || user == null
+                ? info.get(USERNAME) : user.getName());
+        writeString(generator, CLIENT_ID, request.getClientId());
+        writeString(generator, GRANT_TYPE, info.containsKey(GRANT_TYPE)
+                ? info.get(GRANT_TYPE) : request.getGrantType());
+        writeString(generator, JTI, info.get(JTI));
+        writeString(generator, ATI, info.get(ATI));
+
+        Date expiration = token.getExpiration();
+        writeNumber(generator, EXP, info.containsKey(EXP) || expiration == null
+                ? info.get(EXP) : expiration.getTime() / 1000);
+        writeNumber(generator, "iat", info.get("iat"));
+    }
+
+    /** Authorities of the user, or of the client if no user is authenticated. */
+    private static Collection<? extends GrantedAuthority> authorities(
+            OAuth2Authentication authentication) {
+        Collection<? extends GrantedAuthority> authorities = authentication.isClientOnly()
+                ? authentication.getOAuth2Request().getAuthorities()
+                : authentication.getUserAuthentication().getAuthorities();
+        return authorities == null || authorities.isEmpty() ? null : authorities;
+    }
+
+    private static void writeArray(JsonGenerator generator, String name, Object value)
+            throws IOException {
+        if (!(value instanceof Collection<?> values)) {
+            return;
+        }
+        generator.writeArrayFieldStart(name);
+        for (Object element : values) {
+            generator.writeString(element instanceof GrantedAuthority authority
+                    ? authority.getAuthority() : element.toString());
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeString(JsonGenerator generator, String name, Object value)
+            throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value.toString());
+        }
+    }
+
+    private static void writeNumber(JsonGenerator generator, String name, Object value)
+            throws IOException {
+        if (value instanceof Number number) {
+            generator.writeNumberField(name, number.longValue());
+        }
+    }
+
+    private static byte[] writeJson(JsonFieldWriter fieldWriter) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            fieldWriter.write(generator);
+            generator.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to write JWT JSON", ex);
+        }
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface JsonFieldWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
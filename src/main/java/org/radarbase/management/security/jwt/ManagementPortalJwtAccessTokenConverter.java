@@ -1,15 +1,14 @@
 package org.radarbase.management.security.jwt;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.JWTCreator;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
+import org.radarbase.auth.jwt.KeyedVerifiers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
@@ -25,15 +24,14 @@ import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConv
 import org.springframework.security.oauth2.provider.token.store.JwtClaimsSetVerifier;
 import org.springframework.util.Assert;
 
-import java.nio.charset.StandardCharsets;
-import java.time.Instant;
-import java.util.Base64;
-import java.util.Collection;
+import javax.annotation.Nullable;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Implementation of {@link JwtAccessTokenConverter} for the RADAR-base ManagementPortal platform.
@@ -45,8 +43,6 @@ public class ManagementPortalJwtAccessTokenConverter implements JwtAccessTokenCo
 
     public static final String RES_MANAGEMENT_PORTAL = "res_ManagementPortal";
 
-    private final ObjectReader jsonParser = new ObjectMapper().readerFor(Map.class);
-
     private static final Logger logger =
             LoggerFactory.getLogger(ManagementPortalJwtAccessTokenConverter.class);
 
@@ -54,23 +50,27 @@ public class ManagementPortalJwtAccessTokenConverter implements JwtAccessTokenCo
 
     private JwtClaimsSetVerifier jwtClaimsSetVerifier;
 
-    private Algorithm algorithm;
+    private JwtTokenEncoder tokenEncoder;
+
+    @Nullable
+    private Executor signingExecutor;
 
-    private final List<JWTVerifier> verifiers;
+    private KeyedVerifiers<JWTVerifier> verifiers;
 
-    private final List<JWTVerifier> refreshTokenVerifiers;
+    private final KeyedVerifiers<JWTVerifier> refreshTokenVerifiers;
 
 
     /**
      * Default constructor.
      * Creates {@link ManagementPortalJwtAccessTokenConverter} with
      * {@link DefaultAccessTokenConverter} as the accessTokenConverter with explicitly including
-     * grant_type claim.
+     * grant_type claim. Verifiers are selected by the key ID and algorithm of the token
+     * header.
      */
     public ManagementPortalJwtAccessTokenConverter(
             Algorithm algorithm,
-            List<JWTVerifier> verifiers,
-            List<JWTVerifier> refreshTokenVerifiers) {
+            KeyedVerifiers<JWTVerifier> verifiers,
+            KeyedVerifiers<JWTVerifier> refreshTokenVerifiers) {
         this.refreshTokenVerifiers = refreshTokenVerifiers;
         DefaultAccessTokenConverter accessToken = new DefaultAccessTokenConverter();
         accessToken.setIncludeGrantType(true);
@@ -115,11 +115,24 @@ public class ManagementPortalJwtAccessTokenConverter implements JwtAccessTokenCo
         return tokenConverter.extractAuthentication(map);
     }
 
+    /**
+     * Sets an executor to sign refresh tokens with, while the access token is signed on the
+     * calling thread. If null, both are signed on the calling thread.
+     *
+     * @param signingExecutor executor to sign refresh tokens with
+     */
+    public void setSigningExecutor(@Nullable Executor signingExecutor) {
+        this.signingExecutor = signingExecutor;
+    }
+
     @Override
     public final void setAlgorithm(Algorithm algorithm) {
-        this.algorithm = algorithm;
+        this.tokenEncoder = new JwtTokenEncoder(algorithm);
         if (verifiers.isEmpty()) {
-            this.verifiers.add(JWT.require(algorithm).withAudience(RES_MANAGEMENT_PORTAL).build());
+            this.verifiers = new KeyedVerifiers<>(List.of(new KeyedVerifiers.Entry<>(
+                    algorithm.getSigningKeyId(),
+                    algorithm.getName(),
+                    JWT.require(algorithm).withAudience(RES_MANAGEMENT_PORTAL).build())));
         }
     }
 
@@ -159,43 +172,67 @@ public class ManagementPortalJwtAccessTokenConverter implements JwtAccessTokenCo
         resultAccessToken
                 .setAdditionalInformation(additionalInfoAccessToken);
 
-        resultAccessToken.setValue(encode(accessToken, authentication));
-
         // add additional information for refresh-token
         OAuth2RefreshToken refreshToken = accessToken.getRefreshToken();
-        if (refreshToken != null) {
-            DefaultOAuth2AccessToken refreshTokenToEnhance =
-                    new DefaultOAuth2AccessToken(accessToken);
-            refreshTokenToEnhance.setValue(refreshToken.getValue());
-            // Refresh tokens do not expire unless explicitly of the right type
-            refreshTokenToEnhance.setExpiration(null);
-            refreshTokenToEnhance.setScope(accessToken.getScope());
-            // set info of access token to refresh-token and add token-id and access-token-id for
-            // reference.
-
-            Map<String, Object> refreshTokenInfo =
-                    new HashMap<>(accessToken.getAdditionalInformation());
-            refreshTokenInfo.put(TOKEN_ID, refreshTokenToEnhance.getValue());
-            refreshTokenInfo.put(ACCESS_TOKEN_ID, accessTokenId);
-
-            refreshTokenToEnhance.setAdditionalInformation(refreshTokenInfo);
-
-            DefaultOAuth2RefreshToken encodedRefreshToken;
-            if (refreshToken instanceof ExpiringOAuth2RefreshToken) {
-                Date expiration = ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration();
-                refreshTokenToEnhance.setExpiration(expiration);
-
-                encodedRefreshToken = new DefaultExpiringOAuth2RefreshToken(
-                        encode(refreshTokenToEnhance, authentication), expiration);
-            } else {
-                encodedRefreshToken = new DefaultOAuth2RefreshToken(
-                        encode(refreshTokenToEnhance, authentication));
-            }
-            resultAccessToken.setRefreshToken(encodedRefreshToken);
+        if (refreshToken == null) {
+            resultAccessToken.setValue(encode(accessToken, authentication));
+            return resultAccessToken;
+        }
+        DefaultOAuth2AccessToken refreshTokenToEnhance =
+                new DefaultOAuth2AccessToken(accessToken);
+        refreshTokenToEnhance.setValue(refreshToken.getValue());
+        // Refresh tokens do not expire unless explicitly of the right type
+        refreshTokenToEnhance.setExpiration(null);
+        refreshTokenToEnhance.setScope(accessToken.getScope());
+        // set info of access token to refresh-token and add token-id and access-token-id for
+        // reference.
+
+        Map<String, Object> refreshTokenInfo =
+                new HashMap<>(accessToken.getAdditionalInformation());
+        refreshTokenInfo.put(TOKEN_ID, refreshTokenToEnhance.getValue());
+        refreshTokenInfo.put(ACCESS_TOKEN_ID, accessTokenId);
+
+        refreshTokenToEnhance.setAdditionalInformation(refreshTokenInfo);
+
+        Date expiration = null;
+        if (refreshToken instanceof ExpiringOAuth2RefreshToken) {
+            expiration = ((ExpiringOAuth2RefreshToken) refreshToken).getExpiration();
+            refreshTokenToEnhance.setExpiration(expiration);
+        }
+
+        // signing is CPU-bound, so sign both tokens at the same time if possible
+        String encodedRefreshTokenValue;
+        if (signingExecutor != null) {
+            CompletableFuture<String> refreshTokenFuture = CompletableFuture.supplyAsync(
+                    () -> encode(refreshTokenToEnhance, authentication), signingExecutor);
+            resultAccessToken.setValue(encode(accessToken, authentication));
+            encodedRefreshTokenValue = join(refreshTokenFuture);
+        } else {
+            resultAccessToken.setValue(encode(accessToken, authentication));
+            encodedRefreshTokenValue = encode(refreshTokenToEnhance, authentication);
+        }
+
+        if (expiration != null) {
+            resultAccessToken.setRefreshToken(new DefaultExpiringOAuth2RefreshToken(
+                    encodedRefreshTokenValue, expiration));
+        } else {
+            resultAccessToken.setRefreshToken(
+                    new DefaultOAuth2RefreshToken(encodedRefreshTokenValue));
         }
         return resultAccessToken;
     }
 
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
     @Override
     public boolean isRefreshToken(OAuth2AccessToken token) {
         return token.getAdditionalInformation().containsKey(ACCESS_TOKEN_ID);
@@ -203,59 +240,34 @@ public class ManagementPortalJwtAccessTokenConverter implements JwtAccessTokenCo
 
     @Override
     public String encode(OAuth2AccessToken accessToken, OAuth2Authentication authentication) {
-        // we need to override the encode method as well, Spring security does not know about
-        // ECDSA so it can not set the 'alg' header claim of the JWT to the correct value; here
-        // we use the auth0 JWT implementation to create a signed, encoded JWT.
-        Map<String, ?> claims = convertAccessToken(accessToken, authentication);
-
-        JWTCreator.Builder builder = JWT.create();
-
-        // add the string array claims
-        Stream.of("aud", "sources", "roles", "authorities", "scope")
-                .filter(claims::containsKey)
-                .forEach(claim -> builder.withArrayClaim(claim,
-                        ((Collection<String>) claims.get(claim)).toArray(new String[0])));
-
-        // add the string claims
-        Stream.of("sub", "iss", "user_name", "client_id", "grant_type", "jti", "ati")
-                .filter(claims::containsKey)
-                .forEach(claim -> builder.withClaim(claim, (String) claims.get(claim)));
-
-        // add the date claims, they are in seconds since epoch, we need milliseconds
-        Stream.of("exp", "iat")
-                .filter(claims::containsKey)
-                .forEach(claim -> builder.withClaim(claim,
-                        Date.from(Instant.ofEpochSecond((Long)claims.get(claim)))));
-
-        return builder.sign(algorithm);
+        // Spring security does not know about ECDSA so it can not set the 'alg' header claim
+        // of the JWT to the correct value; here we use our own encoder with the auth0 JWT
+        // algorithm to create a signed, encoded JWT.
+        return tokenEncoder.encode(accessToken, authentication);
     }
 
     @Override
     public Map<String, Object> decode(String token) {
-        DecodedJWT jwt = JWT.decode(token);
-        List<JWTVerifier> verifierToUse;
+        // the token is parsed once; its claims are converted from the parsed payload and the
+        // signature is verified on the parsed token, instead of parsing the token again
+        DecodedJWT jwt;
         Map<String, Object> claims;
         try {
-            String decodedPayload = new String(Base64.getUrlDecoder().decode(jwt.getPayload()),
-                    StandardCharsets.UTF_8);
-            claims = jsonParser.readValue(decodedPayload);
-            if (claims.containsKey(EXP) && claims.get(EXP) instanceof Integer) {
-                Integer intValue = (Integer) claims.get(EXP);
-                claims.put(EXP, Long.valueOf(intValue));
-            }
-            if (this.getJwtClaimsSetVerifier() != null) {
-                this.getJwtClaimsSetVerifier().verify(claims);
-            }
-
-            verifierToUse = claims.get(ACCESS_TOKEN_ID) != null
-                    ? refreshTokenVerifiers : verifiers;
-        } catch (JsonProcessingException ex) {
+            jwt = JWT.decode(token);
+            claims = toClaimsMap(jwt);
+        } catch (JWTDecodeException ex) {
             throw new InvalidTokenException("Invalid token", ex);
         }
+        if (this.getJwtClaimsSetVerifier() != null) {
+            this.getJwtClaimsSetVerifier().verify(claims);
+        }
 
-        for (JWTVerifier verifier : verifierToUse) {
+        KeyedVerifiers<JWTVerifier> verifierToUse = claims.get(ACCESS_TOKEN_ID) != null
+                ? refreshTokenVerifiers : verifiers;
+
+        for (JWTVerifier verifier : verifierToUse.select(jwt.getKeyId(), jwt.getAlgorithm())) {
             try {
-                verifier.verify(token);
+                verifier.verify(jwt);
                 return claims;
             } catch (SignatureVerificationException sve) {
                 logger.warn("Client presented a token with an incorrect signature");
@@ -267,4 +279,18 @@ public class ManagementPortalJwtAccessTokenConverter implements JwtAccessTokenCo
 
         throw new InvalidTokenException("No registered validator could authenticate this token");
     }
+
+    /**
+     * Convert the claims of a decoded JWT to plain JSON values, as expected by
+     * {@link AccessTokenConverter}.
+     */
+    private static Map<String, Object> toClaimsMap(DecodedJWT jwt) {
+        Map<String, Claim> jwtClaims = jwt.getClaims();
+        Map<String, Object> claims = new HashMap<>(jwtClaims.size() * 2);
+        jwtClaims.forEach((name, claim) -> claims.put(name, claim.as(Object.class)));
+        if (claims.get(EXP) instanceof Integer) {
+            claims.put(EXP, ((Integer) claims.get(EXP)).longValue());
+        }
+        return claims;
+    }
 }
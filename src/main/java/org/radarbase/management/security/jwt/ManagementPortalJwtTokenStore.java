@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Map;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.common.DefaultExpiringOAuth2RefreshToken;
@@ -16,6 +17,10 @@ import org.springframework.security.oauth2.provider.OAuth2Authentication;
 import org.springframework.security.oauth2.provider.approval.Approval;
 import org.springframework.security.oauth2.provider.approval.ApprovalStore;
 import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
 
 /**
  * Adapted version of {@link org.springframework.security.oauth2.provider.token.store.JwtTokenStore}
@@ -35,6 +40,9 @@ import org.springframework.security.oauth2.provider.token.TokenStore;
  * @author nivethika
  */
 public class ManagementPortalJwtTokenStore implements TokenStore {
+    private static final String DECODED_TOKEN_ATTRIBUTE =
+            ManagementPortalJwtTokenStore.class.getName() + ".DECODED_TOKEN";
+
     private final JwtAccessTokenConverter jwtAccessTokenConverter;
 
     private ApprovalStore approvalStore;
@@ -79,7 +87,31 @@ public class ManagementPortalJwtTokenStore implements TokenStore {
 
     @Override
     public OAuth2Authentication readAuthentication(String token) {
-        return jwtAccessTokenConverter.extractAuthentication(jwtAccessTokenConverter.decode(token));
+        return jwtAccessTokenConverter.extractAuthentication(decode(token));
+    }
+
+    /**
+     * Decode and verify a token. A single token grant reads the same token several times, for
+     * example reading a refresh token and then its authentication, so the claims of the last
+     * token that was decoded in the current request are reused.
+     *
+     * @param token JWT token string.
+     * @return verified claims of the token.
+     */
+    private Map<String, Object> decode(String token) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return jwtAccessTokenConverter.decode(token);
+        }
+        Object decoded = attributes.getAttribute(DECODED_TOKEN_ATTRIBUTE, SCOPE_REQUEST);
+        if (decoded instanceof DecodedToken && ((DecodedToken) decoded).token.equals(token)) {
+            return ((DecodedToken) decoded).claims;
+        }
+        Map<String, Object> claims = Collections.unmodifiableMap(
+                jwtAccessTokenConverter.decode(token));
+        attributes.setAttribute(DECODED_TOKEN_ATTRIBUTE, new DecodedToken(token, claims),
+                SCOPE_REQUEST);
+        return claims;
     }
 
     @Override
@@ -98,8 +130,7 @@ public class ManagementPortalJwtTokenStore implements TokenStore {
     }
 
     private OAuth2AccessToken convertAccessToken(String tokenValue) {
-        return jwtAccessTokenConverter
-                .extractAccessToken(tokenValue, jwtAccessTokenConverter.decode(tokenValue));
+        return jwtAccessTokenConverter.extractAccessToken(tokenValue, decode(tokenValue));
     }
 
     @Override
@@ -195,4 +226,15 @@ public class ManagementPortalJwtTokenStore implements TokenStore {
     public Collection<OAuth2AccessToken> findTokensByClientId(String clientId) {
         return Collections.emptySet();
     }
+
+    /** Verified claims of a token string. */
+    private static class DecodedToken {
+        private final String token;
+        private final Map<String, Object> claims;
+
+        DecodedToken(String token, Map<String, Object> claims) {
+            this.token = token;
+            this.claims = claims;
+        }
+    }
 }
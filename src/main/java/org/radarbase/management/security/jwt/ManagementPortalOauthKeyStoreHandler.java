@@ -3,25 +3,24 @@ package org.radarbase.management.security.jwt;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import org.radarbase.auth.authentication.KeyStoreTokenVerifierLoader;
 import org.radarbase.auth.authentication.TokenValidator;
 import org.radarbase.auth.jwks.JsonWebKeySet;
-import org.radarbase.auth.jwks.JwkAlgorithmParser;
-import org.radarbase.auth.jwks.JwksTokenVerifierLoader;
+import org.radarbase.auth.jwt.KeyedVerifiers;
 import org.radarbase.management.config.ManagementPortalProperties;
 import org.radarbase.management.security.jwt.algorithm.EcdsaJwtAlgorithm;
+import org.radarbase.management.security.jwt.algorithm.EddsaJwtAlgorithm;
 import org.radarbase.management.security.jwt.algorithm.JwtAlgorithm;
 import org.radarbase.management.security.jwt.algorithm.RsaJwtAlgorithm;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.env.Environment;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import javax.servlet.ServletContext;
 import java.io.IOException;
 import java.security.KeyPair;
 import java.security.KeyStore;
@@ -33,7 +32,9 @@ import java.security.UnrecoverableKeyException;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.EdECPrivateKey;
 import java.security.interfaces.RSAPrivateKey;
+import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -41,6 +42,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
@@ -71,10 +73,10 @@ public class ManagementPortalOauthKeyStoreHandler {
 
     private final List<String> verifierPublicKeyAliasList;
 
-    private final String managementPortalBaseUrl;
+    private final KeyedVerifiers<JWTVerifier> verifiers;
+    private final KeyedVerifiers<JWTVerifier> refreshTokenVerifiers;
 
-    private final List<JWTVerifier> verifiers;
-    private final List<JWTVerifier> refreshTokenVerifiers;
+    private final TokenValidator tokenValidator;
 
     /**
      * Keystore factory. This tries to load the first valid keystore listed in resources.
@@ -84,8 +86,6 @@ public class ManagementPortalOauthKeyStoreHandler {
      */
     @Autowired
     public ManagementPortalOauthKeyStoreHandler(
-            Environment environment,
-            ServletContext servletContext,
             ManagementPortalProperties managementPortalProperties) {
 
         checkOAuthConfig(managementPortalProperties);
@@ -97,23 +97,22 @@ public class ManagementPortalOauthKeyStoreHandler {
         this.store = loadedStore.getValue();
         this.verifierPublicKeyAliasList = loadVerifiersPublicKeyAliasList();
 
-        this.managementPortalBaseUrl = "http://localhost:"
-                + environment.getProperty("server.port")
-                + servletContext.getContextPath();
-        logger.info("Using Management Portal base-url {}", this.managementPortalBaseUrl);
+        List<JwtAlgorithm> algorithms = loadAlgorithmsFromAlias().toList();
 
-        List<Algorithm> algorithms = loadAlgorithmsFromAlias()
-                .filter(Objects::nonNull)
-                .toList();
-
-        verifiers = algorithms.stream()
-                .map(algo -> JWT.require(algo).withAudience(RES_MANAGEMENT_PORTAL).build())
-                .toList();
+        verifiers = toKeyedVerifiers(algorithms,
+                algo -> JWT.require(algo).withAudience(RES_MANAGEMENT_PORTAL).build());
         // No need to check audience with a refresh token: it can be used
         // to refresh tokens intended for other resources.
-        refreshTokenVerifiers = algorithms.stream()
-                .map(algo -> JWT.require(algo).build())
-                .toList();
+        refreshTokenVerifiers = toKeyedVerifiers(algorithms, algo -> JWT.require(algo).build());
+
+        // The public keys are read from the key store directly, so the portal does not need to
+        // fetch its own token_key endpoint over HTTP.
+        tokenValidator = new TokenValidator(
+                List.of(new KeyStoreTokenVerifierLoader(
+                        store, verifierPublicKeyAliasList, RES_MANAGEMENT_PORTAL)),
+                Duration.ofMinutes(1),
+                Duration.ofDays(1),
+                Objects.requireNonNullElse(oauthConfig.getTokenCacheSize(), 0));
     }
 
     private static void checkOAuthConfig(ManagementPortalProperties managementPortalProperties) {
@@ -177,26 +176,40 @@ public class ManagementPortalOauthKeyStoreHandler {
      * @return List of public keys for token verification.
      */
     public JsonWebKeySet loadJwks() {
-        return new JsonWebKeySet(this.verifierPublicKeyAliasList.stream()
-                .map(this::getKeyPair)
-                .map(ManagementPortalOauthKeyStoreHandler::getJwtAlgorithm)
-                .filter(Objects::nonNull)
+        return new JsonWebKeySet(loadAlgorithmsFromAlias()
                 .map(JwtAlgorithm::getJwk)
                 .toList());
     }
 
     /**
-     * Load default verifiers from configured keystore and aliases.
+     * Load default verifiers from configured keystore and aliases. The key alias is used as
+     * key ID of each algorithm.
      */
-    private Stream<Algorithm> loadAlgorithmsFromAlias() {
+    private Stream<JwtAlgorithm> loadAlgorithmsFromAlias() {
         return this.verifierPublicKeyAliasList.stream()
-                .map(this::getKeyPair)
-                .map(ManagementPortalOauthKeyStoreHandler::getJwtAlgorithm)
-                .filter(Objects::nonNull)
-                .map(JwtAlgorithm::getAlgorithm);
+                .map(alias -> getJwtAlgorithm(alias, getKeyPair(alias)))
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Create verifiers indexed by key ID and algorithm name, so that a token is only verified
+     * with the key that signed it.
+     */
+    private static KeyedVerifiers<JWTVerifier> toKeyedVerifiers(
+            List<JwtAlgorithm> algorithms, Function<Algorithm, JWTVerifier> verifierFactory) {
+        return new KeyedVerifiers<>(algorithms.stream()
+                .map(alg -> {
+                    Algorithm algorithm = alg.getAlgorithm();
+                    return new KeyedVerifiers.Entry<>(alg.getKeyId(), algorithm.getName(),
+                            verifierFactory.apply(algorithm));
+                })
+                .toList());
     }
 
-    public List<JWTVerifier> getVerifiers() {
+    /**
+     * Verifiers for access tokens, indexed by key ID and algorithm.
+     */
+    public KeyedVerifiers<JWTVerifier> getVerifiers() {
         return this.verifiers;
     }
 
@@ -214,7 +227,7 @@ public class ManagementPortalOauthKeyStoreHandler {
                     + " from JWT key store.");
         }
 
-        return getAlgorithmFromKeyPair(keyPair);
+        return getAlgorithmFromKeyPair(signKey, keyPair);
     }
 
     /**
@@ -274,11 +287,12 @@ public class ManagementPortalOauthKeyStoreHandler {
 
     /**
      * Returns extracted {@link Algorithm} from the KeyPair.
+     * @param alias key alias, used as key ID of signed tokens.
      * @param keyPair to find algorithm.
      * @return extracted algorithm.
      */
-    private static Algorithm getAlgorithmFromKeyPair(KeyPair keyPair) {
-        JwtAlgorithm alg = getJwtAlgorithm(keyPair);
+    private static Algorithm getAlgorithmFromKeyPair(String alias, KeyPair keyPair) {
+        JwtAlgorithm alg = getJwtAlgorithm(alias, keyPair);
         if (alg == null) {
             throw new IllegalArgumentException("KeyPair type "
                     + keyPair.getPrivate().getAlgorithm() + " is unknown.");
@@ -288,10 +302,12 @@ public class ManagementPortalOauthKeyStoreHandler {
 
     /**
      * Get the JWT algorithm to sign or verify JWTs with.
+     * @param alias key alias, used as JWT key ID.
      * @param keyPair key pair for signing/verifying.
      * @return algorithm or {@code null} if the key type is unknown.
      */
-    private static @Nullable JwtAlgorithm getJwtAlgorithm(@Nullable KeyPair keyPair) {
+    private static @Nullable JwtAlgorithm getJwtAlgorithm(
+            @Nullable String alias, @Nullable KeyPair keyPair) {
 
         if (keyPair == null) {
             return null;
@@ -299,26 +315,30 @@ public class ManagementPortalOauthKeyStoreHandler {
         PrivateKey privateKey = keyPair.getPrivate();
 
         if (privateKey instanceof ECPrivateKey) {
-            return new EcdsaJwtAlgorithm(keyPair);
+            return new EcdsaJwtAlgorithm(keyPair, alias);
         } else if (privateKey instanceof RSAPrivateKey) {
-            return new RsaJwtAlgorithm(keyPair);
+            return new RsaJwtAlgorithm(keyPair, alias);
+        } else if (privateKey instanceof EdECPrivateKey) {
+            return new EddsaJwtAlgorithm(keyPair, alias);
         } else {
             logger.warn("No JWT algorithm found for key type {}", privateKey.getClass());
             return null;
         }
     }
 
-    /** Get the default token validator. */
+    /**
+     * Get the default token validator. It verifies tokens with the public keys of the signing
+     * and checking key aliases in the loaded key store.
+     */
     public TokenValidator getTokenValidator() {
-        var jwksLoader = new JwksTokenVerifierLoader(
-                managementPortalBaseUrl + "/oauth/token_key",
-                "res_ManagementPortal",
-                new JwkAlgorithmParser()
-        );
-        return new TokenValidator(List.of(jwksLoader));
+        return tokenValidator;
     }
 
-    public List<JWTVerifier> getRefreshTokenVerifiers() {
+    /**
+     * Verifiers for refresh tokens, indexed by key ID and algorithm. These do not check the
+     * token audience.
+     */
+    public KeyedVerifiers<JWTVerifier> getRefreshTokenVerifiers() {
         return refreshTokenVerifiers;
     }
 }
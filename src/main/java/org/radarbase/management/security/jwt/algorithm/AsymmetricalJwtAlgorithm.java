@@ -6,12 +6,22 @@ import java.util.Base64;
 import org.radarbase.auth.jwks.JsonWebKey;
 import org.radarbase.auth.jwks.MPJsonWebKey;
 
+import javax.annotation.Nullable;
+
 public abstract class AsymmetricalJwtAlgorithm implements JwtAlgorithm {
 
     protected final KeyPair keyPair;
 
+    @Nullable
+    protected final String keyId;
+
     protected AsymmetricalJwtAlgorithm(KeyPair keyPair) {
+        this(keyPair, null);
+    }
+
+    protected AsymmetricalJwtAlgorithm(KeyPair keyPair, @Nullable String keyId) {
         this.keyPair = keyPair;
+        this.keyId = keyId;
     }
 
     /** Header used for encoding public keys. */
@@ -30,11 +40,18 @@ public abstract class AsymmetricalJwtAlgorithm implements JwtAlgorithm {
                 + '\n' + getEncodedStringFooter();
     }
 
+    @Override
+    @Nullable
+    public String getKeyId() {
+        return keyId;
+    }
+
     @Override
     public JsonWebKey getJwk() {
         return new MPJsonWebKey(
                 this.getAlgorithm().getName(),
                 this.getKeyType(),
-                this.getVerifierKeyEncodedString());
+                this.getVerifierKeyEncodedString(),
+                this.keyId);
     }
 }
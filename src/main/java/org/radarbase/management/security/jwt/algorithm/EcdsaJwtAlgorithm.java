@@ -1,7 +1,9 @@
 package org.radarbase.management.security.jwt.algorithm;
 
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.ECDSAKeyProvider;
 
+import javax.annotation.Nullable;
 import java.security.KeyPair;
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.ECPublicKey;
@@ -9,7 +11,12 @@ import java.security.interfaces.ECPublicKey;
 public class EcdsaJwtAlgorithm extends AsymmetricalJwtAlgorithm {
     /** ECDSA JWT algorithm. */
     public EcdsaJwtAlgorithm(KeyPair keyPair) {
-        super(keyPair);
+        this(keyPair, null);
+    }
+
+    /** ECDSA JWT algorithm with a key ID. */
+    public EcdsaJwtAlgorithm(KeyPair keyPair, @Nullable String keyId) {
+        super(keyPair, keyId);
         if (!(keyPair.getPrivate() instanceof ECPrivateKey)) {
             throw new IllegalArgumentException(
                     "Cannot make EcdsaJwtAlgorithm with " + keyPair.getPrivate().getClass());
@@ -18,9 +25,22 @@ public class EcdsaJwtAlgorithm extends AsymmetricalJwtAlgorithm {
 
     @Override
     public Algorithm getAlgorithm() {
-        return Algorithm.ECDSA256(
-                (ECPublicKey)keyPair.getPublic(),
-                (ECPrivateKey)keyPair.getPrivate());
+        return Algorithm.ECDSA256(new ECDSAKeyProvider() {
+            @Override
+            public ECPublicKey getPublicKeyById(String keyId) {
+                return (ECPublicKey) keyPair.getPublic();
+            }
+
+            @Override
+            public ECPrivateKey getPrivateKey() {
+                return (ECPrivateKey) keyPair.getPrivate();
+            }
+
+            @Override
+            public String getPrivateKeyId() {
+                return keyId;
+            }
+        });
     }
 
     @Override
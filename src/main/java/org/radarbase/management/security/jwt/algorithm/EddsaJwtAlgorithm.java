@@ -0,0 +1,70 @@
+package org.radarbase.management.security.jwt.algorithm;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import org.radarbase.auth.jwks.JsonWebKey;
+import org.radarbase.auth.jwks.OKPJsonWebKey;
+import org.radarbase.auth.jwt.EdDsaAlgorithm;
+
+import javax.annotation.Nullable;
+import java.security.KeyPair;
+import java.security.interfaces.EdECKey;
+import java.util.Base64;
+import java.util.List;
+
+public class EddsaJwtAlgorithm extends AsymmetricalJwtAlgorithm {
+    private final OKPJsonWebKey.Curve curve;
+
+    /** EdDSA JWT algorithm. */
+    public EddsaJwtAlgorithm(KeyPair keyPair) {
+        this(keyPair, null);
+    }
+
+    /** EdDSA JWT algorithm with a key ID. */
+    public EddsaJwtAlgorithm(KeyPair keyPair, @Nullable String keyId) {
+        super(keyPair, keyId);
+        if (!(keyPair.getPrivate() instanceof EdECKey privateKey)) {
+            throw new IllegalArgumentException(
+                    "Cannot make EddsaJwtAlgorithm with " + keyPair.getPrivate().getClass());
+        }
+        curve = OKPJsonWebKey.Curve.valueOf(privateKey.getParams().getName());
+    }
+
+    @Override
+    public Algorithm getAlgorithm() {
+        return new EdDsaAlgorithm(keyPair.getPublic(), keyPair.getPrivate(), keyId);
+    }
+
+    @Override
+    public String getEncodedStringHeader() {
+        return "-----BEGIN EDDSA PUBLIC KEY-----";
+    }
+
+    @Override
+    public String getEncodedStringFooter() {
+        return "-----END EDDSA PUBLIC KEY-----";
+    }
+
+    @Override
+    public String getKeyType() {
+        return JsonWebKey.ALGORITHM_OKP;
+    }
+
+    /**
+     * Octet key pair JWK of the public key. It also contains the PEM encoded public key, for
+     * clients that read keys from the {@code value} field.
+     */
+    @Override
+    public JsonWebKey getJwk() {
+        byte[] publicKey = curve.fromX509(keyPair.getPublic().getEncoded());
+        return new OKPJsonWebKey(
+                EdDsaAlgorithm.ALGORITHM_EDDSA,
+                getKeyType(),
+                keyId,
+                "sig",
+                curve.name(),
+                Base64.getUrlEncoder().withoutPadding().encodeToString(publicKey),
+                getVerifierKeyEncodedString(),
+                List.of(),
+                null);
+    }
+}
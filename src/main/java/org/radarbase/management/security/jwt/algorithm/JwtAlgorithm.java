@@ -9,10 +9,17 @@ import org.radarbase.auth.jwks.JsonWebKey;
 public interface JwtAlgorithm {
 
     /**
-     * Auth0 Algorithm used in JWTs.
+     * Auth0 Algorithm used in JWTs. If a key ID is set, it will be added to the header of
+     * signed JWTs.
      */
     Algorithm getAlgorithm();
 
+    /**
+     * Key ID of the key pair, as used in the JWT {@code kid} header.
+     * @return key ID or {@code null} if not known.
+     */
+    String getKeyId();
+
     /**
      * Encoded public key for storage or transmission.
      */
@@ -1,7 +1,9 @@
 package org.radarbase.management.security.jwt.algorithm;
 
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.RSAKeyProvider;
 
+import javax.annotation.Nullable;
 import java.security.KeyPair;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
@@ -9,7 +11,12 @@ import java.security.interfaces.RSAPublicKey;
 public class RsaJwtAlgorithm extends AsymmetricalJwtAlgorithm {
     /** RSA JWT algorithm. */
     public RsaJwtAlgorithm(KeyPair keyPair) {
-        super(keyPair);
+        this(keyPair, null);
+    }
+
+    /** RSA JWT algorithm with a key ID. */
+    public RsaJwtAlgorithm(KeyPair keyPair, @Nullable String keyId) {
+        super(keyPair, keyId);
         if (!(keyPair.getPrivate() instanceof RSAPrivateKey)) {
             throw new IllegalArgumentException(
                     "Cannot make RsaJwtAlgorithm with " + keyPair.getPrivate().getClass());
@@ -18,9 +25,22 @@ public class RsaJwtAlgorithm extends AsymmetricalJwtAlgorithm {
 
     @Override
     public Algorithm getAlgorithm() {
-        return Algorithm.RSA256(
-                (RSAPublicKey)keyPair.getPublic(),
-                (RSAPrivateKey)keyPair.getPrivate());
+        return Algorithm.RSA256(new RSAKeyProvider() {
+            @Override
+            public RSAPublicKey getPublicKeyById(String keyId) {
+                return (RSAPublicKey) keyPair.getPublic();
+            }
+
+            @Override
+            public RSAPrivateKey getPrivateKey() {
+                return (RSAPrivateKey) keyPair.getPrivate();
+            }
+
+            @Override
+            public String getPrivateKeyId() {
+                return keyId;
+            }
+        });
     }
 
     @Override
@@ -0,0 +1,21 @@
+package org.radarbase.management.service
+
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+
+/**
+ * Run [action] after the current transaction commits, or immediately if no transaction is
+ * active. This is used to invalidate caches only once the changed data can be read by other
+ * transactions.
+ */
+fun runAfterCommit(action: () -> Unit) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+        TransactionSynchronizationManager.registerSynchronization(
+            object : TransactionSynchronization {
+                override fun afterCommit() = action()
+            }
+        )
+    } else {
+        action()
+    }
+}
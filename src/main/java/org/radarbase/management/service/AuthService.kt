@@ -48,9 +48,11 @@ open class AuthService(
 
         val entity = if (builder != null) entityDetailsBuilder(builder) else EntityDetails.global
 
-        val hasPermission = runBlocking {
-            oracle.hasPermission(token, permission, entity, scope)
-        }
+        // Only bridge to coroutines if entity relations need to be looked up.
+        val hasPermission = oracle.hasPermissionOrNull(token, permission, entity, scope)
+            ?: runBlocking {
+                oracle.hasPermission(token, permission, entity, scope)
+            }
         if (!hasPermission) {
             throw NotAuthorizedException(
                 "User ${token.username} with client ${token.clientId} does not have permission $permission to scope " +
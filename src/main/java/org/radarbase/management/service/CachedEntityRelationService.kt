@@ -0,0 +1,52 @@
+package org.radarbase.management.service
+
+import com.hazelcast.core.HazelcastInstance
+import com.hazelcast.map.IMap
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import org.radarbase.auth.authorization.EntityRelationService
+import org.radarbase.management.repository.ProjectRepository
+import org.slf4j.LoggerFactory
+import org.springframework.stereotype.Service
+
+/**
+ * Entity relations for authorization checks. The organization of each project is kept in a
+ * Hazelcast map with a near cache, so organization-scoped permission checks do not query the
+ * database on every request. The map is shared across the cluster. It is cleared when the
+ * project hierarchy changes. A lookup that runs concurrently with such a change may still
+ * store the old organization, so entries expire after 60 seconds to bound how long an
+ * outdated relation is used.
+ */
+@Service
+open class CachedEntityRelationService(
+    private val projectRepository: ProjectRepository,
+    hazelcastInstance: HazelcastInstance,
+) : EntityRelationService {
+    private val projectOrganizations: IMap<String, String> =
+        hazelcastInstance.getMap(PROJECT_ORGANIZATION_MAP)
+
+    override suspend fun findOrganizationOfProject(project: String): String? {
+        projectOrganizations[project]?.let { return it }
+        return withContext(Dispatchers.IO) {
+            projectRepository.findOrganizationNameByProjectName(project)
+                .orElse(null)
+                ?.also { projectOrganizations.set(project, it) }
+        }
+    }
+
+    /**
+     * Remove all cached project relations. If a transaction is active, the relations are
+     * removed after it commits, so they cannot be loaded again from uncommitted data.
+     */
+    open fun evictAll() = runAfterCommit {
+        logger.debug("Clearing cached project organizations")
+        projectOrganizations.clear()
+    }
+
+    companion object {
+        private val logger = LoggerFactory.getLogger(CachedEntityRelationService::class.java)
+
+        /** Name of the Hazelcast map with the organization name of each project name. */
+        const val PROJECT_ORGANIZATION_MAP = "projectOrganizations"
+    }
+}
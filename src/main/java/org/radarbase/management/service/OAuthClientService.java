@@ -1,6 +1,7 @@
 package org.radarbase.management.service;
 
 import org.radarbase.management.domain.User;
+import org.radarbase.management.security.CachedClientDetailsService;
 import org.radarbase.management.service.dto.ClientDetailsDTO;
 import org.radarbase.management.service.mapper.ClientDetailsMapper;
 import org.radarbase.management.web.rest.errors.ConflictException;
@@ -48,6 +49,9 @@ public class OAuthClientService {
     @Autowired
     private JdbcClientDetailsService clientDetailsService;
 
+    @Autowired
+    private CachedClientDetailsService cachedClientDetailsService;
+
     @Autowired
     private ClientDetailsMapper clientDetailsMapper;
 
@@ -96,6 +100,7 @@ public class OAuthClientService {
             clientDetailsService.updateClientSecret(clientDetailsDto.getClientId(),
                     clientDetailsDto.getClientSecret());
         }
+        cachedClientDetailsService.evict(clientDetailsDto.getClientId());
         return findOneByClientId(clientDetailsDto.getClientId());
     }
 
@@ -120,6 +125,7 @@ public class OAuthClientService {
      */
     public void deleteClientDetails(String clientId) {
         clientDetailsService.removeClientDetails(clientId);
+        cachedClientDetailsService.evict(clientId);
     }
 
     /**
@@ -147,6 +153,7 @@ public class OAuthClientService {
                 clientDetailsMapper.clientDetailsDTOToClientDetails(clientDetailsDto);
         // create oauth client.
         clientDetailsService.addClientDetails(details);
+        cachedClientDetailsService.evict(clientDetailsDto.getClientId());
 
         return findOneByClientId(clientDetailsDto.getClientId());
 
@@ -4,6 +4,7 @@ import org.radarbase.management.domain.Organization;
 import org.radarbase.management.domain.Project;
 import org.radarbase.management.repository.OrganizationRepository;
 import org.radarbase.management.repository.ProjectRepository;
+import org.radarbase.management.security.UserAuthorityCache;
 import org.radarbase.management.service.dto.OrganizationDTO;
 import org.radarbase.management.service.dto.ProjectDTO;
 import org.radarbase.management.service.mapper.OrganizationMapper;
@@ -46,6 +47,12 @@ public class OrganizationService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private CachedEntityRelationService entityRelationService;
+
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+
     /**
      * Save an organization.
      *
@@ -56,6 +63,11 @@ public class OrganizationService {
         log.debug("Request to save Organization : {}", organizationDto);
         var org = organizationMapper.organizationDTOToOrganization(organizationDto);
         org = organizationRepository.save(org);
+        if (organizationDto.getId() != null) {
+            // the organization name may have changed
+            entityRelationService.evictAll();
+            userAuthorityCache.evictAll();
+        }
         return organizationMapper.organizationToOrganizationDTO(org);
     }
 
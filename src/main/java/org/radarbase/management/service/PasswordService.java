@@ -9,6 +9,7 @@
 
 package org.radarbase.management.service;
 
+import org.radarbase.management.security.BoundedPasswordEncoder;
 import org.radarbase.management.web.rest.errors.BadRequestException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -62,6 +63,15 @@ public class PasswordService {
         return encode(generateString(ALPHANUMERIC, 30));
     }
 
+    /**
+     * Password for users that cannot log in with a password until they reset it. Unlike
+     * {@link #generateEncodedPassword()}, this does not hash anything.
+     * @return stored password that no password matches.
+     */
+    public String nonLoginablePassword() {
+        return BoundedPasswordEncoder.NON_LOGINABLE_PASSWORD;
+    }
+
     /**
      * Generates a random numeric reset key.
      * @return reset key.
@@ -3,6 +3,7 @@ package org.radarbase.management.service;
 import org.radarbase.management.domain.Project;
 import org.radarbase.management.domain.SourceType;
 import org.radarbase.management.repository.ProjectRepository;
+import org.radarbase.management.security.UserAuthorityCache;
 import org.radarbase.management.service.dto.ProjectDTO;
 import org.radarbase.management.service.dto.SourceTypeDTO;
 import org.radarbase.management.service.mapper.ProjectMapper;
@@ -45,6 +46,11 @@ public class ProjectService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private CachedEntityRelationService entityRelationService;
+
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
 
     /**
      * Save a project.
@@ -56,6 +62,11 @@ public class ProjectService {
         log.debug("Request to save Project : {}", projectDto);
         Project project = projectMapper.projectDTOToProject(projectDto);
         project = projectRepository.save(project);
+        if (projectDto.getId() != null) {
+            // the project name or organization may have changed
+            entityRelationService.evictAll();
+            userAuthorityCache.evictAll();
+        }
         return projectMapper.projectToProjectDTO(project);
     }
 
@@ -139,5 +150,7 @@ public class ProjectService {
     public void delete(Long id) {
         log.debug("Request to delete Project : {}", id);
         projectRepository.deleteById(id);
+        entityRelationService.evictAll();
+        userAuthorityCache.evictAll();
     }
 }
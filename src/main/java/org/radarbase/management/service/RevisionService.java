@@ -1,6 +1,7 @@
 package org.radarbase.management.service;
 
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.radarbase.management.web.rest.errors.EntityName.REVISION;
 import static org.radarbase.management.web.rest.errors.ErrorConstants.ERR_REVISIONS_NOT_FOUND;
 import static org.springframework.transaction.annotation.Isolation.REPEATABLE_READ;
@@ -10,6 +11,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -24,9 +26,13 @@ import javax.persistence.NoResultException;
 import javax.persistence.NonUniqueResultException;
 import javax.persistence.PersistenceContext;
 import javax.validation.constraints.NotNull;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
 import org.hibernate.envers.RevisionType;
+import org.hibernate.envers.boot.internal.EnversService;
+import org.hibernate.envers.configuration.internal.AuditEntitiesConfiguration;
 import org.hibernate.envers.exception.AuditException;
 import org.hibernate.envers.query.AuditEntity;
 import org.hibernate.envers.query.AuditQuery;
@@ -61,6 +67,9 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(isolation = REPEATABLE_READ, readOnly = true)
 public class RevisionService implements ApplicationContextAware {
     private static final Logger log = LoggerFactory.getLogger(RevisionService.class);
+
+    /** Maximum number of IDs to bind in a single query of the audit info of entities. */
+    private static final int AUDIT_INFO_CHUNK_SIZE = 1000;
     private static volatile ApplicationContext applicationContext;
 
     @PersistenceContext
@@ -122,6 +131,95 @@ public class RevisionService implements ApplicationContextAware {
         }
     }
 
+    /**
+     * Find audit info for given entities. For each entity type, the first and last revision
+     * numbers of all given entities are found with a single grouped query, and the revisions
+     * themselves with one more query. This avoids two revision queries per entity when
+     * mapping a list of entities. Queries bind at most {@value #AUDIT_INFO_CHUNK_SIZE} IDs, so
+     * larger collections use a query per chunk of IDs.
+     *
+     * @param entities the entities to look up
+     * @param <T> entity type
+     * @return the audit information per entity. Entities without audit information map to an
+     *         empty audit info object.
+     */
+    public <T extends AbstractEntity> Map<T, EntityAuditInfo> getAuditInfo(
+            Collection<T> entities) {
+        Map<Class<?>, Map<Long, T>> entitiesByClass = new HashMap<>();
+        for (T entity : entities) {
+            entitiesByClass.computeIfAbsent(Hibernate.getClass(entity), c -> new HashMap<>())
+                    .put(entity.getId(), entity);
+        }
+
+        Map<T, Integer[]> revisionRanges = new HashMap<>(entities.size() * 2);
+        entitiesByClass.forEach((entityClass, entitiesById) -> {
+            for (List<Long> ids : chunks(entitiesById.keySet())) {
+                for (Object[] row : queryRevisionRanges(entityClass, ids)) {
+                    revisionRanges.put(entitiesById.get((Long) row[0]),
+                            new Integer[] {(Integer) row[1], (Integer) row[2]});
+                }
+            }
+        });
+
+        Map<Integer, CustomRevisionEntity> revisions = new HashMap<>();
+        for (List<Integer> revisionIds : chunks(revisionRanges.values().stream()
+                .flatMap(Arrays::stream)
+                .collect(toSet()))) {
+            revisionEntityRepository.findAllById(revisionIds)
+                    .forEach(revision -> revisions.put(revision.getId(), revision));
+        }
+
+        Map<T, EntityAuditInfo> result = new HashMap<>(entities.size() * 2);
+        for (T entity : entities) {
+            Integer[] range = revisionRanges.get(entity);
+            if (range == null) {
+                result.put(entity, new EntityAuditInfo());
+                continue;
+            }
+            CustomRevisionEntity first = revisions.get(range[0]);
+            CustomRevisionEntity last = revisions.get(range[1]);
+            result.put(entity, new EntityAuditInfo()
+                    .setCreatedAt(ZonedDateTime.ofInstant(first.getTimestamp().toInstant(),
+                            ZoneId.systemDefault()))
+                    .setCreatedBy(first.getAuditor())
+                    .setLastModifiedAt(ZonedDateTime.ofInstant(last.getTimestamp().toInstant(),
+                            ZoneId.systemDefault()))
+                    .setLastModifiedBy(last.getAuditor()));
+        }
+        return result;
+    }
+
+    /** Split values into lists of at most {@value #AUDIT_INFO_CHUNK_SIZE} values. */
+    private static <E> List<List<E>> chunks(Collection<E> values) {
+        List<E> list = new ArrayList<>(values);
+        List<List<E>> result = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += AUDIT_INFO_CHUNK_SIZE) {
+            result.add(list.subList(i, Math.min(i + AUDIT_INFO_CHUNK_SIZE, list.size())));
+        }
+        return result;
+    }
+
+    /**
+     * Query the first and last revision numbers of entities of given type.
+     * @return rows of entity ID, first revision number and last revision number.
+     */
+    private List<Object[]> queryRevisionRanges(Class<?> entityClass, Collection<Long> ids) {
+        AuditEntitiesConfiguration config = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EnversService.class)
+                .getAuditEntitiesConfiguration();
+        String idPath = "e." + config.getOriginalIdPropName() + ".id";
+        String revisionPath = "e." + config.getRevisionNumberPath();
+        return entityManager.createQuery("select " + idPath
+                        + ", min(" + revisionPath + "), max(" + revisionPath + ")"
+                        + " from " + config.getAuditEntityName(entityClass.getName()) + " e"
+                        + " where " + idPath + " in :ids"
+                        + " group by " + idPath, Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
     /**
      * Find a specific revision of a specific entity. The repository methods seem not to be able
      * to find back a deleted entity with their findRevision method.
@@ -8,6 +8,7 @@ import org.radarbase.management.repository.AuthorityRepository;
 import org.radarbase.management.repository.OrganizationRepository;
 import org.radarbase.management.repository.ProjectRepository;
 import org.radarbase.management.repository.RoleRepository;
+import org.radarbase.management.security.UserAuthorityCache;
 import org.radarbase.management.service.dto.RoleDTO;
 import org.radarbase.management.service.mapper.RoleMapper;
 import org.radarbase.management.web.rest.errors.BadRequestException;
@@ -54,6 +55,9 @@ public class RoleService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+
     /**
      * Save a role.
      *
@@ -64,6 +68,10 @@ public class RoleService {
         log.debug("Request to save Role : {}", roleDto);
         Role role = roleMapper.roleDTOToRole(roleDto);
         role = roleRepository.save(role);
+        if (roleDto.getId() != null) {
+            // the authority or referent of users with this role may have changed
+            userAuthorityCache.evictAll();
+        }
         return roleMapper.roleToRoleDTO(role);
     }
 
@@ -144,6 +152,7 @@ public class RoleService {
     public void delete(Long id) {
         log.debug("Request to delete Role : {}", id);
         roleRepository.deleteById(id);
+        userAuthorityCache.evictAll();
     }
 
     /**
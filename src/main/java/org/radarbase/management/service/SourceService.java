@@ -6,6 +6,7 @@ import org.radarbase.management.domain.SourceType;
 import org.radarbase.management.repository.ProjectRepository;
 import org.radarbase.management.repository.SourceRepository;
 import org.radarbase.management.security.NotAuthorizedException;
+import org.radarbase.management.security.SubjectSourceCache;
 import org.radarbase.management.service.dto.MinimalSourceDetailsDTO;
 import org.radarbase.management.service.dto.SourceDTO;
 import org.radarbase.management.service.mapper.SourceMapper;
@@ -53,6 +54,9 @@ public class SourceService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private SubjectSourceCache subjectSourceCache;
+
     /**
      * Save a Source.
      *
@@ -63,6 +67,7 @@ public class SourceService {
         log.debug("Request to save Source : {}", sourceDto);
         Source source = sourceMapper.sourceDTOToSource(sourceDto);
         source = sourceRepository.save(source);
+        subjectSourceCache.evict(sourceDto.getSubjectLogin());
         return sourceMapper.sourceToSourceDTO(source);
     }
 
@@ -255,6 +260,11 @@ public class SourceService {
                     sourceTypeMapper.sourceTypeToSourceTypeDTO(existingSource.getSourceType()));
 
         }
+        // the source may be removed from its current subject
+        if (existingSource.getSubject() != null
+                && existingSource.getSubject().getUser() != null) {
+            subjectSourceCache.evict(existingSource.getSubject().getUser().getLogin());
+        }
 
         return Optional.of(save(sourceDto));
     }
@@ -16,10 +16,16 @@ import org.radarbase.management.repository.GroupRepository;
 import org.radarbase.management.repository.RoleRepository;
 import org.radarbase.management.repository.SourceRepository;
 import org.radarbase.management.repository.SubjectRepository;
+import org.radarbase.management.repository.UserRepository;
 import org.radarbase.management.repository.filters.SubjectSpecification;
+import org.radarbase.management.security.Constants;
 import org.radarbase.management.security.NotAuthorizedException;
+import org.radarbase.management.security.SubjectSourceCache;
+import org.radarbase.management.security.UserAuthorityCache;
 import org.radarbase.management.service.dto.MinimalSourceDetailsDTO;
+import org.radarbase.management.service.dto.ProjectDTO;
 import org.radarbase.management.service.dto.SubjectDTO;
+import org.radarbase.management.service.dto.SubjectEnrollmentResultDTO;
 import org.radarbase.management.service.dto.UserDTO;
 import org.radarbase.management.service.mapper.ProjectMapper;
 import org.radarbase.management.service.mapper.SourceMapper;
@@ -33,24 +39,41 @@ import org.radarbase.management.web.rest.errors.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.history.Revisions;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.Nonnull;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolationException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -66,6 +89,7 @@ import static org.radarbase.management.web.rest.errors.ErrorConstants.ERR_GROUP_
 import static org.radarbase.management.web.rest.errors.ErrorConstants.ERR_NO_VALID_PRIVACY_POLICY_URL_CONFIGURED;
 import static org.radarbase.management.web.rest.errors.ErrorConstants.ERR_SOURCE_NOT_FOUND;
 import static org.radarbase.management.web.rest.errors.ErrorConstants.ERR_SUBJECT_NOT_FOUND;
+import static org.radarbase.management.web.rest.errors.ErrorConstants.ERR_VALIDATION;
 
 /**
  * Created by nivethika on 26-5-17.
@@ -76,6 +100,18 @@ public class SubjectService {
 
     private static final Logger log = LoggerFactory.getLogger(SubjectService.class);
 
+    /** Number of subjects that {@link #processAll} loads and processes at once. */
+    private static final int PROCESS_CHUNK_SIZE = 100;
+
+    /** Number of subjects that {@link #createSubjects} creates in a single transaction. */
+    private static final int CREATE_BATCH_SIZE = 100;
+
+    /** Maximum length of a login, as constrained by {@link User}. */
+    private static final int LOGIN_MAX_LENGTH = 50;
+
+    /** Pattern of a valid login, as constrained by {@link User}. */
+    private static final Pattern LOGIN_PATTERN = Pattern.compile(Constants.ENTITY_ID_REGEX);
+
     @Autowired
     private SubjectMapper subjectMapper;
 
@@ -85,6 +121,9 @@ public class SubjectService {
     @Autowired
     private SubjectRepository subjectRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
     @Autowired
     private SourceRepository sourceRepository;
 
@@ -112,6 +151,18 @@ public class SubjectService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+
+    @Autowired
+    private SubjectSourceCache subjectSourceCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     /**
      * Create a new subject.
      *
@@ -120,19 +171,174 @@ public class SubjectService {
      */
     @Transactional
     public SubjectDTO createSubject(SubjectDTO subjectDto) {
-        Subject subject = subjectMapper.subjectDTOToSubject(subjectDto);
-        //assign roles
-        User user = subject.getUser();
         Project project = projectMapper.projectDTOToProject(subjectDto.getProject());
-        Role projectParticipantRole = getProjectParticipantRole(project, PARTICIPANT);
-        Set<Role> roles = user.getRoles();
-        roles.add(projectParticipantRole);
+        Subject subject = subjectMapper.subjectDTOToSubject(subjectDto,
+                getSubjectGroup(project, subjectDto.getGroup()));
+        initializeNewSubject(subject, getProjectParticipantRole(project, PARTICIPANT));
+        sourceRepository.saveAll(subject.getSources());
+        return subjectMapper.subjectToSubjectReducedProjectDTO(subjectRepository.save(subject));
+    }
 
-        // Set group
-        subject.setGroup(getSubjectGroup(project, subjectDto.getGroup()));
+    /**
+     * Create subjects in a single project, to enroll a cohort at once. The participant role and
+     * the groups of the project are looked up once. Subjects are then created in batches of
+     * {@value #CREATE_BATCH_SIZE}, each in its own transaction and with a single revision, and
+     * their inserts are sent to the database in JDBC batches. Subjects that are invalid or that
+     * already exist are not created and get an error in their result, while the other subjects
+     * are still created. When a batch fails to be stored, its subjects are retried one at a time.
+     *
+     * @param projectDto project to enroll the subjects in. The projects of the subjects are
+     *                   ignored.
+     * @param subjectDtos the subjects to create.
+     * @return the result of each subject, in the order of the subjects.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<SubjectEnrollmentResultDTO> createSubjects(ProjectDTO projectDto,
+            List<SubjectDTO> subjectDtos) {
+        Project project = projectMapper.projectDTOToProject(projectDto);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Map<String, Group> groups = new HashMap<>();
+        Role participantRole = transactionTemplate.execute(status -> {
+            groupRepository.findAllByProjectId(project.getId())
+                    .forEach(group -> groups.put(group.getName(), group));
+            return getProjectParticipantRole(project, PARTICIPANT);
+        });
+
+        List<SubjectEnrollmentResultDTO> results = new ArrayList<>(subjectDtos.size());
+        List<Integer> validRows = new ArrayList<>(subjectDtos.size());
+        Set<String> logins = new HashSet<>();
+        Set<String> externalIds = new HashSet<>();
+        for (int i = 0; i < subjectDtos.size(); i++) {
+            SubjectDTO subjectDto = subjectDtos.get(i);
+            SubjectEnrollmentResultDTO result = new SubjectEnrollmentResultDTO(
+                    i, subjectDto.getLogin());
+            results.add(result);
+            if (validateNewSubject(subjectDto, result, groups, logins, externalIds)) {
+                validRows.add(i);
+            }
+        }
 
-        // set password and reset keys
-        user.setPassword(passwordService.generateEncodedPassword());
+        for (int i = 0; i < validRows.size(); i += CREATE_BATCH_SIZE) {
+            List<Integer> batch = validRows.subList(
+                    i, Math.min(i + CREATE_BATCH_SIZE, validRows.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> createSubjectBatch(
+                        project, participantRole, groups, subjectDtos, results, batch));
+            } catch (DataAccessException | TransactionException
+                    | ConstraintViolationException ex) {
+                log.warn("Failed to create batch of subjects in project {}, retrying subjects"
+                        + " separately: {}", project.getProjectName(), ex.getMessage());
+                // subjects that were rejected before storing the batch keep their error
+                List<Integer> retryRows = batch.stream()
+                        .filter(row -> results.get(row).getError() == null)
+                        .toList();
+                retryRows.forEach(row -> results.get(row).created(null));
+                for (int row : retryRows) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> createSubjectBatch(
+                                project, participantRole, groups, subjectDtos, results,
+                                List.of(row)));
+                    } catch (DataAccessException | TransactionException
+                            | ConstraintViolationException rowEx) {
+                        log.warn("Failed to create subject {} in project {}: {}",
+                                subjectDtos.get(row).getLogin(), project.getProjectName(),
+                                rowEx.getMessage());
+                        results.get(row).created(null).failed(ERR_VALIDATION,
+                                "Subject conflicts with existing data");
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Validate a new subject of a bulk enrollment without database queries. If the subject is
+     * invalid, its result is marked as failed.
+     * @return whether the subject is valid.
+     */
+    private static boolean validateNewSubject(SubjectDTO subjectDto,
+            SubjectEnrollmentResultDTO result, Map<String, Group> groups, Set<String> logins,
+            Set<String> externalIds) {
+        String login = subjectDto.getLogin();
+        String externalId = subjectDto.getExternalId();
+        if (subjectDto.getId() != null) {
+            result.failed(ERR_VALIDATION, "A new subject cannot already have an ID");
+        } else if (login == null || login.isEmpty()) {
+            result.failed(ERR_VALIDATION, "A subject login is required");
+        } else if (login.length() > LOGIN_MAX_LENGTH
+                || !LOGIN_PATTERN.matcher(login).matches()) {
+            result.failed(ERR_VALIDATION, "Subject login " + login + " must be at most "
+                    + LOGIN_MAX_LENGTH + " characters and match " + Constants.ENTITY_ID_REGEX);
+        } else if (subjectDto.getGroup() != null && !groups.containsKey(subjectDto.getGroup())) {
+            result.failed(ERR_GROUP_NOT_FOUND,
+                    "Group " + subjectDto.getGroup() + " does not exist in project");
+        } else if (!logins.add(login)) {
+            result.failed(ERR_VALIDATION, "Subject login " + login + " occurs more than once");
+        } else if (externalId != null && !externalId.isEmpty() && !externalIds.add(externalId)) {
+            result.failed(ERR_VALIDATION,
+                    "Subject external ID " + externalId + " occurs more than once");
+        } else {
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Create a batch of subjects of a bulk enrollment, skipping subjects that already exist.
+     * The results of the given rows are updated.
+     */
+    private void createSubjectBatch(Project project, Role participantRole,
+            Map<String, Group> groups, List<SubjectDTO> subjectDtos,
+            List<SubjectEnrollmentResultDTO> results, List<Integer> rows) {
+        Set<String> existingLogins = userRepository.findExistingLogins(rows.stream()
+                .map(row -> subjectDtos.get(row).getLogin())
+                .toList());
+        List<String> externalIds = rows.stream()
+                .map(row -> subjectDtos.get(row).getExternalId())
+                .filter(externalId -> externalId != null && !externalId.isEmpty())
+                .toList();
+        Set<String> existingExternalIds = externalIds.isEmpty() ? Set.of()
+                : subjectRepository.findExistingExternalIds(project.getProjectName(), externalIds);
+
+        Map<Integer, Subject> subjects = new LinkedHashMap<>();
+        for (int row : rows) {
+            SubjectDTO subjectDto = subjectDtos.get(row);
+            if (existingLogins.contains(subjectDto.getLogin())) {
+                results.get(row).failed(ERR_VALIDATION,
+                        "A user with login " + subjectDto.getLogin() + " already exists");
+            } else if (subjectDto.getExternalId() != null
+                    && existingExternalIds.contains(subjectDto.getExternalId())) {
+                results.get(row).failed(ERR_VALIDATION, "A subject with external ID "
+                        + subjectDto.getExternalId() + " already exists in project");
+            } else {
+                Subject subject = subjectMapper.subjectDTOToSubject(subjectDto,
+                        subjectDto.getGroup() != null ? groups.get(subjectDto.getGroup()) : null);
+                initializeNewSubject(subject, participantRole);
+                subjects.put(row, subject);
+            }
+        }
+
+        sourceRepository.saveAll(subjects.values().stream()
+                .flatMap(subject -> subject.getSources().stream())
+                .toList());
+        subjectRepository.saveAll(subjects.values());
+        subjectRepository.flush();
+        subjects.forEach((row, subject) -> results.get(row).created(subject.getId()));
+    }
+
+    /**
+     * Set the role, credentials and defaults of a subject that is about to be created.
+     * @param subject new subject
+     * @param participantRole participant role of the project of the subject
+     */
+    private void initializeNewSubject(Subject subject, Role participantRole) {
+        User user = subject.getUser();
+        //assign roles
+        user.getRoles().add(participantRole);
+
+        // set password and reset keys, subjects need a reset before logging in with a password
+        user.setPassword(passwordService.nonLoginablePassword());
         user.setResetKey(passwordService.generateResetKey());
         // setting default language key to "en", required to set email context, Find a workaround
         user.setLangKey("en");
@@ -146,8 +352,6 @@ public class SubjectService {
         if (subject.getEnrollmentDate() == null) {
             subject.setEnrollmentDate(ZonedDateTime.now());
         }
-        sourceRepository.saveAll(subject.getSources());
-        return subjectMapper.subjectToSubjectReducedProjectDTO(subjectRepository.save(subject));
     }
 
     private Group getSubjectGroup(Project project, String groupName) {
@@ -210,6 +414,8 @@ public class SubjectService {
         subjectFromDb.setGroup(getSubjectGroup(
                 subjectFromDb.getActiveProject().orElse(null),
                 newSubjectDto.getGroup()));
+        userAuthorityCache.evict(subjectFromDb.getUser().getLogin());
+        subjectSourceCache.evict(subjectFromDb.getUser().getLogin());
         return subjectMapper.subjectToSubjectReducedProjectDTO(
                 subjectRepository.save(subjectFromDb));
     }
@@ -258,6 +464,8 @@ public class SubjectService {
         // access token
         subject.setRemoved(true);
         subject.getUser().setActivated(false);
+        userAuthorityCache.evict(subject.getUser().getLogin());
+        subjectSourceCache.evict(subject.getUser().getLogin());
         return subjectMapper.subjectToSubjectReducedProjectDTO(subjectRepository.save(subject));
     }
 
@@ -330,6 +538,7 @@ public class SubjectService {
 
                 assignedSource = source;
                 subject.getSources().add(source);
+                subjectSourceCache.evict(subject.getUser().getLogin());
             } else {
                 throw new ConflictException(
                     "A Source of SourceType with the specified producer, model and version"
@@ -410,6 +619,8 @@ public class SubjectService {
         subjectRepository.findOneWithEagerBySubjectLogin(login).ifPresent(subject -> {
             unassignAllSources(subject);
             subjectRepository.delete(subject);
+            userAuthorityCache.evict(login);
+            subjectSourceCache.evict(login);
             log.debug("Deleted Subject: {}", subject);
         });
     }
@@ -502,15 +713,72 @@ public class SubjectService {
     /**
      * Find all subjects matching given filter.
      * @param criteria filter and sort for subjects.
-     * @return page of subjects matching filter.
+     * @return page of subjects matching filter, or a slice without total count if the criteria
+     *         do not request a count.
      */
-    public Page<Subject> findAll(SubjectCriteria criteria) {
+    public Slice<Subject> findAll(SubjectCriteria criteria) {
         // Pageable is required to set the page limit,
         // but the page should always be zero
         // since the lastLoadedId param defines the offset
         // within the query specification
-        return subjectRepository.findAll(new SubjectSpecification(criteria),
-                criteria.getPageable());
+        SubjectSpecification specification = new SubjectSpecification(criteria);
+        Pageable pageable = criteria.getPageable();
+        int size = pageable.getPageSize();
+        // Fetching sources together with a page limit would make Hibernate load all matching
+        // subjects and paginate in memory, so first select the IDs of the page only.
+        if (!criteria.isCount()) {
+            // Select one more ID to find out whether there is a next page.
+            List<Long> ids = subjectRepository.findAllIds(
+                    specification, pageable.getOffset(), size + 1);
+            boolean hasNext = ids.size() > size;
+            List<Subject> subjects = findAllWithEagerByIds(
+                    hasNext ? ids.subList(0, size) : ids);
+            return new SliceImpl<>(subjects, pageable, hasNext);
+        }
+        List<Long> ids = subjectRepository.findAllIds(specification, pageable.getOffset(), size);
+        List<Subject> subjects = findAllWithEagerByIds(ids);
+        return PageableExecutionUtils.getPage(subjects, pageable,
+                () -> subjectRepository.count(specification));
+    }
+
+    /**
+     * Process all subjects matching given filter, in the sort order of the filter. The page of
+     * the criteria is ignored, but a last subject can be given to continue a previous run. The
+     * subject IDs are read with a single query, and the subjects are loaded with their
+     * relations in chunks. After each chunk is processed, the persistence context is cleared,
+     * so that memory use does not grow with the number of matching subjects.
+     * @param criteria filter and sort for subjects.
+     * @param processor processor of each chunk of subjects, in sort order.
+     */
+    @Transactional(readOnly = true)
+    public void processAll(SubjectCriteria criteria, Consumer<List<Subject>> processor) {
+        SubjectSpecification specification = new SubjectSpecification(criteria);
+        try (Stream<Long> idStream = subjectRepository.streamAllIds(
+                specification, PROCESS_CHUNK_SIZE)) {
+            Iterator<Long> ids = idStream.iterator();
+            List<Long> chunk = new ArrayList<>(PROCESS_CHUNK_SIZE);
+            while (ids.hasNext()) {
+                chunk.add(ids.next());
+                if (chunk.size() == PROCESS_CHUNK_SIZE || !ids.hasNext()) {
+                    processor.accept(findAllWithEagerByIds(chunk));
+                    entityManager.clear();
+                    chunk.clear();
+                }
+            }
+        }
+    }
+
+    /** Subjects with their sources, user and attributes, in the order of given IDs. */
+    private List<Subject> findAllWithEagerByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Subject> subjectsById = subjectRepository.findAllWithEagerByIdIn(ids).stream()
+                .collect(Collectors.toMap(Subject::getId, Function.identity()));
+        return ids.stream()
+                .map(subjectsById::get)
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
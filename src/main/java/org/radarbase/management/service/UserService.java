@@ -4,11 +4,13 @@ import org.radarbase.auth.authorization.RoleAuthority;
 import org.radarbase.management.config.ManagementPortalProperties;
 import org.radarbase.management.domain.Role;
 import org.radarbase.management.domain.User;
+import org.radarbase.management.domain.audit.EntityAuditInfo;
 import org.radarbase.management.repository.UserRepository;
 import org.radarbase.management.repository.filters.UserFilter;
 import org.radarbase.management.security.Constants;
 import org.radarbase.management.security.NotAuthorizedException;
 import org.radarbase.management.security.SecurityUtils;
+import org.radarbase.management.security.UserAuthorityCache;
 import org.radarbase.management.service.dto.RoleDTO;
 import org.radarbase.management.service.dto.UserDTO;
 import org.radarbase.management.service.mapper.UserMapper;
@@ -20,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -73,6 +76,9 @@ public class UserService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private UserAuthorityCache userAuthorityCache;
+
     /**
      * Activate a user with the given activation key.
      * @param key the activation key
@@ -293,6 +299,7 @@ public class UserService {
             managedRoles.addAll(getUserRoles(userDto.getRoles(), oldRoles));
 
             user = userRepository.save(user);
+            userAuthorityCache.evict(user.getLogin());
             log.debug("Changed Information for User: {}", user);
             return Optional.of(userMapper.userToUserDTO(user));
         } else {
@@ -307,6 +314,7 @@ public class UserService {
     public void deleteUser(String login) {
         userRepository.findOneByLogin(login).ifPresent(user -> {
             userRepository.delete(user);
+            userAuthorityCache.evict(login);
             log.debug("Deleted User: {}", user);
         });
     }
@@ -344,8 +352,8 @@ public class UserService {
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllManagedUsers(Pageable pageable) {
         log.debug("Request to get all Users");
-        return userRepository.findAllByLoginNot(pageable, Constants.ANONYMOUS_USER)
-                .map(userMapper::userToUserDTO);
+        return toUserDTOsWithProvenance(
+                userRepository.findAllByLoginNot(pageable, Constants.ANONYMOUS_USER));
     }
 
     /**
@@ -383,11 +391,17 @@ public class UserService {
         List<String> authorities = Arrays.asList(
                 PARTICIPANT.getAuthority(), INACTIVE_PARTICIPANT.getAuthority());
 
-        userRepository.findAllByActivatedAndAuthoritiesNot(false, authorities).stream()
-                .filter(user -> revisionService.getAuditInfo(user).getCreatedAt().isBefore(cutoff))
+        List<User> users = userRepository.findAllByActivatedAndAuthoritiesNot(false, authorities);
+        Map<User, EntityAuditInfo> auditInfo = revisionService.getAuditInfo(users);
+        users.stream()
+                .filter(user -> {
+                    ZonedDateTime createdAt = auditInfo.get(user).getCreatedAt();
+                    return createdAt != null && createdAt.isBefore(cutoff);
+                })
                 .forEach(user -> {
                     try {
                         userRepository.delete(user);
+                        userAuthorityCache.evict(user.getLogin());
                         log.info("Deleted not activated user after 3 days: {}", user.getLogin());
                     } catch (DataIntegrityViolationException ex) {
                         log.error("Could not delete user with login " + user.getLogin(), ex);
@@ -405,10 +419,18 @@ public class UserService {
      */
     public Page<UserDTO> findUsers(UserFilter userFilter, Pageable pageable,
             boolean includeProvenance) {
-        return userRepository.findAll(userFilter, pageable)
-                .map(includeProvenance
-                        ? userMapper::userToUserDTO
-                        : userMapper::userToUserDTONoProvenance);
+        Page<User> users = userRepository.findAll(userFilter, pageable);
+        if (includeProvenance) {
+            return toUserDTOsWithProvenance(users);
+        } else {
+            return users.map(userMapper::userToUserDTONoProvenance);
+        }
+    }
+
+    /** Map a page of users to DTOs, loading the provenance of all users at once. */
+    private Page<UserDTO> toUserDTOsWithProvenance(Page<User> users) {
+        return new PageImpl<>(userMapper.usersToUserDTOs(users.getContent()),
+                users.getPageable(), users.getTotalElements());
     }
 
     /**
@@ -430,5 +452,6 @@ public class UserService {
         managedRoles.clear();
         managedRoles.addAll(getUserRoles(roleDtos, oldRoles));
         userRepository.save(user);
+        userAuthorityCache.evict(login);
     }
 }
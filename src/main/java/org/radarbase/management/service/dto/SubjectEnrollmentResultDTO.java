@@ -0,0 +1,139 @@
+package org.radarbase.management.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Result of enrolling a single subject in a bulk enrollment. A created subject has an ID, a
+ * subject that was not created has an error key and message instead.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SubjectEnrollmentResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int row;
+
+    private String login;
+
+    private Long id;
+
+    private String error;
+
+    private String message;
+
+    public SubjectEnrollmentResultDTO() {
+        // default constructor for deserialization
+    }
+
+    /**
+     * Result of a subject in the enrollment.
+     * @param row index of the subject in the enrollment request, starting at 0.
+     * @param login login of the subject.
+     */
+    public SubjectEnrollmentResultDTO(int row, String login) {
+        this.row = row;
+        this.login = login;
+    }
+
+    /**
+     * Mark the subject as created.
+     * @param id ID of the created subject.
+     * @return this result.
+     */
+    public SubjectEnrollmentResultDTO created(Long id) {
+        this.id = id;
+        return this;
+    }
+
+    /**
+     * Mark the subject as failed.
+     * @param error error key, one of the constants of
+     *      {@link org.radarbase.management.web.rest.errors.ErrorConstants}.
+     * @param message description of the error.
+     * @return this result.
+     */
+    public SubjectEnrollmentResultDTO failed(String error, String message) {
+        this.error = error;
+        this.message = message;
+        return this;
+    }
+
+    public boolean isCreated() {
+        return id != null;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public void setRow(int row) {
+        this.row = row;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SubjectEnrollmentResultDTO that = (SubjectEnrollmentResultDTO) o;
+        return row == that.row
+                && Objects.equals(login, that.login)
+                && Objects.equals(id, that.id)
+                && Objects.equals(error, that.error)
+                && Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(row, login, id, error, message);
+    }
+
+    @Override
+    public String toString() {
+        return "SubjectEnrollmentResultDTO{"
+                + "row=" + row
+                + ", login='" + login + '\''
+                + ", id=" + id
+                + ", error='" + error + '\''
+                + ", message='" + message + '\''
+                + '}';
+    }
+}
@@ -7,6 +7,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.Named;
+import org.radarbase.management.domain.Group;
 import org.radarbase.management.domain.Subject;
 import org.radarbase.management.service.dto.SubjectDTO;
 import org.radarbase.management.service.mapper.decorator.SubjectMapperDecorator;
@@ -65,6 +66,21 @@ public interface SubjectMapper {
     @Mapping(target = "metaTokens", ignore = true)
     Subject subjectDTOToSubject(SubjectDTO subjectDto);
 
+    /**
+     * Map a DTO to a subject in given group. Unlike {@link #subjectDTOToSubject(SubjectDTO)},
+     * this does not look up the group named in the DTO.
+     * @param subjectDto subject to map
+     * @param group group of the subject, may be null
+     * @return mapped subject
+     */
+    default Subject subjectDTOToSubject(SubjectDTO subjectDto, Group group) {
+        Subject subject = subjectDTOToSubject(subjectDto);
+        if (subject != null) {
+            subject.setGroup(group);
+        }
+        return subject;
+    }
+
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "removed", ignore = true)
     @Mapping(target = "metaTokens", ignore = true)
@@ -9,6 +9,7 @@ import org.radarbase.management.domain.User;
 import org.radarbase.management.service.dto.UserDTO;
 import org.radarbase.management.service.mapper.decorator.UserMapperDecorator;
 
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -34,6 +35,16 @@ public interface UserMapper {
     @Mapping(target = "accessToken", ignore = true)
     UserDTO userToUserDTONoProvenance(User user);
 
+    /**
+     * Map users to DTOs with provenance, as {@link #userToUserDTO(User)} does for a single
+     * user.
+     * @param users users to map
+     * @return DTOs in the same order as the users
+     */
+    default List<UserDTO> usersToUserDTOs(List<User> users) {
+        return users.stream().map(this::userToUserDTO).toList();
+    }
+
     @Mapping(target = "activationKey", ignore = true)
     @Mapping(target = "resetKey", ignore = true)
     @Mapping(target = "resetDate", ignore = true)
@@ -97,9 +97,18 @@ public abstract class SubjectMapperDecorator implements SubjectMapper {
             return null;
         }
 
+        return subjectDTOToSubject(subjectDto, getGroup(subjectDto));
+    }
+
+    @Override
+    public Subject subjectDTOToSubject(SubjectDTO subjectDto, Group group) {
+        if (subjectDto == null) {
+            return null;
+        }
+
         Subject subject = delegate.subjectDTOToSubject(subjectDto);
         setSubjectStatus(subjectDto, subject);
-        subject.setGroup(getGroup(subjectDto));
+        subject.setGroup(group);
 
         return subject;
     }
@@ -8,6 +8,9 @@ import org.radarbase.management.service.mapper.UserMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
+import java.util.List;
+import java.util.Map;
+
 public abstract class UserMapperDecorator implements UserMapper {
 
     @Autowired
@@ -24,13 +27,26 @@ public abstract class UserMapperDecorator implements UserMapper {
         }
 
         UserDTO dto = delegate.userToUserDTO(user);
+        addAuditInfo(dto, revisionService.getAuditInfo(user));
+        return dto;
+    }
+
+    @Override
+    public List<UserDTO> usersToUserDTOs(List<User> users) {
+        Map<User, EntityAuditInfo> auditInfo = revisionService.getAuditInfo(users);
+        return users.stream()
+                .map(user -> {
+                    UserDTO dto = delegate.userToUserDTO(user);
+                    addAuditInfo(dto, auditInfo.get(user));
+                    return dto;
+                })
+                .toList();
+    }
 
-        EntityAuditInfo auditInfo = revisionService.getAuditInfo(user);
+    private static void addAuditInfo(UserDTO dto, EntityAuditInfo auditInfo) {
         dto.setCreatedDate(auditInfo.getCreatedAt());
         dto.setCreatedBy(auditInfo.getCreatedBy());
         dto.setLastModifiedDate(auditInfo.getLastModifiedAt());
         dto.setLastModifiedBy(auditInfo.getLastModifiedBy());
-
-        return dto;
     }
 }
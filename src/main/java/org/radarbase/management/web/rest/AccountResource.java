@@ -3,6 +3,7 @@ package org.radarbase.management.web.rest;
 import io.micrometer.core.annotation.Timed;
 import org.radarbase.auth.authorization.Permission;
 import org.radarbase.auth.token.DataRadarToken;
+import org.radarbase.auth.token.JwtRadarToken;
 import org.radarbase.auth.token.RadarToken;
 import org.radarbase.management.config.ManagementPortalProperties;
 import org.radarbase.management.domain.User;
@@ -97,7 +98,9 @@ public class AccountResource {
             throw new NotAuthorizedException("Cannot login without credentials");
         }
         log.debug("Logging in user to session with principal {}", token.getUsername());
-        setRadarToken(session, new DataRadarToken(token));
+        // Tokens parsed from a JWT have a compact serialized form, others are copied.
+        setRadarToken(session, token instanceof JwtRadarToken
+                ? token : new DataRadarToken(token));
         return getAccount();
     }
 
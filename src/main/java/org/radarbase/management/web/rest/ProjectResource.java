@@ -1,5 +1,10 @@
 package org.radarbase.management.web.rest;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
 import io.micrometer.core.annotation.Timed;
 import io.swagger.v3.oas.annotations.Parameter;
 import org.radarbase.management.repository.ProjectRepository;
@@ -17,6 +22,7 @@ import org.radarbase.management.service.dto.RoleDTO;
 import org.radarbase.management.service.dto.SourceDTO;
 import org.radarbase.management.service.dto.SourceTypeDTO;
 import org.radarbase.management.service.dto.SubjectDTO;
+import org.radarbase.management.service.dto.SubjectEnrollmentResultDTO;
 import org.radarbase.management.service.mapper.SubjectMapper;
 import org.radarbase.management.web.rest.criteria.SubjectCriteria;
 import org.radarbase.management.web.rest.errors.BadRequestException;
@@ -29,9 +35,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -44,8 +52,14 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.radarbase.auth.authorization.Permission.PROJECT_CREATE;
 import static org.radarbase.auth.authorization.Permission.PROJECT_DELETE;
@@ -53,7 +67,9 @@ import static org.radarbase.auth.authorization.Permission.PROJECT_READ;
 import static org.radarbase.auth.authorization.Permission.PROJECT_UPDATE;
 import static org.radarbase.auth.authorization.Permission.ROLE_READ;
 import static org.radarbase.auth.authorization.Permission.SOURCE_READ;
+import static org.radarbase.auth.authorization.Permission.SUBJECT_CREATE;
 import static org.radarbase.auth.authorization.Permission.SUBJECT_READ;
+import static org.radarbase.management.web.rest.errors.EntityName.SUBJECT;
 import static org.radarbase.management.web.rest.errors.ErrorConstants.ERR_PROJECT_NOT_EMPTY;
 import static org.radarbase.management.web.rest.errors.ErrorConstants.ERR_VALIDATION;
 
@@ -68,6 +84,12 @@ public class ProjectResource {
 
     private static final String ENTITY_NAME = "project";
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    /** Subject properties that can be set from a column of a subject CSV file. */
+    private static final Set<String> CSV_SUBJECT_PROPERTIES = Set.of("login", "externalId",
+            "externalLink", "personName", "dateOfBirth", "enrollmentDate", "group", "status");
+
     @Autowired
     private ProjectRepository projectRepository;
 
@@ -89,6 +111,9 @@ public class ProjectResource {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * POST  /projects : Create a new project.
      *
@@ -356,7 +381,7 @@ public class ProjectResource {
 
         log.debug("REST request to get all subjects for project {} using criteria {}", projectName,
                 subjectCriteria);
-        Page<SubjectDTO> page = subjectService.findAll(subjectCriteria)
+        Slice<SubjectDTO> page = subjectService.findAll(subjectCriteria)
                 .map(subjectMapper::subjectToSubjectWithoutProjectDTO);
 
         String baseUri = HeaderUtil.buildPath("api", "projects", projectName, "subjects");
@@ -364,4 +389,79 @@ public class ProjectResource {
                 page, baseUri, subjectCriteria);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
+
+    /**
+     * POST  /projects/{projectName}/subjects : enroll subjects in a project in bulk.
+     *
+     * @param projectName name of the project to enroll the subjects in
+     * @param subjectDtos the subjects to create; their projects are ignored
+     * @return the ResponseEntity with status 200 (OK) and with body the result of each subject,
+     *      in the order of the request, or with status 404 (Not Found) if there is no such
+     *      project
+     * @see SubjectService#createSubjects(ProjectDTO, List)
+     */
+    @PostMapping(value = "/projects/{projectName:" + Constants.ENTITY_ID_REGEX + "}/subjects",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Timed
+    public ResponseEntity<List<SubjectEnrollmentResultDTO>> createSubjects(
+            @PathVariable String projectName, @RequestBody List<SubjectDTO> subjectDtos)
+            throws NotAuthorizedException {
+        ProjectDTO projectDto = projectService.findOneByName(projectName);
+        authService.checkPermission(SUBJECT_CREATE, e -> e
+                .organization(projectDto.getOrganization().getName())
+                .project(projectDto.getProjectName()));
+        log.debug("REST request to create {} subjects in project {}", subjectDtos.size(),
+                projectName);
+        return ResponseEntity.ok(subjectService.createSubjects(projectDto, subjectDtos));
+    }
+
+    /**
+     * POST  /projects/{projectName}/subjects : enroll subjects in a project in bulk from a CSV
+     * file. The file has a header, and each row is a subject. Columns named after a subject
+     * property ({@code login}, {@code externalId}, {@code externalLink}, {@code personName},
+     * {@code dateOfBirth}, {@code enrollmentDate}, {@code group} or {@code status}) set that
+     * property, other columns set a subject attribute. Empty values are ignored.
+     *
+     * @param projectName name of the project to enroll the subjects in
+     * @param csv CSV file with subjects
+     * @return the ResponseEntity with status 200 (OK) and with body the result of each row, in
+     *      the order of the file, with status 400 (Bad Request) if the file cannot be parsed,
+     *      or with status 404 (Not Found) if there is no such project
+     */
+    @PostMapping(value = "/projects/{projectName:" + Constants.ENTITY_ID_REGEX + "}/subjects",
+            consumes = TEXT_CSV_VALUE)
+    @Timed
+    public ResponseEntity<List<SubjectEnrollmentResultDTO>> createSubjectsFromCsv(
+            @PathVariable String projectName, InputStream csv) throws NotAuthorizedException {
+        return createSubjects(projectName, readSubjectsCsv(csv));
+    }
+
+    private List<SubjectDTO> readSubjectsCsv(InputStream csv) {
+        ObjectReader reader = new CsvMapper()
+                .readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader());
+        List<SubjectDTO> subjects = new ArrayList<>();
+        try (MappingIterator<Map<String, String>> rows = reader.readValues(csv)) {
+            while (rows.hasNextValue()) {
+                Map<String, Object> properties = new HashMap<>();
+                Map<String, String> attributes = new HashMap<>();
+                rows.nextValue().forEach((column, value) -> {
+                    if (value.isEmpty()) {
+                        return;
+                    }
+                    if (CSV_SUBJECT_PROPERTIES.contains(column)) {
+                        properties.put(column, value);
+                    } else {
+                        attributes.put(column, value);
+                    }
+                });
+                properties.put("attributes", attributes);
+                subjects.add(objectMapper.convertValue(properties, SubjectDTO.class));
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new BadRequestException("Cannot read subjects from CSV file at row "
+                    + (subjects.size() + 1) + ": " + ex.getMessage(), SUBJECT, ERR_VALIDATION);
+        }
+        return subjects;
+    }
 }
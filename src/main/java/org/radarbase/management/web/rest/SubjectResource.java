@@ -1,5 +1,8 @@
 package org.radarbase.management.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.micrometer.core.annotation.Timed;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -36,8 +39,10 @@ import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -48,9 +53,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -82,6 +94,9 @@ public class SubjectResource {
 
     private static final Logger log = LoggerFactory.getLogger(SubjectResource.class);
 
+    /** Timeout of a subject export, which may take longer than other asynchronous requests. */
+    private static final Duration EXPORT_TIMEOUT = Duration.ofHours(1);
+
     @Autowired
     private SubjectService subjectService;
 
@@ -108,6 +123,9 @@ public class SubjectResource {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * POST  /subjects : Create a new subject.
      *
@@ -248,14 +266,14 @@ public class SubjectResource {
                             subjectMapper.subjectToSubjectReducedProjectDTO(s)));
             return wrapOrNotFound(subject);
         } else if (projectName == null && externalId != null) {
-            Page<SubjectDTO> page = subjectService.findAll(subjectCriteria)
+            Slice<SubjectDTO> page = subjectService.findAll(subjectCriteria)
                     .map(s -> subjectMapper.subjectToSubjectWithoutProjectDTO(s));
 
             HttpHeaders headers = PaginationUtil.generateSubjectPaginationHttpHeaders(
                     page, "/api/subjects", subjectCriteria);
             return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
         } else {
-            Page<SubjectDTO> page = subjectService.findAll(subjectCriteria)
+            Slice<SubjectDTO> page = subjectService.findAll(subjectCriteria)
                     .map(subjectMapper::subjectToSubjectWithoutProjectDTO);
 
             HttpHeaders headers = PaginationUtil.generateSubjectPaginationHttpHeaders(
@@ -264,6 +282,50 @@ public class SubjectResource {
         }
     }
 
+    /**
+     * GET  /subjects/export : export all subjects matching the criteria as newline-delimited
+     * JSON, one subject per line. Unlike {@link #getAllSubjects(SubjectCriteria)}, the
+     * subjects are not paginated but streamed in the sort order of the criteria. An export can
+     * be continued after the last subject that was received. Exports may take longer than other
+     * asynchronous requests, so they time out after {@link #EXPORT_TIMEOUT}.
+     *
+     * @param subjectCriteria filter and sort of the subjects; the page is ignored.
+     * @param response response to write the subjects to, with status 200 (OK)
+     * @return the task that writes the subjects
+     */
+    @GetMapping(value = "/subjects/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Timed
+    public WebAsyncTask<Void> exportSubjects(
+            @Valid SubjectCriteria subjectCriteria,
+            HttpServletResponse response
+    ) throws NotAuthorizedException {
+        String projectName = subjectCriteria.getProjectName();
+        authService.checkPermission(SUBJECT_READ, e -> e.project(projectName));
+        log.debug("REST request to export subjects using criteria {}", subjectCriteria);
+
+        // Each subject must be written on a single line.
+        ObjectWriter writer = objectMapper.writerFor(SubjectDTO.class)
+                .without(SerializationFeature.INDENT_OUTPUT);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(EXPORT_TIMEOUT.toMillis(), () -> {
+            OutputStream bufferedOut = new BufferedOutputStream(response.getOutputStream());
+            subjectService.processAll(subjectCriteria, subjects -> {
+                try {
+                    for (Subject subject : subjects) {
+                        bufferedOut.write(writer.writeValueAsBytes(
+                                subjectMapper.subjectToSubjectWithoutProjectDTO(subject)));
+                        bufferedOut.write('\n');
+                    }
+                    bufferedOut.flush();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException("Failed to write subjects", ex);
+                }
+            });
+            bufferedOut.flush();
+            return null;
+        });
+    }
+
     /**
      * GET  /subjects/:login : get the "login" subject.
      *
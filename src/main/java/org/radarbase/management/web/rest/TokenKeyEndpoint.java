@@ -1,20 +1,41 @@
 package org.radarbase.management.web.rest;
 
 import io.micrometer.core.annotation.Timed;
+import org.radarbase.auth.jwks.JsonWebKey;
 import org.radarbase.auth.jwks.JsonWebKeySet;
 import org.radarbase.management.security.jwt.ManagementPortalOauthKeyStoreHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 
 @RestController
 public class TokenKeyEndpoint {
     private static final Logger logger = LoggerFactory.getLogger(TokenKeyEndpoint.class);
 
+    /**
+     * Time that clients may use the key set before checking it again. Keys only change when
+     * the key store changes, and clients fetch the key set again for tokens signed by unknown
+     * keys, so this does not need to be short.
+     */
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1))
+            .cachePublic();
+
     private final ManagementPortalOauthKeyStoreHandler keyStoreHandler;
 
+    private volatile JsonWebKeySetResponse keySetResponse;
+
     @Autowired
     public TokenKeyEndpoint(
             ManagementPortalOauthKeyStoreHandler keyStoreHandler
@@ -24,14 +45,53 @@ public class TokenKeyEndpoint {
 
     /**
      * Get the verification key for the token signatures. The principal has to
-     * be provided only if the key is secret
+     * be provided only if the key is secret. The response has an ETag, so clients can check
+     * whether the keys changed with a conditional request.
      *
-     * @return the key used to verify tokens
+     * @param request request to check the ETag of
+     * @return the key used to verify tokens, or a Not Modified response
      */
     @GetMapping("/oauth/token_key")
     @Timed
-    public JsonWebKeySet getKey() {
-        logger.debug("Requesting verifier public keys...");
-        return keyStoreHandler.loadJwks();
+    public ResponseEntity<JsonWebKeySet> getKey(WebRequest request) {
+        JsonWebKeySetResponse response = loadKeySet();
+        if (request.checkNotModified(response.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CACHE_CONTROL)
+                    .eTag(response.eTag())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .eTag(response.eTag())
+                .body(response.keySet());
+    }
+
+    private JsonWebKeySetResponse loadKeySet() {
+        JsonWebKeySetResponse response = keySetResponse;
+        if (response == null) {
+            logger.debug("Requesting verifier public keys...");
+            JsonWebKeySet keySet = keyStoreHandler.loadJwks();
+            response = new JsonWebKeySetResponse(keySet, eTag(keySet));
+            keySetResponse = response;
+        }
+        return response;
+    }
+
+    /** ETag of the key set, which is the same on each instance with the same keys. */
+    private static String eTag(JsonWebKeySet keySet) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (JsonWebKey key : keySet.getKeys()) {
+                digest.update(key.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return '"' + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(digest.digest()) + '"';
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+    }
+
+    private record JsonWebKeySetResponse(JsonWebKeySet keySet, String eTag) {
     }
 }
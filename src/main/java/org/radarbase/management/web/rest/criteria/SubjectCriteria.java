@@ -39,6 +39,7 @@ public class SubjectCriteria {
     private String projectName = null;
     private String externalId = null;
     private String login = null;
+    private boolean count = true;
 
     @Transient
     private List<SubjectSortOrder> parsedSort = null;
@@ -105,6 +106,18 @@ public class SubjectCriteria {
         this.page = page;
     }
 
+    /**
+     * Whether to count the total number of matching subjects. If false, only a slice of
+     * subjects is returned, which only knows whether a next page exists.
+     */
+    public boolean isCount() {
+        return count;
+    }
+
+    public void setCount(boolean count) {
+        this.count = count;
+    }
+
     public int getSize() {
         return size;
     }
@@ -233,6 +246,7 @@ public class SubjectCriteria {
                 + ", projectName='" + projectName + '\''
                 + ", externalId='" + externalId + '\''
                 + ", login='" + login + '\''
+                + ", count=" + count
                 + '}';
     }
 }
@@ -4,6 +4,7 @@ import org.radarbase.management.service.dto.SubjectDTO;
 import org.radarbase.management.web.rest.criteria.CriteriaRange;
 import org.radarbase.management.web.rest.criteria.SubjectCriteria;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -61,18 +62,26 @@ public final class PaginationUtil {
     }
 
     /**
-     * Generate pagination HTTP headers for subjects given a subject filter.
-     * @param page the page
+     * Generate pagination HTTP headers for subjects given a subject filter. The total count is
+     * only included if the subjects are a {@link Page}. A slice without total count only
+     * has a next link if it has a next slice.
+     * @param page the page or slice
      * @param baseUrl the base URL
      * @param criteria subject criteria
      * @return the {@link HttpHeaders}
      */
     public static HttpHeaders generateSubjectPaginationHttpHeaders(
-            Page<SubjectDTO> page, String baseUrl, SubjectCriteria criteria
+            Slice<SubjectDTO> page, String baseUrl, SubjectCriteria criteria
     ) {
         HttpHeaders headers = new HttpHeaders();
-        headers.add("X-Total-Count", Long.toString(page.getTotalElements()));
-        if (!page.isEmpty()) {
+        boolean hasNext;
+        if (page instanceof Page<SubjectDTO> countedPage) {
+            headers.add("X-Total-Count", Long.toString(countedPage.getTotalElements()));
+            hasNext = !page.isEmpty();
+        } else {
+            hasNext = page.hasNext();
+        }
+        if (hasNext) {
             String link = '<'
                     + generateUri(page, baseUrl, criteria)
                     + ">; rel=\"next\"";
@@ -88,7 +97,7 @@ public final class PaginationUtil {
                 .toUriString();
     }
 
-    private static String generateUri(Page<SubjectDTO> page, String baseUrl,
+    private static String generateUri(Slice<SubjectDTO> page, String baseUrl,
             SubjectCriteria criteria) {
         UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(baseUrl);
         generateUriCriteriaRange(builder, "dateOfBirth", criteria.getDateOfBirth());
@@ -106,6 +115,9 @@ public final class PaginationUtil {
         }
         generateUriParam(builder, "size", criteria.getSize());
         generateUriParam(builder, "page", criteria.getPage());
+        if (!criteria.isCount()) {
+            generateUriParam(builder, "count", false);
+        }
         if (criteria.getSort() != null) {
             criteria.getParsedSort().forEach(order -> generateUriParam(builder, "sort",
                     order.getSortBy().getQueryParam() + ','
@@ -2,12 +2,12 @@ package org.radarbase.auth.authentication;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.radarbase.auth.authorization.Permission;
-import org.radarbase.management.domain.Authority;
-import org.radarbase.management.domain.Role;
-import org.radarbase.management.domain.User;
 import org.radarbase.management.repository.UserRepository;
+import org.radarbase.management.repository.UserRepository.RoleReference;
 import org.radarbase.management.security.JwtAuthenticationFilter;
+import org.radarbase.management.security.UserAuthorityCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.test.web.servlet.request.RequestPostProcessor;
@@ -22,8 +22,7 @@ import java.security.interfaces.RSAPublicKey;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.anyString;
@@ -136,8 +135,12 @@ public final class OAuthHelper {
      */
     public static JwtAuthenticationFilter createAuthenticationFilter() {
         UserRepository userRepository = mock(UserRepository.class);
-        when(userRepository.findOneByLogin(anyString())).thenReturn(Optional.of(createAdminUser()));
-        return new JwtAuthenticationFilter(createTokenValidator(), auth -> auth, userRepository);
+        when(userRepository.findRoleReferencesByLogin(anyString()))
+                .thenReturn(List.of(createAdminRoleReference()));
+        UserAuthorityCache userAuthorityCache = new UserAuthorityCache(
+                userRepository, new ConcurrentHashMap<>(), new SimpleMeterRegistry());
+        return new JwtAuthenticationFilter(
+                createTokenValidator(), auth -> auth, userAuthorityCache);
     }
 
     /**
@@ -150,15 +153,23 @@ public final class OAuthHelper {
         return new TokenValidator(verifiers);
     }
 
-    private static User createAdminUser() {
-        User user = new User();
-        user.setId(1L);
-        user.setLogin("admin");
-        user.setActivated(true);
-        user.setRoles(Set.of(
-            new Role(new Authority("ROLE_SYS_ADMIN"))
-        ));
-        return user;
+    private static RoleReference createAdminRoleReference() {
+        return new RoleReference() {
+            @Override
+            public String getAuthority() {
+                return "ROLE_SYS_ADMIN";
+            }
+
+            @Override
+            public String getProjectName() {
+                return null;
+            }
+
+            @Override
+            public String getOrganizationName() {
+                return null;
+            }
+        };
     }
 
     private static String createValidToken(Algorithm algorithm) {
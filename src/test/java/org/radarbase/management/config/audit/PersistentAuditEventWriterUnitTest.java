@@ -0,0 +1,107 @@
+package org.radarbase.management.config.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.radarbase.management.config.ManagementPortalProperties;
+import org.radarbase.management.domain.PersistentAuditEvent;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the PersistentAuditEventWriter.
+ *
+ * @see PersistentAuditEventWriter
+ */
+class PersistentAuditEventWriterUnitTest {
+    private EntityManager entityManager;
+    private PlatformTransactionManager transactionManager;
+    private ManagementPortalProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any()))
+                .thenReturn(new SimpleTransactionStatus());
+        properties = new ManagementPortalProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testWriteSynchronously() {
+        properties.getAudit().setAsynchronous(false);
+        PersistentAuditEventWriter writer = createWriter();
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        writer.write(event);
+        verify(entityManager).persist(event);
+        assertThat(count("written")).isEqualTo(1.0);
+    }
+
+    @Test
+    void testDropWhenQueueFull() throws InterruptedException {
+        properties.getAudit().setQueueCapacity(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            writing.countDown();
+            assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            return new SimpleTransactionStatus();
+        });
+        PersistentAuditEventWriter writer = createWriter();
+        writer.afterPropertiesSet();
+
+        writer.write(new PersistentAuditEvent());
+        assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+        // the writer is busy, so one event fits in the queue and the next one is dropped
+        writer.write(new PersistentAuditEvent());
+        writer.write(new PersistentAuditEvent());
+        release.countDown();
+        writer.destroy();
+
+        verify(entityManager, times(2)).persist(any());
+        assertThat(count("written")).isEqualTo(2.0);
+        assertThat(count("dropped")).isEqualTo(1.0);
+    }
+
+    @Test
+    void testFlushQueueOnShutdown() throws InterruptedException {
+        PersistentAuditEventWriter writer = createWriter();
+        // events that are queued when the writer thread has already stopped
+        ReflectionTestUtils.setField(writer, "running", true);
+        writer.write(new PersistentAuditEvent());
+        writer.write(new PersistentAuditEvent());
+        verify(entityManager, never()).persist(any());
+
+        writer.destroy();
+
+        verify(entityManager, times(2)).persist(any());
+        assertThat(count("written")).isEqualTo(2.0);
+        assertThat(count("dropped")).isZero();
+    }
+
+    private PersistentAuditEventWriter createWriter() {
+        return new PersistentAuditEventWriter(entityManager, transactionManager, properties,
+                meterRegistry);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("audit.events").tags("result", result).counter().count();
+    }
+}
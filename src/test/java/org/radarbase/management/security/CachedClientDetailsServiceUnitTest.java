@@ -0,0 +1,60 @@
+package org.radarbase.management.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.NoSuchClientException;
+import org.springframework.security.oauth2.provider.client.BaseClientDetails;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the CachedClientDetailsService.
+ *
+ * @see CachedClientDetailsService
+ */
+class CachedClientDetailsServiceUnitTest {
+    private ClientDetailsService delegate;
+    private CachedClientDetailsService cache;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ClientDetailsService.class);
+        when(delegate.loadClientByClientId("client"))
+                .thenReturn(new BaseClientDetails("client", null, "read", "password", null));
+        when(delegate.loadClientByClientId("unknown"))
+                .thenThrow(new NoSuchClientException("No client with requested id: unknown"));
+        cache = new CachedClientDetailsService(delegate, new ConcurrentHashMap<>(),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testLoadClientCached() {
+        assertThat(cache.loadClientByClientId("client").getClientId()).isEqualTo("client");
+        assertThat(cache.loadClientByClientId("client").getClientId()).isEqualTo("client");
+        verify(delegate, times(1)).loadClientByClientId("client");
+    }
+
+    @Test
+    void testUnknownClientNotCached() {
+        assertThrows(NoSuchClientException.class, () -> cache.loadClientByClientId("unknown"));
+        assertThrows(NoSuchClientException.class, () -> cache.loadClientByClientId("unknown"));
+        verify(delegate, times(2)).loadClientByClientId("unknown");
+    }
+
+    @Test
+    void testEvict() {
+        cache.loadClientByClientId("client");
+        cache.evict("client");
+        cache.loadClientByClientId("client");
+        verify(delegate, times(2)).loadClientByClientId("client");
+    }
+}
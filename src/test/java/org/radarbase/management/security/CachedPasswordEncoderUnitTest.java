@@ -0,0 +1,79 @@
+package org.radarbase.management.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the CachedPasswordEncoder.
+ *
+ * @see CachedPasswordEncoder
+ */
+class CachedPasswordEncoderUnitTest {
+    private PasswordEncoder delegate;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(PasswordEncoder.class);
+        when(delegate.matches("secret", "hash")).thenReturn(true);
+        when(delegate.matches("secret", "otherHash")).thenReturn(false);
+        when(delegate.matches("wrong", "hash")).thenReturn(false);
+    }
+
+    @Test
+    void testMatchRemembered() {
+        PasswordEncoder encoder = new CachedPasswordEncoder(delegate, Duration.ofMinutes(1), 10,
+                new SimpleMeterRegistry());
+        assertThat(encoder.matches("secret", "hash")).isTrue();
+        assertThat(encoder.matches("secret", "hash")).isTrue();
+        verify(delegate, times(1)).matches("secret", "hash");
+
+        // a changed secret has a different hash
+        assertThat(encoder.matches("secret", "otherHash")).isFalse();
+    }
+
+    @Test
+    void testMismatchNotRemembered() {
+        PasswordEncoder encoder = new CachedPasswordEncoder(delegate, Duration.ofMinutes(1), 10,
+                new SimpleMeterRegistry());
+        assertThat(encoder.matches("wrong", "hash")).isFalse();
+        assertThat(encoder.matches("wrong", "hash")).isFalse();
+        verify(delegate, times(2)).matches("wrong", "hash");
+    }
+
+    @Test
+    void testMatchExpires() {
+        PasswordEncoder encoder = new CachedPasswordEncoder(delegate, Duration.ZERO, 10,
+                new SimpleMeterRegistry());
+        assertThat(encoder.matches("secret", "hash")).isTrue();
+        assertThat(encoder.matches("secret", "hash")).isTrue();
+        verify(delegate, times(2)).matches("secret", "hash");
+    }
+
+    @Test
+    void testLeastRecentlyUsedMatchEvicted() {
+        when(delegate.matches("secret2", "hash2")).thenReturn(true);
+        when(delegate.matches("secret3", "hash3")).thenReturn(true);
+        PasswordEncoder encoder = new CachedPasswordEncoder(delegate, Duration.ofMinutes(1), 2,
+                new SimpleMeterRegistry());
+        assertThat(encoder.matches("secret", "hash")).isTrue();
+        assertThat(encoder.matches("secret2", "hash2")).isTrue();
+        assertThat(encoder.matches("secret", "hash")).isTrue();
+        // the cache is full, so only the least recently used check is forgotten
+        assertThat(encoder.matches("secret3", "hash3")).isTrue();
+
+        assertThat(encoder.matches("secret", "hash")).isTrue();
+        assertThat(encoder.matches("secret2", "hash2")).isTrue();
+        verify(delegate, times(1)).matches("secret", "hash");
+        verify(delegate, times(2)).matches("secret2", "hash2");
+    }
+}
@@ -0,0 +1,118 @@
+package org.radarbase.management.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.radarbase.auth.authorization.AuthorityReference;
+import org.radarbase.auth.authorization.RoleAuthority;
+import org.radarbase.auth.token.DataRadarToken;
+import org.radarbase.auth.token.JwtRadarToken;
+import org.radarbase.auth.token.RadarToken;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.session.MapSession;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the SessionSerializers.
+ *
+ * @see SessionSerializers
+ */
+class SessionSerializersUnitTest {
+    private static final Set<AuthorityReference> ROLES = Set.of(
+            new AuthorityReference(RoleAuthority.SYS_ADMIN),
+            new AuthorityReference(RoleAuthority.PROJECT_ADMIN, "radar"));
+
+    private static HazelcastInstance hazelcastInstance;
+    private static SerializationService serializationService;
+
+    @BeforeAll
+    static void setUp() {
+        Config config = new Config();
+        config.setClusterName("session-serializers-test");
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        SessionSerializers.register(config.getSerializationConfig());
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+        serializationService = ((SerializationServiceSupport) hazelcastInstance)
+                .getSerializationService();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        hazelcastInstance.shutdown();
+    }
+
+    @Test
+    void testDataRadarToken() throws IOException {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        MapSession session = session(new DataRadarToken(
+                ROLES, Set.of("SUBJECT.READ", "PROJECT.READ"), List.of(), "password",
+                "admin", "admin", now, now.plus(Duration.ofHours(1)),
+                List.of("res_ManagementPortal"),
+                "token", "ManagementPortal", "JWT", "ManagementPortalapp"));
+
+        assertSameSession(session);
+    }
+
+    @Test
+    void testJwtRadarToken() throws IOException {
+        String jwt = JWT.create()
+                .withSubject("admin")
+                .withClaim("user_name", "admin")
+                .withArrayClaim("scope", new String[] {"SUBJECT.READ"})
+                .withExpiresAt(Instant.now().plus(Duration.ofHours(1)))
+                .sign(Algorithm.HMAC256("secret"));
+        RadarToken token = new JwtRadarToken(JWT.decode(jwt)).copyWithRoles(ROLES);
+
+        assertSameSession(session(token));
+    }
+
+    private static MapSession session(RadarToken token) {
+        MapSession session = new MapSession();
+        session.setAttribute("jwt", token);
+        session.setAttribute("SPRING_SECURITY_CONTEXT",
+                new SecurityContextImpl(new RadarAuthentication(token)));
+        return session;
+    }
+
+    private static void assertSameSession(MapSession session) throws IOException {
+        var data = serializationService.toData(session);
+        MapSession result = serializationService.toObject(data);
+
+        RadarToken token = session.getAttribute("jwt");
+        RadarToken resultToken = result.getAttribute("jwt");
+        assertThat(resultToken).isEqualTo(token);
+        assertThat(resultToken.getRoles()).isEqualTo(ROLES);
+        SecurityContextImpl context = result.getAttribute("SPRING_SECURITY_CONTEXT");
+        assertThat(context.getAuthentication()).isInstanceOf(RadarAuthentication.class);
+        assertThat(context.getAuthentication().getCredentials()).isEqualTo(token);
+        assertThat(context.getAuthentication().getName()).isEqualTo("admin");
+
+        assertThat(data.totalSize()).isLessThan(javaSerializedSize(session));
+    }
+
+    private static int javaSerializedSize(MapSession session) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(session);
+        }
+        return bytes.size();
+    }
+}
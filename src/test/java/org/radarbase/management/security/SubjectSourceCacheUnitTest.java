@@ -0,0 +1,52 @@
+package org.radarbase.management.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.radarbase.management.repository.SubjectRepository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the SubjectSourceCache.
+ *
+ * @see SubjectSourceCache
+ */
+class SubjectSourceCacheUnitTest {
+    private static final UUID SOURCE_ID = UUID.fromString("b6b2e36c-3f5a-4a28-9c4e-2c7d5a0b1f3e");
+
+    private SubjectRepository subjectRepository;
+    private SubjectSourceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        subjectRepository = mock(SubjectRepository.class);
+        when(subjectRepository.findSourceIdsBySubjectLogin("subject"))
+                .thenReturn(List.of(SOURCE_ID));
+        cache = new SubjectSourceCache(subjectRepository, new ConcurrentHashMap<>(),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testFindSourceIdsCached() {
+        assertThat(cache.findSourceIds("subject")).containsExactly(SOURCE_ID.toString());
+        assertThat(cache.findSourceIds("subject")).containsExactly(SOURCE_ID.toString());
+        verify(subjectRepository, times(1)).findSourceIdsBySubjectLogin("subject");
+    }
+
+    @Test
+    void testEvict() {
+        cache.findSourceIds("subject");
+        cache.evict("subject");
+        cache.findSourceIds("subject");
+        verify(subjectRepository, times(2)).findSourceIdsBySubjectLogin("subject");
+    }
+}
@@ -0,0 +1,132 @@
+package org.radarbase.management.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.radarbase.management.ManagementPortalTestApp;
+import org.radarbase.management.service.OAuthClientService;
+import org.radarbase.management.service.dto.ClientDetailsDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.radarbase.management.service.OAuthClientServiceTestUtil.createClient;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for the TokenEndpointExceptionTranslator, with password operations that are
+ * rejected by the {@link BoundedPasswordEncoder}.
+ *
+ * @see TokenEndpointExceptionTranslator
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ManagementPortalTestApp.class)
+class TokenEndpointExceptionTranslatorIntTest {
+    private static final String CLIENT_ID = "TOKEN_ENDPOINT_TEST_CLIENT";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private OAuthClientService oAuthClientService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private MockMvc mockMvc;
+
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+        ClientDetailsDTO client = createClient();
+        client.setClientId(CLIENT_ID);
+        client.setScope(Set.of("SUBJECT.READ"));
+        client.setAutoApproveScopes(Set.of("SUBJECT.READ"));
+        oAuthClientService.createClientDetail(client);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        oAuthClientService.deleteClientDetails(CLIENT_ID);
+    }
+
+    @Test
+    void testPasswordGrantRejected() throws Exception {
+        // authenticate the client once, so that its secret is cached
+        mockMvc.perform(passwordGrant())
+                .andExpect(status().isOk());
+
+        saturatePasswordEncoder();
+
+        mockMvc.perform(passwordGrant())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.error").value("temporarily_unavailable"));
+    }
+
+    @Test
+    void testClientAuthenticationRejected() throws Exception {
+        saturatePasswordEncoder();
+
+        mockMvc.perform(passwordGrant())
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.error").value("temporarily_unavailable"));
+    }
+
+    private MockHttpServletRequestBuilder passwordGrant() {
+        return post("/oauth/token")
+                .with(httpBasic(CLIENT_ID, "TEST_SECRET"))
+                .param("grant_type", "password")
+                .param("username", "admin")
+                .param("password", "admin");
+    }
+
+    /** Occupy all hashing threads and queue slots until {@link #release} is counted down. */
+    private void saturatePasswordEncoder() throws InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(
+                passwordEncoder, "executor");
+        // tasks that are still queued after this test must not wait for the latch of the next one
+        CountDownLatch latch = release;
+        Runnable blocking = () -> {
+            try {
+                latch.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        for (int i = 0; i < executor.getMaximumPoolSize(); i++) {
+            executor.execute(blocking);
+        }
+        // only fill the queue when no hashing thread can take tasks from it anymore
+        while (executor.getActiveCount() < executor.getMaximumPoolSize()) {
+            Thread.sleep(10);
+        }
+        while (executor.getQueue().remainingCapacity() > 0) {
+            executor.execute(blocking);
+        }
+    }
+}
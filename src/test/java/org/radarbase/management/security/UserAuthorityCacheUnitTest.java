@@ -0,0 +1,106 @@
+package org.radarbase.management.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.radarbase.auth.authorization.AuthorityReference;
+import org.radarbase.auth.authorization.RoleAuthority;
+import org.radarbase.management.repository.UserRepository;
+import org.radarbase.management.repository.UserRepository.RoleReference;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the UserAuthorityCache.
+ *
+ * @see UserAuthorityCache
+ */
+class UserAuthorityCacheUnitTest {
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private UserAuthorityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findRoleReferencesByLogin("admin"))
+                .thenReturn(List.of(roleReference("ROLE_SYS_ADMIN", null, null)));
+        when(userRepository.findRoleReferencesByLogin("participant"))
+                .thenReturn(List.of(roleReference("ROLE_PARTICIPANT", "radar", null)));
+        when(userRepository.findRoleReferencesByLogin("noroles"))
+                .thenReturn(List.of(roleReference(null, null, null)));
+        when(userRepository.findRoleReferencesByLogin("unknown")).thenReturn(List.of());
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserAuthorityCache(userRepository, new ConcurrentHashMap<>(), meterRegistry);
+    }
+
+    @Test
+    void testFindAuthoritiesCached() {
+        Set<AuthorityReference> expected = Set.of(
+                new AuthorityReference(RoleAuthority.SYS_ADMIN, null));
+        assertThat(cache.findAuthorities("admin")).isEqualTo(expected);
+        assertThat(cache.findAuthorities("admin")).isEqualTo(expected);
+        verify(userRepository, times(1)).findRoleReferencesByLogin("admin");
+        assertThat(count("hit")).isEqualTo(1.0);
+        assertThat(count("miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    void testFindAuthoritiesUnknownUser() {
+        assertThat(cache.findAuthorities("unknown")).isNull();
+        assertThat(cache.findAuthorities("unknown")).isNull();
+        verify(userRepository, times(2)).findRoleReferencesByLogin("unknown");
+    }
+
+    @Test
+    void testFindAuthoritiesWithReferent() {
+        assertThat(cache.findAuthorities("participant")).isEqualTo(Set.of(
+                new AuthorityReference(RoleAuthority.PARTICIPANT, "radar")));
+        assertThat(cache.findAuthorities("noroles")).isEmpty();
+    }
+
+    @Test
+    void testEvict() {
+        cache.findAuthorities("admin");
+        cache.evict("admin");
+        cache.findAuthorities("admin");
+        cache.evictAll();
+        cache.findAuthorities("admin");
+        verify(userRepository, times(3)).findRoleReferencesByLogin("admin");
+    }
+
+    private static RoleReference roleReference(String authority, String projectName,
+            String organizationName) {
+        return new RoleReference() {
+            @Override
+            public String getAuthority() {
+                return authority;
+            }
+
+            @Override
+            public String getProjectName() {
+                return projectName;
+            }
+
+            @Override
+            public String getOrganizationName() {
+                return organizationName;
+            }
+        };
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("cache.gets")
+                .tags("cache", UserAuthorityCache.USER_AUTHORITY_MAP, "result", result)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,115 @@
+package org.radarbase.management.security.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.radarbase.management.security.jwt.algorithm.EcdsaJwtAlgorithm;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.DefaultAccessTokenConverter;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the JwtTokenEncoder.
+ *
+ * @see JwtTokenEncoder
+ */
+class JwtTokenEncoderUnitTest {
+    private static final Set<String> SCOPES = Set.of("SUBJECT.READ", "PROJECT.READ");
+
+    private Algorithm algorithm;
+    private JwtTokenEncoder encoder;
+    private DefaultOAuth2AccessToken token;
+
+    @BeforeEach
+    void setUp() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        algorithm = new EcdsaJwtAlgorithm(generator.generateKeyPair(), "key1").getAlgorithm();
+        encoder = new JwtTokenEncoder(algorithm);
+
+        token = new DefaultOAuth2AccessToken("token1");
+        token.setScope(SCOPES);
+        token.setExpiration(Date.from(Instant.now().plus(Duration.ofHours(1))));
+        token.setAdditionalInformation(Map.of(
+                "sub", "admin",
+                "iss", "ManagementPortal",
+                "iat", Instant.now().getEpochSecond(),
+                "jti", "token1",
+                "roles", List.of("PROJECT1:ROLE_PROJECT_ADMIN"),
+                "sources", List.of()));
+    }
+
+    @Test
+    void testUserToken() {
+        List<GrantedAuthority> authorities = List.of(
+                new SimpleGrantedAuthority("ROLE_PROJECT_ADMIN"));
+        OAuth2Request request = new OAuth2Request(Map.of("grant_type", "password"),
+                "ManagementPortalapp", authorities, true, SCOPES,
+                Set.of("res_ManagementPortal", "res_gateway"), null, null, null);
+        OAuth2Authentication authentication = new OAuth2Authentication(request,
+                new UsernamePasswordAuthenticationToken("admin", null, authorities));
+
+        assertSameClaims(authentication);
+    }
+
+    @Test
+    void testClientToken() {
+        OAuth2Request request = new OAuth2Request(Map.of("grant_type", "client_credentials"),
+                "radar_restapi", List.of(new SimpleGrantedAuthority("ROLE_CLIENT")), true,
+                SCOPES, Set.of("res_ManagementPortal"), null, null, null);
+
+        assertSameClaims(new OAuth2Authentication(request, null));
+    }
+
+    private void assertSameClaims(OAuth2Authentication authentication) {
+        String encoded = encoder.encode(token, authentication);
+
+        DecodedJWT jwt = JWT.require(algorithm).build().verify(encoded);
+        assertThat(jwt.getKeyId()).isEqualTo("key1");
+        assertThat(jwt.getType()).isEqualTo("JWT");
+        assertThat(jwt.getAlgorithm()).isEqualTo("ES256");
+
+        DefaultAccessTokenConverter converter = new DefaultAccessTokenConverter();
+        converter.setIncludeGrantType(true);
+        Map<String, Object> expected = new HashMap<>(
+                converter.convertAccessToken(token, authentication));
+        Map<String, Object> actual = new HashMap<>();
+        jwt.getClaims().forEach((name, claim) -> actual.put(name, claim.as(Object.class)));
+
+        assertThat(actual.keySet()).isEqualTo(expected.keySet());
+        expected.forEach((name, value) -> {
+            if (value instanceof Collection<?> collection) {
+                assertThat(new HashSet<>((Collection<?>) actual.get(name)))
+                        .as(name)
+                        .isEqualTo(new HashSet<>(collection));
+            } else if (value instanceof Number number) {
+                assertThat(((Number) actual.get(name)).longValue())
+                        .as(name)
+                        .isEqualTo(number.longValue());
+            } else {
+                assertThat(actual.get(name)).as(name).isEqualTo(value);
+            }
+        });
+    }
+}
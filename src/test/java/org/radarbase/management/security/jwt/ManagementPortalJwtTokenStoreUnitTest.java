@@ -0,0 +1,66 @@
+package org.radarbase.management.security.jwt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the ManagementPortalJwtTokenStore.
+ *
+ * @see ManagementPortalJwtTokenStore
+ */
+class ManagementPortalJwtTokenStoreUnitTest {
+    private JwtAccessTokenConverter converter;
+    private ManagementPortalJwtTokenStore tokenStore;
+
+    @BeforeEach
+    void setUp() {
+        converter = mock(JwtAccessTokenConverter.class);
+        when(converter.decode(anyString())).thenReturn(Map.of("ati", "access"));
+        when(converter.extractAccessToken(anyString(), anyMap()))
+                .thenAnswer(invocation -> {
+                    DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(
+                            invocation.<String>getArgument(0));
+                    token.setAdditionalInformation(invocation.getArgument(1));
+                    return token;
+                });
+        when(converter.isRefreshToken(any())).thenReturn(true);
+        tokenStore = new ManagementPortalJwtTokenStore(converter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testDecodeOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest()));
+        tokenStore.readAuthenticationForRefreshToken(tokenStore.readRefreshToken("refresh"));
+        verify(converter, times(1)).decode("refresh");
+
+        tokenStore.readAuthentication("other");
+        verify(converter, times(1)).decode("other");
+    }
+
+    @Test
+    void testDecodeWithoutRequest() {
+        tokenStore.readAuthenticationForRefreshToken(tokenStore.readRefreshToken("refresh"));
+        verify(converter, times(2)).decode("refresh");
+    }
+}
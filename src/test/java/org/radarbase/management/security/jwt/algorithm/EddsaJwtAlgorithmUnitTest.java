@@ -0,0 +1,55 @@
+package org.radarbase.management.security.jwt.algorithm;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.Test;
+import org.radarbase.auth.jwks.JsonWebKey;
+import org.radarbase.auth.jwks.JwkAlgorithmParser;
+import org.radarbase.auth.jwks.MPJsonWebKey;
+import org.radarbase.auth.jwks.OKPJsonWebKey;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the EddsaJwtAlgorithm.
+ *
+ * @see EddsaJwtAlgorithm
+ */
+class EddsaJwtAlgorithmUnitTest {
+    @Test
+    void testVerifyWithJwk() throws GeneralSecurityException {
+        KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        EddsaJwtAlgorithm algorithm = new EddsaJwtAlgorithm(keyPair, "ed-key");
+        String token = JWT.create().withSubject("admin").sign(algorithm.getAlgorithm());
+
+        JsonWebKey jwk = algorithm.getJwk();
+        assertThat(jwk).isInstanceOf(OKPJsonWebKey.class);
+        OKPJsonWebKey okpKey = (OKPJsonWebKey) jwk;
+        assertThat(okpKey.getCrv()).isEqualTo("Ed25519");
+        assertThat(okpKey.getKid()).isEqualTo("ed-key");
+
+        // verify both with the raw key and with the PEM value used by older clients
+        Algorithm fromJwk = new JwkAlgorithmParser().parse(okpKey);
+        Algorithm fromPem = new JwkAlgorithmParser().parse(new MPJsonWebKey(
+                okpKey.getAlg(), okpKey.getKty(), okpKey.getValue(), okpKey.getKid()));
+        for (Algorithm verifier : new Algorithm[] {fromJwk, fromPem}) {
+            DecodedJWT jwt = JWT.require(verifier).build().verify(token);
+            assertThat(jwt.getSubject()).isEqualTo("admin");
+            assertThat(jwt.getAlgorithm()).isEqualTo("EdDSA");
+            assertThat(jwt.getKeyId()).isEqualTo("ed-key");
+        }
+    }
+
+    @Test
+    void testRejectOtherKeys() throws GeneralSecurityException {
+        KeyPair keyPair = KeyPairGenerator.getInstance("EC").generateKeyPair();
+        assertThatThrownBy(() -> new EddsaJwtAlgorithm(keyPair))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
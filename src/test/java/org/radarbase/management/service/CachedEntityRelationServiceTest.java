@@ -0,0 +1,69 @@
+package org.radarbase.management.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import kotlinx.coroutines.BuildersKt;
+import kotlinx.coroutines.Dispatchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.radarbase.management.ManagementPortalTestApp;
+import org.radarbase.management.repository.ProjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.radarbase.management.service.CachedEntityRelationService.PROJECT_ORGANIZATION_MAP;
+
+/**
+ * Test class for the CachedEntityRelationService class.
+ *
+ * @see CachedEntityRelationService
+ */
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ManagementPortalTestApp.class)
+@Transactional
+class CachedEntityRelationServiceTest {
+    @Autowired
+    private CachedEntityRelationService entityRelationService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private HazelcastInstance hazelcastInstance;
+
+    @AfterEach
+    void tearDown() {
+        hazelcastInstance.getMap(PROJECT_ORGANIZATION_MAP).clear();
+    }
+
+    @Test
+    void testFindOrganizationOfProject() throws InterruptedException {
+        String organization = projectRepository.findOneWithEagerRelationshipsByName("radar")
+                .orElseThrow()
+                .getOrganization()
+                .getName();
+
+        assertEquals(organization, findOrganizationOfProject("radar"));
+        assertEquals(organization, hazelcastInstance.getMap(PROJECT_ORGANIZATION_MAP)
+                .get("radar"));
+        assertNull(findOrganizationOfProject("unknown-project"));
+    }
+
+    @Test
+    void testEvictAll() {
+        hazelcastInstance.getMap(PROJECT_ORGANIZATION_MAP).set("some-project", "main");
+        entityRelationService.evictAll();
+        // inside a transaction, the relations are only removed after commit
+        assertEquals(1, hazelcastInstance.getMap(PROJECT_ORGANIZATION_MAP).size());
+    }
+
+    private String findOrganizationOfProject(String project) throws InterruptedException {
+        return BuildersKt.runBlocking(Dispatchers.getUnconfined(),
+                (scope, continuation) -> entityRelationService
+                        .findOrganizationOfProject(project, continuation));
+    }
+}
@@ -1,23 +1,35 @@
 package org.radarbase.management.service;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.radarbase.management.ManagementPortalTestApp;
+import org.radarbase.management.domain.Project;
 import org.radarbase.management.domain.Subject;
 import org.radarbase.management.service.dto.ProjectDTO;
 import org.radarbase.management.service.dto.SubjectDTO;
+import org.radarbase.management.service.dto.SubjectEnrollmentResultDTO;
+import org.radarbase.management.web.rest.criteria.SubjectCriteria;
+import org.radarbase.management.web.rest.criteria.SubjectCriteriaLast;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.radarbase.management.service.dto.ProjectDTO.PRIVACY_POLICY_URL;
 import static org.radarbase.management.service.dto.SubjectDTO.SubjectStatus.ACTIVATED;
+import static org.radarbase.management.web.rest.errors.ErrorConstants.ERR_GROUP_NOT_FOUND;
+import static org.radarbase.management.web.rest.errors.ErrorConstants.ERR_VALIDATION;
 
 /**
  * Test class for the SubjectService class.
@@ -93,4 +105,168 @@ public class SubjectServiceTest {
 
     }
 
+    @Test
+    @Transactional
+    void testFindAllPagesByLast() {
+        projectService.save(createEntityDTO().getProject());
+        for (int i = 0; i < 3; i++) {
+            subjectService.createSubject(createEntityDTO());
+        }
+
+        SubjectCriteria criteria = new SubjectCriteria();
+        criteria.setProjectName("Radar");
+        criteria.setSort(List.of("login,desc"));
+        criteria.setSize(100);
+        List<String> allLogins = subjectLogins(subjectService.findAll(criteria));
+        assertThat(allLogins).hasSizeGreaterThanOrEqualTo(3);
+
+        criteria.setSize(2);
+        Slice<Subject> firstPage = subjectService.findAll(criteria);
+        assertThat(firstPage).isInstanceOf(Page.class);
+        assertEquals(allLogins.size(), ((Page<Subject>) firstPage).getTotalElements());
+        assertEquals(allLogins.subList(0, 2), subjectLogins(firstPage));
+        assertThat(firstPage.getContent())
+                .allMatch(subject -> Hibernate.isInitialized(subject.getSources()));
+
+        SubjectCriteriaLast last = new SubjectCriteriaLast();
+        last.setLogin(allLogins.get(1));
+        criteria.setLast(last);
+        assertEquals(allLogins.subList(2, Math.min(4, allLogins.size())),
+                subjectLogins(subjectService.findAll(criteria)));
+    }
+
+    @Test
+    @Transactional
+    void testFindAllSliceWithoutCount() {
+        projectService.save(createEntityDTO().getProject());
+        for (int i = 0; i < 3; i++) {
+            subjectService.createSubject(createEntityDTO());
+        }
+
+        SubjectCriteria criteria = new SubjectCriteria();
+        criteria.setProjectName("Radar");
+        criteria.setSize(100);
+        List<String> allLogins = subjectLogins(subjectService.findAll(criteria));
+
+        criteria.setCount(false);
+        criteria.setSize(allLogins.size() - 1);
+        Slice<Subject> slice = subjectService.findAll(criteria);
+        assertThat(slice).isNotInstanceOf(Page.class);
+        assertThat(slice.hasNext()).isTrue();
+        assertEquals(allLogins.subList(0, allLogins.size() - 1), subjectLogins(slice));
+
+        criteria.setSize(allLogins.size());
+        slice = subjectService.findAll(criteria);
+        assertThat(slice.hasNext()).isFalse();
+        assertEquals(allLogins, subjectLogins(slice));
+    }
+
+    @Test
+    @Transactional
+    void testProcessAll() {
+        projectService.save(createEntityDTO().getProject());
+        for (int i = 0; i < 3; i++) {
+            subjectService.createSubject(createEntityDTO());
+        }
+
+        SubjectCriteria criteria = new SubjectCriteria();
+        criteria.setProjectName("Radar");
+        criteria.setSort(List.of("login,desc"));
+        criteria.setSize(100);
+        List<String> allLogins = subjectLogins(subjectService.findAll(criteria));
+
+        // page size is ignored
+        criteria.setSize(1);
+        List<String> processedLogins = new ArrayList<>();
+        subjectService.processAll(criteria, subjects -> subjects.forEach(
+                subject -> processedLogins.add(subject.getUser().getLogin())));
+        assertEquals(allLogins, processedLogins);
+    }
+
+    @Test
+    @Transactional
+    void testCreateSubjects() {
+        ProjectDTO project = projectService.save(createEntityDTO().getProject());
+        SubjectDTO existing = subjectService.createSubject(createEntityDTO());
+
+        List<SubjectDTO> subjects = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            SubjectDTO subject = new SubjectDTO();
+            subject.setLogin("bulk-subject-" + i);
+            subject.setExternalId("bulk-external-id-" + i);
+            subjects.add(subject);
+        }
+        // duplicate login within the request
+        SubjectDTO duplicateLogin = new SubjectDTO();
+        duplicateLogin.setLogin("bulk-subject-0");
+        subjects.add(duplicateLogin);
+        // existing login
+        SubjectDTO existingLogin = new SubjectDTO();
+        existingLogin.setLogin(existing.getLogin());
+        subjects.add(existingLogin);
+        // existing external ID in the project
+        SubjectDTO existingExternalId = new SubjectDTO();
+        existingExternalId.setExternalId(DEFAULT_ENTERNAL_ID);
+        subjects.add(existingExternalId);
+        // group that is not part of the project
+        SubjectDTO unknownGroup = new SubjectDTO();
+        unknownGroup.setGroup("unknown-group");
+        subjects.add(unknownGroup);
+
+        List<SubjectEnrollmentResultDTO> results = subjectService.createSubjects(
+                project, subjects);
+
+        assertThat(results).hasSize(subjects.size());
+        for (int i = 0; i < results.size(); i++) {
+            SubjectEnrollmentResultDTO result = results.get(i);
+            assertEquals(i, result.getRow());
+            assertEquals(subjects.get(i).getLogin(), result.getLogin());
+            assertEquals(i < 3, result.isCreated(), result.toString());
+            assertEquals(i < 3, result.getError() == null, result.toString());
+        }
+        assertEquals(ERR_GROUP_NOT_FOUND, results.get(6).getError());
+
+        for (int i = 0; i < 3; i++) {
+            Subject subject = subjectService.findOneByLogin("bulk-subject-" + i);
+            assertEquals(results.get(i).getId(), subject.getId());
+            assertEquals("bulk-external-id-" + i, subject.getExternalId());
+            assertThat(subject.getActiveProject()).map(Project::getProjectName)
+                    .contains("Radar");
+        }
+    }
+
+    @Test
+    @Transactional
+    void testCreateSubjectsWithInvalidLogin() {
+        ProjectDTO project = projectService.save(createEntityDTO().getProject());
+
+        List<String> logins = List.of("valid-bulk-subject", "invalid/login", "ünicode",
+                "a".repeat(51));
+        List<SubjectDTO> subjects = logins.stream()
+                .map(login -> {
+                    SubjectDTO subject = new SubjectDTO();
+                    subject.setLogin(login);
+                    return subject;
+                })
+                .toList();
+
+        List<SubjectEnrollmentResultDTO> results = subjectService.createSubjects(
+                project, subjects);
+
+        assertThat(results).hasSize(logins.size());
+        assertThat(results.get(0).isCreated()).isTrue();
+        assertThat(results.subList(1, results.size())).allSatisfy(result -> {
+            assertThat(result.isCreated()).isFalse();
+            assertEquals(ERR_VALIDATION, result.getError());
+            assertThat(result.getMessage()).contains("login");
+        });
+        assertNotNull(subjectService.findOneByLogin("valid-bulk-subject"));
+    }
+
+    private static List<String> subjectLogins(Slice<Subject> subjects) {
+        return subjects.stream()
+                .map(subject -> subject.getUser().getLogin())
+                .toList();
+    }
+
 }
@@ -12,6 +12,7 @@ import org.radarbase.management.domain.Authority;
 import org.radarbase.management.domain.Role;
 import org.radarbase.management.domain.User;
 import org.radarbase.management.domain.audit.CustomRevisionEntity;
+import org.radarbase.management.domain.audit.EntityAuditInfo;
 import org.radarbase.management.repository.CustomRevisionEntityRepository;
 import org.radarbase.management.repository.UserRepository;
 import org.radarbase.management.repository.filters.UserFilter;
@@ -250,6 +251,31 @@ public class UserServiceIntTest {
                 .isTrue();
     }
 
+    @Test
+    void testFindUsersWithProvenance() {
+        addExpiredUser(userRepository);
+        commitTransactionAndStartNew();
+
+        final PageRequest pageable = PageRequest.of(0, (int) userRepository.count());
+        final Page<UserDTO> users = userService.findUsers(new UserFilter(), pageable, true);
+
+        assertThat(users.getContent()).isNotEmpty();
+        users.getContent().forEach(dto -> {
+            User user = userRepository.findOneByLogin(dto.getLogin()).orElseThrow();
+            EntityAuditInfo auditInfo = revisionService.getAuditInfo(user);
+            assertThat(dto.getCreatedDate()).isEqualTo(auditInfo.getCreatedAt());
+            assertThat(dto.getCreatedBy()).isEqualTo(auditInfo.getCreatedBy());
+            assertThat(dto.getLastModifiedDate()).isEqualTo(auditInfo.getLastModifiedAt());
+            assertThat(dto.getLastModifiedBy()).isEqualTo(auditInfo.getLastModifiedBy());
+        });
+        assertThat(users.getContent())
+                .anyMatch(dto -> dto.getLogin().equals("expired")
+                        && dto.getCreatedDate() != null);
+
+        userRepository.findOneByLogin("expired").ifPresent(userRepository::delete);
+        commitTransactionAndStartNew();
+    }
+
     /**
      * Create an expired user, save it and return the saved object.
      * @param userRepository The UserRepository that will be used to save the object
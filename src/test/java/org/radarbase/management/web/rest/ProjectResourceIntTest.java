@@ -9,13 +9,17 @@ import org.radarbase.auth.authentication.OAuthHelper;
 import org.radarbase.management.ManagementPortalTestApp;
 import org.radarbase.management.domain.Organization;
 import org.radarbase.management.domain.Project;
+import org.radarbase.management.domain.Subject;
 import org.radarbase.management.domain.enumeration.ProjectStatus;
 import org.radarbase.management.repository.OrganizationRepository;
 import org.radarbase.management.repository.ProjectRepository;
+import org.radarbase.management.repository.SubjectRepository;
 import org.radarbase.management.security.JwtAuthenticationFilter;
 import org.radarbase.management.service.AuthService;
 import org.radarbase.management.service.ProjectService;
+import org.radarbase.management.service.SubjectService;
 import org.radarbase.management.service.dto.ProjectDTO;
+import org.radarbase.management.service.dto.SubjectDTO;
 import org.radarbase.management.service.mapper.ProjectMapper;
 import org.radarbase.management.web.rest.errors.ExceptionTranslator;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,15 +36,21 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.servlet.ServletException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
 import static org.radarbase.management.web.rest.TestUtil.sameInstant;
+import static org.radarbase.management.web.rest.errors.ErrorConstants.ERR_GROUP_NOT_FOUND;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -96,6 +106,12 @@ class ProjectResourceIntTest {
     @Autowired
     private ProjectService projectService;
 
+    @Autowired
+    private SubjectService subjectService;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -118,6 +134,9 @@ class ProjectResourceIntTest {
         ReflectionTestUtils.setField(projectResource, "projectRepository", projectRepository);
         ReflectionTestUtils.setField(projectResource, "projectService", projectService);
         ReflectionTestUtils.setField(projectResource, "authService", authService);
+        ReflectionTestUtils.setField(projectResource, "subjectService", subjectService);
+        ReflectionTestUtils.setField(projectResource, "objectMapper",
+                jacksonMessageConverter.getObjectMapper());
 
         JwtAuthenticationFilter filter = OAuthHelper.createAuthenticationFilter();
         filter.init(new MockFilterConfig());
@@ -377,6 +396,62 @@ class ProjectResourceIntTest {
         assertThat(projectList).hasSize(databaseSizeBeforeUpdate + 1);
     }
 
+    @Test
+    @Transactional
+    void createSubjects() throws Exception {
+        // Initialize the database
+        projectRepository.saveAndFlush(project);
+
+        SubjectDTO subject = new SubjectDTO();
+        subject.setLogin("bulk-subject");
+        subject.setExternalId("bulk-external-id");
+        SubjectDTO invalidSubject = new SubjectDTO();
+        invalidSubject.setGroup("unknown-group");
+
+        restProjectMockMvc.perform(post("/api/projects/{projectName}/subjects",
+                        project.getProjectName())
+                        .contentType(TestUtil.APPLICATION_JSON_UTF8)
+                        .content(TestUtil.convertObjectToJsonBytes(
+                                List.of(subject, invalidSubject))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].login").value("bulk-subject"))
+                .andExpect(jsonPath("$.[0].created").value(true))
+                .andExpect(jsonPath("$.[1].created").value(false))
+                .andExpect(jsonPath("$.[1].error").value(ERR_GROUP_NOT_FOUND));
+
+        Subject created = subjectRepository.findOneWithEagerBySubjectLogin("bulk-subject")
+                .orElseThrow();
+        assertThat(created.getExternalId()).isEqualTo("bulk-external-id");
+        assertThat(created.getActiveProject()).map(Project::getProjectName)
+                .contains(DEFAULT_PROJECT_NAME);
+    }
+
+    @Test
+    @Transactional
+    void createSubjectsFromCsv() throws Exception {
+        // Initialize the database
+        projectRepository.saveAndFlush(project);
+
+        String csv = "login,externalId,dateOfBirth,Human-readable-identifier\n"
+                + "csv-subject-1,csv-1,1990-01-31,hri-1\n"
+                + "csv-subject-2,,,hri-2\n";
+
+        restProjectMockMvc.perform(post("/api/projects/{projectName}/subjects",
+                        project.getProjectName())
+                        .contentType("text/csv")
+                        .content(csv.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].created").value(everyItem(is(true))))
+                .andExpect(jsonPath("$.[*].login").value(
+                        contains("csv-subject-1", "csv-subject-2")));
+
+        Subject subject = subjectRepository.findOneWithEagerBySubjectLogin("csv-subject-1")
+                .orElseThrow();
+        assertThat(subject.getExternalId()).isEqualTo("csv-1");
+        assertThat(subject.getDateOfBirth()).isEqualTo(LocalDate.of(1990, 1, 31));
+        assertThat(subject.getAttributes()).containsEntry("Human-readable-identifier", "hri-1");
+    }
+
     @Test
     @Transactional
     void deleteProject() throws Exception {
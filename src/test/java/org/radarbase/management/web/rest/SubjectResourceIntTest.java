@@ -1,5 +1,6 @@
 package org.radarbase.management.web.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -36,7 +37,10 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.servlet.ServletException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -60,12 +64,15 @@ import static org.radarbase.management.service.SubjectServiceTest.UPDATED_EXTERN
 import static org.radarbase.management.service.SubjectServiceTest.UPDATED_REMOVED;
 import static org.radarbase.management.service.SubjectServiceTest.createEntityDTO;
 import static org.radarbase.management.web.rest.TestUtil.commitTransactionAndStartNew;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -121,6 +128,8 @@ class SubjectResourceIntTest {
         ReflectionTestUtils.setField(subjectResource, "sourceTypeService", sourceTypeService);
         ReflectionTestUtils.setField(subjectResource, "authService", authService);
         ReflectionTestUtils.setField(subjectResource, "sourceService", sourceService);
+        ReflectionTestUtils.setField(subjectResource, "objectMapper",
+                jacksonMessageConverter.getObjectMapper());
 
         JwtAuthenticationFilter filter = OAuthHelper.createAuthenticationFilter();
         filter.init(new MockFilterConfig());
@@ -190,6 +199,53 @@ class SubjectResourceIntTest {
                 .andExpect(jsonPath("$.[*].status").value(hasItem(DEFAULT_STATUS.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllSubjectsWithoutCount() throws Exception {
+        // Initialize the database
+        SubjectDTO subjectDto = subjectService.createSubject(createEntityDTO());
+
+        restSubjectMockMvc.perform(get("/api/subjects?sort=id,desc&count=false"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andExpect(jsonPath("$.[*].id").value(hasItem(subjectDto.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void exportSubjects() throws Exception {
+        // Initialize the database
+        SubjectDTO subjectDto = subjectService.createSubject(createEntityDTO());
+        commitTransactionAndStartNew();
+
+        MvcResult result = restSubjectMockMvc.perform(
+                        get("/api/subjects/export?projectName={project}&sort=id,desc",
+                                subjectDto.getProject().getProjectName()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // exports have their own timeout, instead of the default async request timeout
+        assertThat(result.getRequest().getAsyncContext().getTimeout())
+                .isEqualTo(Duration.ofHours(1).toMillis());
+
+        String content = restSubjectMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(content).endsWith("\n");
+        ObjectMapper objectMapper = jacksonMessageConverter.getObjectMapper();
+        List<SubjectDTO> subjects = new ArrayList<>();
+        for (String line : content.split("\n")) {
+            subjects.add(objectMapper.readValue(line, SubjectDTO.class));
+        }
+        assertThat(subjects).extracting(SubjectDTO::getLogin)
+                .contains(subjectDto.getLogin());
+        assertThat(subjects).extracting(SubjectDTO::getId)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
     @Test
     @Transactional
     void getSubject() throws Exception {